@@ -0,0 +1,84 @@
+package com.calendarreminderapp.controllers;
+
+import com.calendarreminderapp.database.BenchmarkData;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderHeader;
+import com.calendarreminderapp.database.Stores;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless construction of the month/week/day/year node graphs. Runs on the Monocle
+ * headless toolkit against the embedded local store, so no display or Firestore is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {
+        "-Dglass.platform=Monocle",
+        "-Dmonocle.platform=Headless",
+        "-Dprism.order=sw"
+})
+public class CalendarViewBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 6, 15);
+
+    @Param({"MONTH", "WEEK", "DAY", "YEAR"})
+    public String viewMode;
+
+    @Param({"2", "20"})
+    public int remindersPerDay;
+
+    private CalendarController controller;
+    private NavigableMap<LocalDate, List<ReminderHeader>> headers;
+    private List<Reminder> dayReminders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty(Stores.BACKEND_PROPERTY, "local");
+        System.setProperty(Stores.DIRECTORY_PROPERTY, Files.createTempDirectory("calendar-bench").toString());
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        FXMLLoader loader = new FXMLLoader(
+                CalendarController.class.getResource("/com/calendarreminderapp/calendar-view.fxml")
+        );
+        loader.load();
+        controller = loader.getController();
+
+        LocalDate yearStart = LocalDate.of(DATE.getYear(), 1, 1);
+        int days = yearStart.lengthOfYear();
+        NavigableMap<LocalDate, List<Reminder>> byDay =
+                BenchmarkData.byDay(BenchmarkData.reminders(days * remindersPerDay, yearStart, days));
+        headers = ReminderHeader.byDay(byDay);
+        dayReminders = byDay.getOrDefault(DATE, List.of());
+    }
+
+    @Benchmark
+    public void render() {
+        controller.renderSnapshot(CalendarController.ViewMode.valueOf(viewMode), DATE, headers, dayReminders);
+    }
+}
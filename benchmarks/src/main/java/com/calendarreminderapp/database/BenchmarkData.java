@@ -0,0 +1,42 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+// Deterministic fake reminders shared by the benchmarks
+public final class BenchmarkData {
+
+    public static final String USER = "bench-user";
+
+    private BenchmarkData() {
+    }
+
+    // count reminders spread evenly over days starting at 'start', random times of day
+    public static List<Reminder> reminders(int count, LocalDate start, int days) {
+        Random random = new Random(42);
+        List<Reminder> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = start.plusDays(i % days);
+            LocalTime time = LocalTime.of(random.nextInt(24), random.nextInt(60));
+            Reminder r = new Reminder(USER, date.toString(), "Reminder " + i,
+                    "Benchmark description for reminder number " + i, ReminderTime.format(time));
+            r.setId("r" + i);
+            list.add(r);
+        }
+        return list;
+    }
+
+    public static NavigableMap<LocalDate, List<Reminder>> byDay(List<Reminder> reminders) {
+        NavigableMap<LocalDate, List<Reminder>> byDay = new TreeMap<>();
+        for (Reminder r : reminders) {
+            byDay.computeIfAbsent(LocalDate.parse(r.getDate()), d -> new ArrayList<>()).add(r);
+        }
+        byDay.values().forEach(day -> day.sort((a, b) -> Long.compare(a.getSortKey(), b.getSortKey())));
+        return byDay;
+    }
+}
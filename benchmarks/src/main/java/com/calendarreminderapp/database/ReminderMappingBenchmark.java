@@ -0,0 +1,71 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SyntheticDocuments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning a query result into Reminder objects (the loop in every repository read)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderMappingBenchmark {
+
+    @Param({"10000", "100000"})
+    public int documentCount;
+
+    private Firestore firestore;
+    private List<QueryDocumentSnapshot> documents;
+
+    @Setup
+    public void setUp() {
+        firestore = SyntheticDocuments.offlineFirestore();
+        documents = SyntheticDocuments.toSnapshots(firestore,
+                BenchmarkData.reminders(documentCount, LocalDate.of(2026, 1, 1), 365));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        firestore.close();
+    }
+
+    // What repository reads did before DocumentCodec
+    @Benchmark
+    public List<Reminder> reflectiveToObject() {
+        List<Reminder> list = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : documents) {
+            Reminder r = doc.toObject(Reminder.class);
+            r.setId(doc.getId());
+            list.add(r);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Reminder> codec() {
+        List<Reminder> list = new ArrayList<>(documents.size());
+        for (QueryDocumentSnapshot doc : documents) {
+            list.add(DocumentCodec.toReminder(doc));
+        }
+        return list;
+    }
+}
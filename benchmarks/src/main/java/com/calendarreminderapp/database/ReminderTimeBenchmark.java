@@ -0,0 +1,71 @@
+package com.calendarreminderapp.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time-of-day paths used while rendering: string parsing vs the numeric startMinute
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderTimeBenchmark {
+
+    @Param({"1000", "10000"})
+    public int reminderCount;
+
+    private List<Reminder> reminders;
+
+    @Setup
+    public void setUp() {
+        reminders = BenchmarkData.reminders(reminderCount, LocalDate.of(2026, 1, 1), 31);
+    }
+
+    @Benchmark
+    public int hourFromTimeString() {
+        int sum = 0;
+        for (Reminder r : reminders) {
+            sum += ReminderTime.parse(r.getTime()).getHour();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hourFromStartMinute() {
+        int sum = 0;
+        for (Reminder r : reminders) {
+            sum += r.getHour();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<Reminder> sortByTimeString() {
+        List<Reminder> copy = new ArrayList<>(reminders);
+        copy.sort(Comparator.comparing(Reminder::getTime));
+        return copy;
+    }
+
+    @Benchmark
+    public List<Reminder> sortByStartMinute() {
+        List<Reminder> copy = new ArrayList<>(reminders);
+        copy.sort(Comparator.comparingLong(Reminder::getSortKey));
+        return copy;
+    }
+}
@@ -0,0 +1,60 @@
+package com.google.cloud.firestore;
+
+import com.calendarreminderapp.database.Reminder;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.Timestamp;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds real {@link QueryDocumentSnapshot}s from in-memory reminders so the
+ * repository mapping code can be benchmarked without a Firestore backend.
+ * Lives in Firestore's package because the snapshot factories are package-private.
+ */
+public final class SyntheticDocuments {
+
+    private static final String PROJECT = "benchmark";
+
+    private SyntheticDocuments() {
+    }
+
+    // Client that never connects (no RPC is issued while building snapshots)
+    public static Firestore offlineFirestore() {
+        return FirestoreOptions.newBuilder()
+                .setProjectId(PROJECT)
+                .setCredentials(NoCredentials.getInstance())
+                .setEmulatorHost("localhost:8080")
+                .build()
+                .getService();
+    }
+
+    public static List<QueryDocumentSnapshot> toSnapshots(Firestore db, List<Reminder> reminders) {
+        FirestoreRpcContext<?> context = (FirestoreRpcContext<?>) db;
+        Timestamp readTime = Timestamp.now();
+        String prefix = "projects/" + PROJECT + "/databases/(default)/documents/reminders/";
+
+        List<QueryDocumentSnapshot> docs = new ArrayList<>(reminders.size());
+        for (Reminder r : reminders) {
+            Document doc = Document.newBuilder()
+                    .setName(prefix + r.getId())
+                    .putFields("username", string(r.getUsername()))
+                    .putFields("date", string(r.getDate()))
+                    .putFields("title", string(r.getTitle()))
+                    .putFields("description", string(r.getDescription()))
+                    .putFields("time", string(r.getTime()))
+                    .putFields("startMinute", Value.newBuilder().setIntegerValue(r.getStartMinute()).build())
+                    .setCreateTime(readTime.toProto())
+                    .setUpdateTime(readTime.toProto())
+                    .build();
+            docs.add(QueryDocumentSnapshot.fromDocument(context, readTime, doc));
+        }
+        return docs;
+    }
+
+    private static Value string(String s) {
+        return Value.newBuilder().setStringValue(s).build();
+    }
+}
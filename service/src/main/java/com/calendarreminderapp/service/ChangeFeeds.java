@@ -0,0 +1,172 @@
+package com.calendarreminderapp.service;
+
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ServiceJson;
+
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change subscriptions for long-polling clients. Each one is a store listener whose calls
+ * are queued until its client polls. A poll finding nothing queued parks its reply rather
+ * than a thread; the next change, or the end of the poll's wait, sends it. Subscriptions
+ * that go unpolled for a minute are cancelled.
+ */
+final class ChangeFeeds {
+
+    // Sends a poll's answer to its client
+    interface Reply {
+        void send(List<ServiceJson.Changes> changes);
+    }
+
+    private static final long EXPIRE_MILLIS = 60_000;
+    private static final int MAX_WAIT_SECONDS = 55;
+
+    private final ReminderStore store;
+    private final Executor workers;
+    private final ScheduledExecutorService timer;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private final class Feed implements ReminderStore.ChangeListener {
+        final String id;
+        final String username;
+        ReminderStore.Subscription subscription;
+
+        private List<ServiceJson.Changes> queued = new ArrayList<>();
+        private Reply parked;
+        private ScheduledFuture<?> parkedUntil;
+        private long lastPolled = System.currentTimeMillis();
+
+        Feed(String id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        @Override
+        public void onChanges(List<Reminder> upserted, List<String> removedIds) {
+            ServiceJson.Changes changes = new ServiceJson.Changes(List.copyOf(upserted), List.copyOf(removedIds));
+            Reply reply;
+            List<ServiceJson.Changes> batch;
+            synchronized (this) {
+                queued.add(changes);
+                if (parked == null) return;
+                reply = unpark();
+                batch = drain();
+            }
+            workers.execute(() -> reply.send(batch));
+        }
+
+        synchronized void poll(int waitSeconds, Reply reply) {
+            Reply superseded = parked != null ? unpark() : null;
+            lastPolled = System.currentTimeMillis();
+
+            if (!queued.isEmpty() || waitSeconds <= 0) {
+                List<ServiceJson.Changes> batch = drain();
+                workers.execute(() -> reply.send(batch));
+            } else {
+                parked = reply;
+                parkedUntil = timer.schedule(() -> timeout(reply), waitSeconds, TimeUnit.SECONDS);
+            }
+            if (superseded != null) workers.execute(() -> superseded.send(List.of()));
+        }
+
+        // The wait ran out with nothing to send
+        private void timeout(Reply reply) {
+            synchronized (this) {
+                if (parked != reply) return;
+                unpark();
+            }
+            workers.execute(() -> reply.send(List.of()));
+        }
+
+        private Reply unpark() {
+            Reply reply = parked;
+            parked = null;
+            parkedUntil.cancel(false);
+            lastPolled = System.currentTimeMillis();
+            return reply;
+        }
+
+        private List<ServiceJson.Changes> drain() {
+            List<ServiceJson.Changes> batch = queued;
+            queued = new ArrayList<>();
+            return batch;
+        }
+
+        synchronized boolean isAbandoned(long now) {
+            return parked == null && now - lastPolled > EXPIRE_MILLIS;
+        }
+    }
+
+    ChangeFeeds(ReminderStore store, Executor workers, ScheduledExecutorService timer) {
+        this.store = store;
+        this.workers = workers;
+        this.timer = timer;
+        timer.scheduleWithFixedDelay(this::expire, EXPIRE_MILLIS / 4, EXPIRE_MILLIS / 4, TimeUnit.MILLISECONDS);
+    }
+
+    // Month summary subscription when both months are given (each change is queued as an empty
+    // change set), else a range subscription when both dates are, otherwise everything the user has
+    String subscribe(String username, LocalDate from, LocalDate to, YearMonth fromMonth, YearMonth toMonth) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        Feed feed = new Feed(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), username);
+
+        feeds.put(feed.id, feed); // listeners may deliver the initial contents straight away
+        ReminderStore.Subscription subscription = fromMonth != null && toMonth != null
+                ? store.listenToMonthSummaries(username, fromMonth, toMonth, () -> feed.onChanges(List.of(), List.of()))
+                : from != null && to != null
+                ? store.listenToRange(username, from, to, feed)
+                : store.listenToAll(username, feed);
+        synchronized (feed) {
+            feed.subscription = subscription;
+        }
+        return feed.id;
+    }
+
+    void poll(String username, String id, int waitSeconds, Reply reply) {
+        find(username, id).poll(Math.min(waitSeconds, MAX_WAIT_SECONDS), reply);
+    }
+
+    void cancel(String username, String id) {
+        cancel(find(username, id));
+    }
+
+    int size() {
+        return feeds.size();
+    }
+
+    private Feed find(String username, String id) {
+        Feed feed = id != null ? feeds.get(id) : null;
+        if (feed == null || !feed.username.equals(username)) throw new Rejected(404, "No subscription " + id);
+        return feed;
+    }
+
+    private void cancel(Feed feed) {
+        if (feeds.remove(feed.id) == null) return;
+        ReminderStore.Subscription subscription;
+        synchronized (feed) {
+            subscription = feed.subscription;
+        }
+        if (subscription != null) subscription.cancel();
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (Feed feed : feeds.values()) {
+            if (feed.isAbandoned(now)) cancel(feed);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.calendarreminderapp.service;
+
+// A request the service refuses; answered with the status and the message
+final class Rejected extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    final int status;
+
+    Rejected(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
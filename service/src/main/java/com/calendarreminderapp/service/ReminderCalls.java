@@ -0,0 +1,213 @@
+package com.calendarreminderapp.service;
+
+import com.calendarreminderapp.database.BulkResult;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ServiceJson;
+import com.google.gson.JsonObject;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static com.calendarreminderapp.database.ServiceJson.GSON;
+
+/**
+ * The {@code /reminders/<method>} calls: ReminderStore methods of the same name, with
+ * their arguments as a JSON object. A caller only ever reaches their own reminders. Calls
+ * naming a user must name the logged-in one, and every reminder, series or id handed in
+ * must belong to that user or not exist yet.
+ *
+ * <p>Ownership checks of ids the store's offline snapshot has seen are answered from it;
+ * an owner never changes, so that copy cannot be out of date. Bulk calls look up the
+ * owners of all their items in one batched read.
+ */
+final class ReminderCalls {
+
+    interface BulkCall {
+        List<BulkResult> apply(List<Reminder> reminders) throws ExecutionException, InterruptedException;
+    }
+
+    private final ReminderStore store;
+
+    ReminderCalls(ReminderStore store) {
+        this.store = store;
+    }
+
+    Object call(String method, String user, JsonObject a) throws ExecutionException, InterruptedException {
+        switch (method) {
+            case "addReminder":
+                store.addReminder(own(user, a), arg(a, "date", LocalDate.class), string(a, "title"),
+                        string(a, "description"), string(a, "time"));
+                return null;
+            case "getRemindersForDate":
+                return store.getRemindersForDate(own(user, a), required(a, "date", LocalDate.class));
+            case "getRemindersForMonth":
+                return store.getRemindersForMonth(own(user, a), required(a, "month", YearMonth.class));
+            case "getRemindersForRange":
+                return store.getRemindersForRange(own(user, a),
+                        required(a, "from", LocalDate.class), required(a, "to", LocalDate.class));
+            case "getReminderHeadersForRange":
+                return store.getReminderHeadersForRange(own(user, a),
+                        required(a, "from", LocalDate.class), required(a, "to", LocalDate.class));
+            case "getMonthSummaries":
+                return store.getMonthSummaries(own(user, a),
+                        required(a, "from", YearMonth.class), required(a, "to", YearMonth.class));
+            case "getUpcomingReminders":
+                return store.getUpcomingReminders(own(user, a), arg(a, "after", Reminder.class),
+                        required(a, "limit", Integer.class));
+            case "getRemindersPage":
+                return store.getRemindersPage(own(user, a), required(a, "fromMinute", Long.class),
+                        arg(a, "after", Reminder.class), required(a, "limit", Integer.class));
+            case "getSearchEntriesPage":
+                return store.getSearchEntriesPage(own(user, a), arg(a, "after", Reminder.class),
+                        required(a, "limit", Integer.class));
+            case "getOwner": {
+                String owner = store.getOwner(required(a, "id", String.class));
+                return user.equals(owner) ? owner : null; // nobody learns about other users' ids
+            }
+            case "getOwners": {
+                Map<String, String> owners = new HashMap<>(store.getOwners(required(a, "ids", ServiceJson.IDS)));
+                owners.values().removeIf(owner -> !owner.equals(user));
+                return owners;
+            }
+            case "deleteReminder":
+                store.deleteReminder(owned(user, arg(a, "reminder", Reminder.class)));
+                return null;
+            case "updateReminder":
+                store.updateReminder(owned(user, arg(a, "reminder", Reminder.class)), arg(a, "newDate", LocalDate.class),
+                        string(a, "newTitle"), string(a, "newDescription"), string(a, "newTime"));
+                return null;
+            case "updateReminderByFields":
+                store.updateReminderByFields(own(user, a), string(a, "originalDate"), string(a, "originalTime"),
+                        string(a, "originalTitle"), arg(a, "newDate", LocalDate.class), string(a, "newTitle"),
+                        string(a, "newDescription"), string(a, "newTime"));
+                return null;
+            case "addReminders":
+                return bulk(user, reminders(a), store::addReminders);
+            case "updateReminders":
+                return bulk(user, reminders(a), store::updateReminders);
+            case "moveReminders": {
+                LocalDate newDate = required(a, "newDate", LocalDate.class);
+                return bulk(user, reminders(a), list -> store.moveReminders(list, newDate));
+            }
+            case "deleteReminders":
+                return bulk(user, reminders(a), store::deleteReminders);
+            case "addSeries":
+                store.addSeries(owned(user, arg(a, "series", Reminder.class)));
+                return null;
+            case "getSeries":
+                return store.getSeries(own(user, a));
+            case "updateSeries":
+                store.updateSeries(ownedSeries(user, a), string(a, "newTitle"), string(a, "newDescription"),
+                        string(a, "newTime"), string(a, "newRecurrence"));
+                return null;
+            case "deleteSeries":
+                store.deleteSeries(ownedSeries(user, a));
+                return null;
+            case "skipOccurrence":
+                store.skipOccurrence(owned(user, arg(a, "occurrence", Reminder.class)));
+                return null;
+            case "overrideOccurrence":
+                store.overrideOccurrence(owned(user, arg(a, "occurrence", Reminder.class)), arg(a, "newDate", LocalDate.class),
+                        string(a, "newTitle"), string(a, "newDescription"), string(a, "newTime"));
+                return null;
+            default:
+                throw new Rejected(404, "Unknown call: " + method);
+        }
+    }
+
+    // Runs a bulk call on the items the user may touch; the others fail on their own
+    private List<ServiceJson.BulkItem> bulk(String user, List<Reminder> reminders, BulkCall call)
+            throws ExecutionException, InterruptedException {
+        ServiceJson.BulkItem[] items = new ServiceJson.BulkItem[reminders.size()];
+        List<Reminder> allowed = new ArrayList<>(reminders.size());
+        List<Integer> positions = new ArrayList<>(reminders.size());
+        Map<String, String> owners = owners(reminders);
+        for (int i = 0; i < reminders.size(); i++) {
+            Reminder r = reminders.get(i);
+            String problem = problem(user, r, owners);
+            if (problem != null) {
+                items[i] = new ServiceJson.BulkItem(i, r != null ? r.getId() : null, problem);
+            } else {
+                allowed.add(r);
+                positions.add(i);
+            }
+        }
+
+        if (!allowed.isEmpty()) {
+            for (BulkResult result : call.apply(allowed)) {
+                int i = positions.get(result.getIndex());
+                items[i] = ServiceJson.BulkItem.of(i, result);
+            }
+        }
+        return Arrays.asList(items);
+    }
+
+    // Owners of every id and series id the reminders name, in one batched read
+    private Map<String, String> owners(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        Set<String> ids = new HashSet<>();
+        for (Reminder r : reminders) {
+            if (r == null) continue;
+            if (r.getId() != null) ids.add(r.getId());
+            if (r.getSeriesId() != null) ids.add(r.getSeriesId());
+        }
+        return ids.isEmpty() ? Map.of() : store.getOwners(ids);
+    }
+
+    // Why the user may not hand in this reminder, or null if they may
+    private static String problem(String user, Reminder r, Map<String, String> owners) {
+        if (r == null) return "Missing reminder";
+        if (!user.equals(r.getUsername())) return "Reminder belongs to another user";
+        for (String id : new String[]{r.getId(), r.getSeriesId()}) {
+            if (id == null) continue;
+            String owner = owners.get(id);
+            if (owner != null && !owner.equals(user)) return "Reminder belongs to another user";
+        }
+        return null;
+    }
+
+    private Reminder owned(String user, Reminder r) throws ExecutionException, InterruptedException {
+        String problem = problem(user, r, r == null ? Map.of() : owners(List.of(r)));
+        if (problem != null) throw new Rejected(r == null ? 400 : 403, problem);
+        return r;
+    }
+
+    private String ownedSeries(String user, JsonObject a) throws ExecutionException, InterruptedException {
+        String seriesId = required(a, "seriesId", String.class);
+        if (!user.equals(store.getOwner(seriesId))) throw new Rejected(404, "No series " + seriesId);
+        return seriesId;
+    }
+
+    private static String own(String user, JsonObject a) {
+        String username = required(a, "username", String.class);
+        if (!username.equals(user)) throw new Rejected(403, "Logged in as another user");
+        return username;
+    }
+
+    private static List<Reminder> reminders(JsonObject a) {
+        return required(a, "reminders", ServiceJson.REMINDERS);
+    }
+
+    static String string(JsonObject a, String name) {
+        return arg(a, name, String.class);
+    }
+
+    static <T> T arg(JsonObject a, String name, Type type) {
+        return GSON.fromJson(a.get(name), type);
+    }
+
+    static <T> T required(JsonObject a, String name, Type type) {
+        T value = arg(a, name, type);
+        if (value == null) throw new Rejected(400, "Missing argument: " + name);
+        return value;
+    }
+}
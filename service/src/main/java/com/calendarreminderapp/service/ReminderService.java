@@ -0,0 +1,231 @@
+package com.calendarreminderapp.service;
+
+import com.calendarreminderapp.database.Database;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ServiceJson;
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.database.UserStore;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.calendarreminderapp.database.ServiceJson.GSON;
+
+/**
+ * Headless reminder service. Serves the UserStore and ReminderStore operations over HTTP
+ * to apps in client mode ({@code -Dcalendar.store=remote}), so Firestore sees one listener
+ * per watched range however many clients are watching it.
+ *
+ * <p>The store comes from {@link Stores} exactly as in the app: with Firestore it is an
+ * OfflineReminderStore, which shares one Firestore listener between every client listener
+ * on the same range of a user and answers them from its snapshot. Reads go to Firestore.
+ * Users nobody has touched for ten minutes are dropped from the snapshot.
+ *
+ * <p>Every call is a JSON POST answered with JSON:
+ * <ul>
+ *   <li>{@code /users/create}, {@code /users/login}: the login reply carries a token for
+ *       the {@code Authorization: Bearer} header of every other call, good for twelve hours</li>
+ *   <li>{@code /reminders/<method>}: see {@link ReminderCalls}</li>
+ *   <li>{@code /reminders/listen} (from, to or neither), {@code /reminders/listen/poll}
+ *       (id, wait), {@code /reminders/listen/cancel} (id): see {@link ChangeFeeds}</li>
+ * </ul>
+ *
+ * <p>Requests run on a fixed pool of {@code -Dcalendar.service.threads} threads. Waiting
+ * polls are parked without a thread, so the pool only has to cover calls in progress.
+ */
+public final class ReminderService {
+
+    public static final String PORT_PROPERTY = "calendar.service.port";
+    public static final String THREADS_PROPERTY = "calendar.service.threads";
+
+    private static final int BACKLOG = 1024;
+    // A token stops working this long after its login; clients then log in again on their own
+    private static final long SESSION_MILLIS = 12 * 60 * 60_000L;
+    private static final long SESSION_SWEEP_MILLIS = 10 * 60_000L;
+
+    private record Session(String username, long expiresAt) {
+    }
+
+    private final UserStore users;
+    private final ReminderCalls calls;
+    private final ChangeFeeds feeds;
+    private final ExecutorService workers;
+    private final HttpServer server;
+
+    // Session tokens of logged-in clients; expired ones are swept on the timer
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    public ReminderService(UserStore users, ReminderStore reminders, int port, int threads) throws IOException {
+        this.users = users;
+        this.calls = new ReminderCalls(reminders);
+
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads,
+                task -> new Thread(task, "service-request-" + count.incrementAndGet()));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "service-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.feeds = new ChangeFeeds(reminders, workers, timer);
+        timer.scheduleWithFixedDelay(this::expireSessions, SESSION_SWEEP_MILLIS, SESSION_SWEEP_MILLIS,
+                TimeUnit.MILLISECONDS);
+
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+    }
+
+    public static void main(String[] args) {
+        int port = Integer.getInteger(PORT_PROPERTY, 8085);
+        int threads = Integer.getInteger(THREADS_PROPERTY, 64);
+        try {
+            ReminderService service = new ReminderService(Stores.users(), Stores.reminders(), port, threads);
+            service.start();
+            System.out.println("✅ Reminder service listening on port " + port + " with " + threads + " request threads");
+        } catch (IOException e) {
+            System.out.println("❌ Reminder service could not start");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) throw new Rejected(405, "Only POST is supported");
+            JsonObject a = body(exchange);
+
+            switch (path) {
+                case "/users/create" -> {
+                    users.createUser(ReminderCalls.required(a, "username", String.class),
+                            ReminderCalls.required(a, "password", String.class));
+                    respond(exchange, 200, null);
+                }
+                case "/users/login" -> respond(exchange, 200, login(a));
+                case "/reminders/listen" -> respond(exchange, 200, new ServiceJson.Subscribed(
+                        feeds.subscribe(user(exchange),
+                                ReminderCalls.arg(a, "from", LocalDate.class),
+                                ReminderCalls.arg(a, "to", LocalDate.class),
+                                ReminderCalls.arg(a, "fromMonth", YearMonth.class),
+                                ReminderCalls.arg(a, "toMonth", YearMonth.class))));
+                case "/reminders/listen/poll" -> {
+                    Integer wait = ReminderCalls.arg(a, "wait", Integer.class);
+                    feeds.poll(user(exchange), ReminderCalls.string(a, "id"), wait != null ? wait : 0,
+                            changes -> respond(exchange, 200, changes)); // answered later, off this thread
+                }
+                case "/reminders/listen/cancel" -> {
+                    feeds.cancel(user(exchange), ReminderCalls.string(a, "id"));
+                    respond(exchange, 200, null);
+                }
+                default -> {
+                    if (!path.startsWith("/reminders/")) throw new Rejected(404, "Unknown path: " + path);
+                    String user = user(exchange);
+                    respond(exchange, 200, calls.call(path.substring("/reminders/".length()), user, a));
+                }
+            }
+        } catch (Rejected e) {
+            respond(exchange, e.status, new ServiceJson.Failure(e.getMessage()));
+        } catch (JsonParseException | DateTimeParseException | IllegalArgumentException e) {
+            respond(exchange, 400, new ServiceJson.Failure(e.getMessage()));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (Database.isUnavailable(cause)) {
+                respond(exchange, 503, new ServiceJson.Failure("Store unavailable: " + cause.getMessage()));
+            } else if (cause instanceof IllegalArgumentException) {
+                respond(exchange, 400, new ServiceJson.Failure(cause.getMessage()));
+            } else {
+                System.out.println("❌ Reminder service call failed: " + path);
+                e.printStackTrace();
+                respond(exchange, 500, new ServiceJson.Failure(String.valueOf(cause.getMessage())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, new ServiceJson.Failure("Service shutting down"));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("❌ Reminder service call failed: " + path);
+            e.printStackTrace();
+            respond(exchange, 500, new ServiceJson.Failure(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private ServiceJson.Login login(JsonObject a) throws ExecutionException, InterruptedException {
+        String username = ReminderCalls.required(a, "username", String.class);
+        if (!users.validateUser(username, ReminderCalls.required(a, "password", String.class))) {
+            return new ServiceJson.Login(false, null);
+        }
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(username, System.currentTimeMillis() + SESSION_MILLIS));
+        return new ServiceJson.Login(true, token);
+    }
+
+    private String user(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        Session session = header != null && header.startsWith("Bearer ")
+                ? sessions.get(header.substring("Bearer ".length()))
+                : null;
+        if (session == null || session.expiresAt() <= System.currentTimeMillis()) {
+            throw new Rejected(401, "Not logged in");
+        }
+        return session.username();
+    }
+
+    private void expireSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt() <= now);
+    }
+
+    private static JsonObject body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonObject a = GSON.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), JsonObject.class);
+            return a != null ? a : new JsonObject();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) {
+        byte[] bytes = GSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            // the client went away; nothing left to tell it
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.calendarreminderapp;
 
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.controllers.Views;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/com/calendarreminderapp/login.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
+        long startNanos = System.nanoTime();
+
+        // Firebase setup, store construction and a warm-up read run on the I/O pool
+        // while the login window is loaded and shown
+        Stores.warmUpAsync().whenComplete((ignored, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+                return;
+            }
+            System.out.printf("⏱ Stores ready %d ms after start()%n", (System.nanoTime() - startNanos) / 1_000_000);
+        });
+
+        Views.show(stage, Views.LOGIN);
         stage.setTitle("Calendar Reminder App - Login");
-        stage.setScene(scene);
 
         // NEW window look
         stage.setMinWidth(1000);
@@ -24,6 +35,15 @@ public class HelloApplication extends Application {
 
 
         stage.show();
+
+        // Parse the next screens in the background while credentials are typed
+        Views.preload(Views.CALENDAR);
+        Views.preload(Views.REGISTER);
+        Views.preload(Views.HELP);
+
+        System.out.printf("⏱ Login window shown %d ms after start() (%d ms after JVM launch)%n",
+                (System.nanoTime() - startNanos) / 1_000_000,
+                ManagementFactory.getRuntimeMXBean().getUptime());
     }
 
     public static void main(String[] args) {
@@ -1,28 +1,55 @@
 package com.calendarreminderapp.controllers;
 
+import com.calendarreminderapp.database.BulkResult;
+import com.calendarreminderapp.database.Database;
+import com.calendarreminderapp.database.MonthSummary;
+import com.calendarreminderapp.database.RangePrefetcher;
+import com.calendarreminderapp.database.Recurrence;
 import com.calendarreminderapp.database.Reminder;
-import com.calendarreminderapp.database.ReminderRepository;
+import com.calendarreminderapp.database.ReminderCache;
+import com.calendarreminderapp.database.ReminderHeader;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ReminderTime;
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.database.UpcomingWindow;
+import com.calendarreminderapp.ics.IcsTransfer;
+import com.calendarreminderapp.scheduler.DesktopNotifier;
+import com.calendarreminderapp.scheduler.ReminderScheduler;
+import com.calendarreminderapp.search.ReminderIndex;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.geometry.Orientation;
 
 
+import java.io.File;
 import java.io.IOException;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 public class CalendarController {
 
-    private enum ViewMode {YEAR, MONTH, WEEK, DAY}
+    enum ViewMode {YEAR, MONTH, WEEK, DAY}
+
+    private static final String REPEAT_NONE = "Does not repeat";
 
     private ViewMode currentViewMode = ViewMode.MONTH;
 
@@ -37,6 +64,12 @@ public class CalendarController {
     private ListView<Reminder> dayRemindersList;
     @FXML
     private ListView<Reminder> upcomingRemindersList;
+    @FXML
+    private Label upcomingTitleLabel;
+    @FXML
+    private TextField searchField;
+    @FXML
+    private ListView<Reminder> searchResultsList;
 
     @FXML
     private TextField titleField;
@@ -48,6 +81,8 @@ public class CalendarController {
     private ComboBox<String> minuteCombo;
     @FXML
     private ComboBox<String> ampmCombo;
+    @FXML
+    private ComboBox<String> repeatCombo;
 
     @FXML
     private Button addReminderButton;
@@ -67,42 +102,169 @@ public class CalendarController {
     @FXML
     private Button yearViewButton;
 
-    private ReminderRepository reminderRepository;
+    @FXML
+    private Button importButton;
+    @FXML
+    private Button exportButton;
+    @FXML
+    private Label statusLabel;
+
+    private ReminderStore reminderRepository;
+    private ReminderCache reminderCache;
+    private ReminderScheduler reminderScheduler;
+    private Stage helpStage; // created on first use, then hidden and re-shown
+    private Stage diagnosticsStage;
+
+    // Upcoming list: the next reminders from now, extended a page at a time
+    private static final int UPCOMING_PAGE_SIZE = 20;
+    private static final int UPCOMING_PREFETCH_ROWS = 5;
+    private UpcomingWindow upcomingWindow;
+
+    // Search box: an index over the user's whole history, read a projected page at a time in
+    // the background, then kept current from what the calendar loads and writes
+    private static final int SEARCH_RESULTS = 50;
+    private static final int SEARCH_PAGE_SIZE = 500;
+    private ReminderIndex searchIndex;
+    private final PauseTransition searchSeriesReload = new PauseTransition(javafx.util.Duration.millis(300));
+    private final Timeline upcomingExpiry = new Timeline(new KeyFrame(javafx.util.Duration.seconds(15), e -> {
+        if (upcomingWindow != null) upcomingWindow.expire();
+    }));
+    private final DesktopNotifier notifier = new DesktopNotifier();
+    private final PauseTransition statusExpiry = new PauseTransition(javafx.util.Duration.seconds(15));
     private String currentUser;
+    private long sessionGeneration = 0; // bumped on every login and logout
 
     private YearMonth currentYearMonth = YearMonth.now();
     private LocalDate selectedDate = LocalDate.now();
 
     private final Pane[] daySlots = new Pane[24];
 
+    // Week grid: start and title of each reminder in the visible range, grouped by day
+    private NavigableMap<LocalDate, List<ReminderHeader>> headersByDate = new TreeMap<>();
+    private LocalDate loadedFrom;
+    private LocalDate loadedTo;
+
+    // The selected day's reminders in full, for the list and the day view
+    private LocalDate extraDay;
+    private List<Reminder> extraDayReminders = List.of();
+
+    // Month and year grids: how busy each day is, one summary per month. Kept until the next
+    // write; a change from elsewhere to the visible months' summary documents reloads them
+    // once changes have paused.
+    private final NavigableMap<YearMonth, MonthSummary> summaries = new TreeMap<>();
+    private long summaryEpoch = 0; // bumped when summaries are dropped; older loads are discarded
+    private final PauseTransition summaryReload = new PauseTransition(javafx.util.Duration.millis(300));
+    private ReminderStore.Subscription summarySubscription;
+    private YearMonth watchedFirst;
+    private YearMonth watchedLast;
+
+    // Bumped on every refresh; async results from an older generation are dropped
+    private long renderGeneration = 0;
+
+    // Neighbouring periods are fetched once navigation has been idle this long
+    private RangePrefetcher prefetcher;
+    private final PauseTransition prefetchDelay = new PauseTransition(javafx.util.Duration.millis(250));
+
 
     private Reminder selectedReminder;
 
     // EDIT MODE switch
     private boolean isEditing = false;
 
+    // The controller is cached across logins (see Views): every session starts from today with an empty form
     public void setCurrentUser(String user) {
         this.currentUser = user;
-        buildCalendar();
-        loadUpcomingReminders();
-        updateDayReminders();
-    }
 
-    @FXML
-    public void initialize() {
+        currentYearMonth = YearMonth.now();
+        selectedDate = LocalDate.now();
+        selectedReminder = null;
+        isEditing = false;
+        dayRemindersList.getSelectionModel().clearSelection();
+        clearForm();
+        addReminderButton.setText("Save Reminder");
+        editReminderButton.setDisable(true);
+        deleteReminderButton.setDisable(true);
 
-        try {
-            reminderRepository = new ReminderRepository();
-        } catch (Exception e) {
-            e.printStackTrace();
+        long session = ++sessionGeneration;
+        stopSession();
+        if (user == null || reminderRepository != null) {
+            startSession();
+            return;
         }
 
-        setupTimeDropdowns();
+        // First login: the store is resolved off the FX thread (Firestore waits for Firebase setup)
+        Stores.remindersAsync().whenComplete((store, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                e.printStackTrace();
+                return;
+            }
+            if (session != sessionGeneration) return; // logged out or in again meanwhile
+            reminderRepository = store;
+            startSession();
+        }));
+    }
 
-        buildCalendar();
-        updateSelectedDateLabel();
-        updateDayReminders();
-        loadUpcomingReminders();
+    // Cache, prefetcher, scheduler and timers for the current user (none when logged out)
+    private void startSession() {
+        if (reminderRepository != null && currentUser != null) {
+            reminderCache = new ReminderCache(reminderRepository, currentUser, (upserted, removedIds) ->
+                    Platform.runLater(() -> {
+                        indexCached(upserted, removedIds);
+                        refresh();
+                    }));
+            prefetcher = new RangePrefetcher(reminderRepository, currentUser);
+            reminderScheduler = new ReminderScheduler(reminderRepository, currentUser, notifier);
+            reminderScheduler.start();
+            Stores.onRejectedChange(rejection -> Platform.runLater(() -> showStatus(
+                    "⚠ An offline " + rejection.change() + " was refused and dropped: " + rejection.reason()
+                            + " (see Diagnostics)")));
+
+            upcomingExpiry.setCycleCount(Animation.INDEFINITE);
+            upcomingExpiry.play();
+        }
+
+        resetUpcoming();
+        resetSearch();
+        invalidate();
+        refresh();
+    }
+
+    private void stopSession() {
+        if (reminderCache != null) reminderCache.close();
+        reminderCache = null;
+        if (prefetcher != null) prefetcher.clear();
+        prefetcher = null;
+        if (reminderScheduler != null) reminderScheduler.stop();
+        reminderScheduler = null;
+        upcomingExpiry.stop();
+        Stores.onRejectedChange(null);
+        statusExpiry.stop();
+        statusLabel.setText(null);
+        unwatchSummaries();
+    }
+
+    // A one-line message in the top bar, cleared after a while; the full text is in its tooltip
+    private void showStatus(String message) {
+        statusLabel.setText(message);
+        statusLabel.setTooltip(new Tooltip(message));
+        statusExpiry.setOnFinished(e -> statusLabel.setText(null));
+        statusExpiry.playFromStart();
+    }
+
+    // Node setup only: the view may be preloaded off the FX thread (see Views), so stores,
+    // listeners and timers start in setCurrentUser
+    @FXML
+    public void initialize() {
+        setupTimeDropdowns();
+        prefetchDelay.setOnFinished(e -> prefetchAdjacent());
+        searchSeriesReload.setOnFinished(e -> reloadSearchSeries());
+        summaryReload.setOnFinished(e -> {
+            if (!showsSummaries()) return;
+            dropSummaries();
+            extraDay = null;
+            refresh();
+        });
+        render();
 
         editReminderButton.setDisable(true);
         deleteReminderButton.setDisable(true);
@@ -114,7 +276,7 @@ public class CalendarController {
                 super.updateItem(r, empty);
                 if (empty || r == null) setText(null);
                 else {
-                    String text = r.getTime() + " — " + r.getTitle();
+                    String text = (r.isOccurrence() ? "↻ " : "") + r.getTime() + " — " + r.getTitle();
                     if (r.getDescription() != null && !r.getDescription().isBlank()) {
                         text += "\n" + r.getDescription();
                     }
@@ -123,6 +285,9 @@ public class CalendarController {
             }
         });
 
+        // Ctrl/Shift-click selects several reminders for a bulk delete
+        dayRemindersList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
         // Selection listener for reminder list
         dayRemindersList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, r) -> {
             selectedReminder = r;
@@ -130,6 +295,7 @@ public class CalendarController {
             boolean valid = (r != null);
             editReminderButton.setDisable(!valid);
             deleteReminderButton.setDisable(!valid);
+            repeatCombo.setDisable(valid);
 
             if (valid) {
                 populateForm(r);
@@ -139,13 +305,39 @@ public class CalendarController {
             }
         });
 
-        // Upcoming uses read-only style
+        // Search as you type; picking a result opens its day
+        searchField.textProperty().addListener((obs, oldText, text) -> runSearch());
+        searchResultsList.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Reminder r, boolean empty) {
+                super.updateItem(r, empty);
+                if (empty || r == null) setText(null);
+                else {
+                    String text = (r.getRecurrence() != null ? "↻ " : "") + r.getDate() + "  " + r.getTime() + " — " + r.getTitle();
+                    if (r.getDescription() != null && !r.getDescription().isBlank()) {
+                        text += "\n" + r.getDescription();
+                    }
+                    setText(text);
+                }
+            }
+        });
+        searchResultsList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, r) -> {
+            if (r == null) return;
+            selectedDate = LocalDate.parse(r.getDate());
+            currentYearMonth = YearMonth.from(selectedDate);
+            refresh();
+        });
+
+        // Upcoming uses read-only style. The ListView only builds cells for visible rows,
+        // so a cell near the end of what is loaded coming into view means the user scrolled there.
         upcomingRemindersList.setCellFactory(lv -> new ListCell<>() {
             @Override
             protected void updateItem(Reminder r, boolean empty) {
                 super.updateItem(r, empty);
                 if (empty || r == null) setText(null);
                 else {
+                    if (getIndex() >= lv.getItems().size() - UPCOMING_PREFETCH_ROWS) loadMoreUpcoming();
+
                     String text = r.getDate() + "  " + r.getTime() + " — " + r.getTitle();
                     if (r.getDescription() != null && !r.getDescription().isBlank()) {
                         text += "\n" + r.getDescription();
@@ -173,32 +365,38 @@ public class CalendarController {
 
         ampmCombo.getItems().addAll("AM", "PM");
 
+        repeatCombo.getItems().setAll(REPEAT_NONE, "Daily", "Weekly", "Monthly", "Yearly");
+        repeatCombo.setValue(REPEAT_NONE);
+
 
         hourCombo.setValue("1");
         minuteCombo.setValue("00");
         ampmCombo.setValue("AM");
+
+        repeatCombo.setValue(REPEAT_NONE);
+        repeatCombo.setDisable(false);
     }
 
     @FXML
     private void handlePrevMonth() {
-        switch (currentViewMode) {
-            case MONTH -> currentYearMonth = currentYearMonth.minusMonths(1);
-            case WEEK -> selectedDate = selectedDate.minusWeeks(1);
-            case DAY -> selectedDate = selectedDate.minusDays(1);
-            case YEAR -> currentYearMonth = currentYearMonth.minusYears(1);
-        }
+        step(-1);
         refresh();
     }
 
     @FXML
     private void handleNextMonth() {
+        step(1);
+        refresh();
+    }
+
+    // Moves one period (month, week, day or year, by view) backwards or forwards
+    private void step(int direction) {
         switch (currentViewMode) {
-            case MONTH -> currentYearMonth = currentYearMonth.plusMonths(1);
-            case WEEK -> selectedDate = selectedDate.plusWeeks(1);
-            case DAY -> selectedDate = selectedDate.plusDays(1);
-            case YEAR -> currentYearMonth = currentYearMonth.plusYears(1);
+            case MONTH -> currentYearMonth = currentYearMonth.plusMonths(direction);
+            case WEEK -> selectedDate = selectedDate.plusWeeks(direction);
+            case DAY -> selectedDate = selectedDate.plusDays(direction);
+            case YEAR -> currentYearMonth = currentYearMonth.plusYears(direction);
         }
-        refresh();
     }
 
     @FXML
@@ -257,30 +455,64 @@ public class CalendarController {
 
         String time = hour + ":" + minute + " " + ampm;
 
-        try {
-            if (isEditing && selectedReminder != null) {
+        CompletableFuture<Void> write;
+        boolean seriesWrite = true;
+        if (isEditing && selectedReminder != null && selectedReminder.isOccurrence()) {
+
+            // UPDATE ONE OCCURRENCE OR THE WHOLE SERIES
+            Optional<Boolean> wholeSeries = askWholeSeries("Edit");
+            if (wholeSeries.isEmpty()) return;
+
+            write = wholeSeries.get()
+                    ? reminderRepository.updateSeriesAsync(selectedReminder.getSeriesId(), title, desc, time,
+                            selectedReminder.getRecurrence())
+                    : reminderRepository.overrideOccurrenceAsync(selectedReminder, selectedDate, title, desc, time);
+
+        } else if (isEditing && selectedReminder != null) {
+
+            // UPDATE MODE
+            seriesWrite = false;
+            write = reminderRepository.updateReminderAsync(
+                    selectedReminder,
+                    selectedDate,
+                    title,
+                    desc,
+                    time
+            );
 
-                // UPDATE MODE
-                reminderRepository.updateReminder(
-                        selectedReminder,
-                        selectedDate,
-                        title,
-                        desc,
-                        time
-                );
+        } else if (!REPEAT_NONE.equals(repeatCombo.getValue())) {
 
-            } else {
+            // ADD RECURRING SERIES
+            Reminder series = new Reminder(currentUser, selectedDate.toString(), title, desc, time);
+            series.setRecurrence(Recurrence.of(
+                    Recurrence.Frequency.valueOf(repeatCombo.getValue().toUpperCase())).toRule());
+            write = reminderRepository.addSeriesAsync(series);
+
+        } else {
+
+            // ADD MODE
+            seriesWrite = false;
+            write = reminderRepository.addReminderAsync(
+                    currentUser,
+                    selectedDate,
+                    title,
+                    desc,
+                    time
+            );
+        }
 
-                // ADD MODE
-                reminderRepository.addReminder(
-                        currentUser,
-                        selectedDate,
-                        title,
-                        desc,
-                        time
-                );
+        boolean reloadSeries = seriesWrite;
+        addReminderButton.setDisable(true);
+        write.whenComplete((ignored, e) -> Platform.runLater(() -> {
+            addReminderButton.setDisable(false);
+            if (e != null) {
+                e.printStackTrace();
+                return;
             }
 
+            // The written day is read again below and indexed from there; a series is re-read whole
+            if (reloadSeries) searchSeriesReload.playFromStart();
+
             // Reset form
             clearForm();
             isEditing = false;
@@ -290,11 +522,9 @@ public class CalendarController {
             editReminderButton.setDisable(true);
             deleteReminderButton.setDisable(true);
 
+            invalidate();
             refresh();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        }));
     }
 
 
@@ -315,34 +545,147 @@ public class CalendarController {
     private void handleDeleteReminder() {
         if (selectedReminder == null) return;
 
-        try {
-            reminderRepository.deleteReminder(selectedReminder);
+        List<Reminder> selected = new ArrayList<>(dayRemindersList.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) selected.add(selectedReminder);
 
-            clearForm();
-            selectedReminder = null;
-            isEditing = false;
+        // Occurrences have no document: they are skipped, or their whole series deleted
+        List<Reminder> stored = new ArrayList<>();
+        List<Reminder> occurrences = new ArrayList<>();
+        for (Reminder r : selected) {
+            (r.isOccurrence() ? occurrences : stored).add(r);
+        }
 
-            addReminderButton.setText("Save Reminder");
-            editReminderButton.setDisable(true);
-            deleteReminderButton.setDisable(true);
+        boolean wholeSeries = false;
+        if (!occurrences.isEmpty()) {
+            Optional<Boolean> answer = askWholeSeries("Delete");
+            if (answer.isEmpty()) return;
+            wholeSeries = answer.get();
+        }
 
-            refresh();
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        CompletableFuture<List<BulkResult>> bulkDelete = reminderRepository.deleteRemindersAsync(stored);
+        writes.add(bulkDelete);
+        if (wholeSeries) {
+            Set<String> seriesIds = new LinkedHashSet<>();
+            for (Reminder r : occurrences) seriesIds.add(r.getSeriesId());
+            for (String seriesId : seriesIds) writes.add(reminderRepository.deleteSeriesAsync(seriesId));
+        } else {
+            for (Reminder r : occurrences) writes.add(reminderRepository.skipOccurrenceAsync(r));
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        deleteReminderButton.setDisable(true);
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, e) -> Platform.runLater(() -> {
+                    if (e != null) {
+                        e.printStackTrace();
+                        deleteReminderButton.setDisable(selectedReminder == null);
+                        return;
+                    }
+                    List<String> deletedIds = new ArrayList<>();
+                    for (BulkResult result : bulkDelete.join()) {
+                        if (!result.isSuccess()) {
+                            System.err.println("Could not delete reminder " + result);
+                        } else {
+                            deletedIds.add(result.getId());
+                        }
+                    }
+                    if (searchIndex != null) {
+                        searchIndex.onChanges(List.of(), deletedIds);
+                        if (!occurrences.isEmpty()) searchSeriesReload.playFromStart();
+                        runSearch();
+                    }
+
+                    clearForm();
+                    selectedReminder = null;
+                    isEditing = false;
+
+                    addReminderButton.setText("Save Reminder");
+                    editReminderButton.setDisable(true);
+                    deleteReminderButton.setDisable(true);
+
+                    invalidate();
+                    refresh();
+                }));
+    }
+
+    @FXML
+    private void handleImport() {
+        File file = icsChooser("Import reminders").showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) return;
+
+        importButton.setDisable(true);
+        Database.supplyAsync(() -> IcsTransfer.importFile(reminderRepository, currentUser, file.toPath(),
+                        n -> Platform.runLater(() -> importButton.setText("Importing " + n + "…"))))
+                .whenComplete((result, e) -> Platform.runLater(() -> {
+                    importButton.setText("Import");
+                    importButton.setDisable(false);
+                    if (e != null) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        showImportResult(Alert.AlertType.ERROR, "Import failed",
+                                file.getName() + " could not be imported: " + cause.getMessage());
+                        return;
+                    }
+                    showImportResult(result.failed() > 0 ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION,
+                            "Import finished", importSummary(file, result));
+
+                    loadSearchIndex(); // too many new reminders to add one by one
+                    invalidate();
+                    refresh();
+                }));
+    }
+
+    private static String importSummary(File file, IcsTransfer.ImportResult result) {
+        StringBuilder text = new StringBuilder("Imported " + result.imported() + " reminder(s) from " + file.getName() + ".");
+        if (result.failed() > 0) text.append("\n").append(result.failed()).append(" could not be imported.");
+        if (result.resumedFrom() > 0) {
+            text.append("\n").append(result.resumedFrom()).append(" were already imported by an earlier run.");
         }
+        return text.toString();
+    }
+
+    // Non-modal, so the calendar can be looked at while it is open; the counts also show in the top bar
+    private void showImportResult(Alert.AlertType type, String header, String text) {
+        showStatus(text.replace('\n', ' '));
+        Alert alert = new Alert(type, text, ButtonType.OK);
+        alert.initOwner(importButton.getScene().getWindow());
+        alert.setHeaderText(header);
+        alert.show();
+    }
+
+    @FXML
+    private void handleExport() {
+        FileChooser chooser = icsChooser("Export reminders");
+        chooser.setInitialFileName(currentUser + ".ics");
+        File file = chooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (file == null) return;
+
+        exportButton.setDisable(true);
+        Database.supplyAsync(() -> IcsTransfer.exportFile(reminderRepository, currentUser, file.toPath(),
+                        n -> Platform.runLater(() -> exportButton.setText("Exporting " + n + "…"))))
+                .whenComplete((count, e) -> Platform.runLater(() -> {
+                    exportButton.setText("Export");
+                    exportButton.setDisable(false);
+                    if (e != null) {
+                        e.printStackTrace();
+                    }
+                }));
+    }
+
+    private FileChooser icsChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("iCalendar files", "*.ics"));
+        return chooser;
     }
 
     @FXML
     private void handleLogout() {
-        try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/calendarreminderapp/login.fxml")
-            );
-            Parent root = loader.load();
+        setCurrentUser(null); // stops the cache, prefetcher and scheduler and clears the screen
+        notifier.close();
 
+        try {
             Stage stage = (Stage) backButton.getScene().getWindow();
-            stage.setScene(new Scene(root, 800, 600));
+            Views.show(stage, Views.LOGIN);
             stage.show();
 
         } catch (IOException e) {
@@ -357,19 +700,42 @@ public class CalendarController {
         titleField.setText(r.getTitle());
         descriptionArea.setText(r.getDescription() == null ? "" : r.getDescription());
 
-        try {
-            String[] parts = r.getTime().split(" ");
-            String[] hm = parts[0].split(":");
+        int minuteOfDay = r.getMinuteOfDay();
+        int hour24 = minuteOfDay / 60;
+        int hour12 = hour24 % 12 == 0 ? 12 : hour24 % 12;
 
-            hourCombo.getSelectionModel().select(hm[0]);
-            minuteCombo.getSelectionModel().select(hm[1]);
-            ampmCombo.getSelectionModel().select(parts[1]);
+        hourCombo.getSelectionModel().select(String.valueOf(hour12));
+        minuteCombo.getSelectionModel().select(String.format("%02d", minuteOfDay % 60));
+        ampmCombo.getSelectionModel().select(hour24 < 12 ? "AM" : "PM");
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        // Repeat only applies when adding; edits keep the series rule
+        repeatCombo.setValue(r.getRecurrence() == null ? REPEAT_NONE : repeatLabel(r.getRecurrence()));
+        repeatCombo.setDisable(true);
+    }
+
+    private static String repeatLabel(String rule) {
+        try {
+            String name = Recurrence.parse(rule).getFrequency().name();
+            return name.charAt(0) + name.substring(1).toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return REPEAT_NONE;
         }
     }
 
+    // Empty when cancelled, true for the whole series, false for just this occurrence
+    private Optional<Boolean> askWholeSeries(String action) {
+        ButtonType thisEvent = new ButtonType("This event");
+        ButtonType allEvents = new ButtonType("All events");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+                action + " only this occurrence, or every occurrence in the series?",
+                thisEvent, allEvents, ButtonType.CANCEL);
+        alert.setHeaderText("Recurring reminder");
+
+        Optional<ButtonType> choice = alert.showAndWait();
+        if (choice.isEmpty() || choice.get() == ButtonType.CANCEL) return Optional.empty();
+        return Optional.of(choice.get() == allEvents);
+    }
+
 
     private void clearForm() {
         titleField.clear();
@@ -379,236 +745,338 @@ public class CalendarController {
         hourCombo.setValue("1");
         minuteCombo.setValue("00");
         ampmCombo.setValue("AM");
+
+        repeatCombo.setValue(REPEAT_NONE);
+        repeatCombo.setDisable(false);
     }
 
-    private void updateDayReminders() {
-        try {
-            List<Reminder> list =
-                    reminderRepository.getRemindersForDate(currentUser, selectedDate);
-            list.sort(Comparator.comparing(Reminder::getTime));
-            dayRemindersList.getItems().setAll(list);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    // Range the current view needs: the month, widened to the full week in week view
+    // and to the whole year in year view
+    private LocalDate visibleFrom() {
+        return visibleFrom(currentYearMonth, selectedDate);
     }
 
-    private void loadUpcomingReminders() {
-        try {
-            List<Reminder> list =
-                    reminderRepository.getRemindersForMonth(currentUser, currentYearMonth);
+    private LocalDate visibleTo() {
+        return visibleTo(currentYearMonth, selectedDate);
+    }
 
-            list.sort(
-                    Comparator.comparing((Reminder r) -> LocalDate.parse(r.getDate()))
-                            .thenComparing(Reminder::getTime)
-            );
+    private LocalDate visibleFrom(YearMonth month, LocalDate date) {
+        if (currentViewMode == ViewMode.YEAR) {
+            return LocalDate.of(month.getYear(), 1, 1);
+        }
 
-            upcomingRemindersList.getItems().setAll(list);
-        } catch (Exception e) {
-            e.printStackTrace();
+        LocalDate from = month.atDay(1);
+        if (currentViewMode == ViewMode.WEEK) {
+            LocalDate weekStart = date.with(DayOfWeek.MONDAY);
+            if (weekStart.isBefore(from)) from = weekStart;
         }
+        return from;
     }
 
-
-    private void buildCalendar() {
-        calendarGrid.getChildren().clear();
-        calendarGrid.getColumnConstraints().clear();
-        calendarGrid.getRowConstraints().clear();
-
-        switch (currentViewMode) {
-            case YEAR -> buildYearView();
-            case MONTH -> buildMonthView();
-            case WEEK -> buildWeekView();
-            case DAY -> buildDayView();
+    private LocalDate visibleTo(YearMonth month, LocalDate date) {
+        if (currentViewMode == ViewMode.YEAR) {
+            return LocalDate.of(month.getYear(), 12, 31);
         }
 
-        updateMonthLabel();
-        highlightSelectedDay();
+        LocalDate to = month.atEndOfMonth();
+        if (currentViewMode == ViewMode.WEEK) {
+            LocalDate weekEnd = date.with(DayOfWeek.MONDAY).plusDays(6);
+            if (weekEnd.isAfter(to)) to = weekEnd;
+        }
+        return to;
     }
 
-    private VBox buildMonthCard(YearMonth ym) {
-        VBox box = new VBox();
-        box.getStyleClass().add("year-month-card");
-        box.setSpacing(6);
-        box.setPadding(new Insets(10));
+    // What the previous and next period would read: the week grid's headers, the month or year
+    // grid's summaries, the day view's reminders. Ranges the live cache already watches and
+    // summaries already held are left out.
+    private List<RangePrefetcher.Key> adjacentKeys() {
+        List<RangePrefetcher.Key> keys = new ArrayList<>(2);
+        for (int direction : new int[]{-1, 1}) {
+            switch (currentViewMode) {
+                case WEEK -> {
+                    LocalDate date = selectedDate.plusWeeks(direction);
+                    LocalDate from = visibleFrom(YearMonth.from(date), date);
+                    LocalDate to = visibleTo(YearMonth.from(date), date);
+                    if (reminderCache == null || !reminderCache.watches(from, to)) {
+                        keys.add(new RangePrefetcher.Range(from, to));
+                    }
+                }
+                case DAY -> {
+                    LocalDate date = selectedDate.plusDays(direction);
+                    if (reminderCache == null || !reminderCache.watches(date, date)) {
+                        keys.add(new RangePrefetcher.Day(date));
+                    }
+                }
+                case MONTH, YEAR -> {
+                    YearMonth first = currentViewMode == ViewMode.YEAR
+                            ? YearMonth.of(currentYearMonth.getYear() + direction, 1)
+                            : currentYearMonth.plusMonths(direction);
+                    YearMonth last = currentViewMode == ViewMode.YEAR ? first.plusMonths(11) : first;
+                    if (!summaries.containsKey(first) || !summaries.containsKey(last)) {
+                        keys.add(new RangePrefetcher.Months(first, last));
+                    }
+                }
+            }
+        }
+        return keys;
+    }
 
-        Label title = new Label(ym.getMonth().name());
-        title.getStyleClass().add("year-month-title");
-        box.getChildren().add(title);
+    private void prefetchAdjacent() {
+        if (prefetcher == null) return;
+        prefetcher.prefetch(adjacentKeys());
+    }
 
-        LocalDate first = ym.atDay(1);
-        int length = ym.lengthOfMonth();
+    // Listens to the visible months' summaries (not their reminders) while a summary grid is shown
+    private void watchSummaries(YearMonth first, YearMonth last) {
+        if (summarySubscription != null && first.equals(watchedFirst) && last.equals(watchedLast)) return;
+        unwatchSummaries();
 
-        FlowPane grid = new FlowPane();
-        grid.setHgap(4);
-        grid.setVgap(4);
+        ReminderStore.Subscription subscription = reminderRepository.listenToMonthSummaries(currentUser, first, last,
+                () -> Platform.runLater(() -> {
+                    if (summarySubscription != null && first.equals(watchedFirst) && last.equals(watchedLast)) {
+                        summaryReload.playFromStart();
+                    }
+                }));
+        summarySubscription = subscription;
+        watchedFirst = first;
+        watchedLast = last;
+    }
 
-        for (int d = 1; d <= length; d++) {
-            LocalDate date = ym.atDay(d);
-            Label dayLabel = new Label(String.valueOf(d));
-            dayLabel.getStyleClass().add("year-day-number");
+    private void unwatchSummaries() {
+        if (summarySubscription != null) summarySubscription.cancel();
+        summarySubscription = null;
+        watchedFirst = null;
+        watchedLast = null;
+        summaryReload.stop();
+    }
 
-            dayLabel.setOnMouseClicked(e -> {
-                selectedDate = date;
-                currentYearMonth = ym;
-                currentViewMode = ViewMode.MONTH;
-                refresh();
-            });
+    private boolean showsSummaries() {
+        return currentViewMode == ViewMode.MONTH || currentViewMode == ViewMode.YEAR;
+    }
 
-            grid.getChildren().add(dayLabel);
-        }
+    // Prefetched reads are at least as old as the summaries, so they go too
+    private void dropSummaries() {
+        summaries.clear();
+        summaryEpoch++;
+        if (prefetcher != null) prefetcher.clear();
+    }
 
-        box.getChildren().add(grid);
-        return box;
+    // Reminders on a day as the grids count them: from the month's summary when there is one
+    private int countFor(LocalDate date) {
+        MonthSummary summary = summaries.get(YearMonth.from(date));
+        return summary != null ? summary.count(date) : headersFor(date).size();
     }
 
-    private void buildYearView() {
-        calendarGrid.getChildren().clear();
-        calendarGrid.getColumnConstraints().clear();
-        calendarGrid.getRowConstraints().clear();
+    private boolean isLoaded(LocalDate date) {
+        return loadedFrom != null && !date.isBefore(loadedFrom) && !date.isAfter(loadedTo);
+    }
 
-        // 4 rows × 3 columns = 12 months
-        for (int c = 0; c < 3; c++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setPercentWidth(100.0 / 3);
-            cc.setHgrow(Priority.ALWAYS);
-            calendarGrid.getColumnConstraints().add(cc);
+    private List<ReminderHeader> headersFor(LocalDate date) {
+        if (isLoaded(date)) {
+            return headersByDate.getOrDefault(date, List.of());
         }
-        for (int r = 0; r < 4; r++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setPercentHeight(100.0 / 4);
-            rc.setVgrow(Priority.ALWAYS);
-            calendarGrid.getRowConstraints().add(rc);
+        if (date.equals(extraDay)) {
+            List<ReminderHeader> headers = new ArrayList<>(extraDayReminders.size());
+            for (Reminder r : extraDayReminders) headers.add(ReminderHeader.of(r));
+            return headers;
         }
+        return List.of();
+    }
 
-        for (int i = 0; i < 12; i++) {
-            YearMonth ym = YearMonth.of(currentYearMonth.getYear(), i + 1);
-            VBox monthCard = buildMonthCard(ym);
-            int row = i / 3;
-            int col = i % 3;
-            calendarGrid.add(monthCard, col, row);
-        }
+    // Full reminders are only held for the selected day
+    private List<Reminder> remindersFor(LocalDate date) {
+        return date.equals(extraDay) ? extraDayReminders : List.of();
+    }
 
-        monthYearLabel.setText(String.valueOf(currentYearMonth.getYear()));
+    // Drop loaded data so the next refresh re-fetches (after writes or a user switch)
+    private void invalidate() {
+        headersByDate = new TreeMap<>();
+        loadedFrom = null;
+        loadedTo = null;
+        extraDay = null;
+        extraDayReminders = List.of();
+        dropSummaries();
     }
 
-    private void buildMonthView() {
-        for (int c = 0; c < 7; c++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setPercentWidth(100.0 / 7);
-            cc.setHgrow(Priority.ALWAYS);
-            calendarGrid.getColumnConstraints().add(cc);
-        }
-        for (int r = 0; r < 7; r++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setPercentHeight(100.0 / 7);
-            rc.setVgrow(Priority.ALWAYS);
-            calendarGrid.getRowConstraints().add(rc);
-        }
+    private void updateDayReminders() {
+        // Already in chronological order (startMinute)
+        dayRemindersList.getItems().setAll(remindersFor(selectedDate));
+    }
 
-        DayOfWeek[] days = {
-                DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
-                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY
-        };
+    private void resetSearch() {
+        searchField.clear();
+        loadSearchIndex();
+    }
 
-        for (int i = 0; i < 7; i++) {
-            Label label = new Label(days[i].name().substring(0, 3));
-            label.setAlignment(Pos.CENTER);
-            label.getStyleClass().add("calendar-header");
-            calendarGrid.add(label, i, 0);
-        }
+    // Starts a new index and fills it in the background: the reminders a projected page at a
+    // time, the series in one read. Results refresh as pages arrive.
+    private void loadSearchIndex() {
+        searchSeriesReload.stop();
+        searchIndex = null;
+        if (reminderRepository == null || currentUser == null) return;
+
+        ReminderIndex index = new ReminderIndex();
+        searchIndex = index;
+        loadSearchPage(index, null);
+        reloadSearchSeries();
+    }
 
-        LocalDate first = currentYearMonth.atDay(1);
-        int firstCol = (first.getDayOfWeek().getValue() + 6) % 7;
-        int length = currentYearMonth.lengthOfMonth();
+    private void loadSearchPage(ReminderIndex index, Reminder after) {
+        reminderRepository.getSearchEntriesPageAsync(currentUser, after, SEARCH_PAGE_SIZE)
+                .whenComplete((page, e) -> {
+                    if (e != null) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    index.load(page);
+                    Platform.runLater(() -> {
+                        if (index != searchIndex) return; // logged out or rebuilt meanwhile
+                        runSearch();
+                        if (page.size() == SEARCH_PAGE_SIZE) loadSearchPage(index, page.get(page.size() - 1));
+                    });
+                });
+    }
 
-        int day = 1;
-        int row = 1;
+    private void reloadSearchSeries() {
+        ReminderIndex index = searchIndex;
+        if (index == null) return;
+        reminderRepository.getSeriesAsync(currentUser)
+                .whenComplete((series, e) -> {
+                    if (e != null) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    index.replaceSeries(series);
+                    Platform.runLater(() -> {
+                        if (index == searchIndex) runSearch();
+                    });
+                });
+    }
 
-        while (day <= length) {
-            for (int col = 0; col < 7; col++) {
-                if (row == 1 && col < firstCol) continue;
-                if (day > length) break;
+    // Reminders the calendar has read in full are the latest copies the index can get
+    private void indexLoaded(List<Reminder> reminders) {
+        if (searchIndex == null || reminders.isEmpty()) return;
+        searchIndex.onChanges(reminders, List.of());
+        runSearch();
+    }
 
-                LocalDate date = currentYearMonth.atDay(day);
-                calendarGrid.add(createDayCell(date), col, row);
+    // Changes seen by the live cache. A removal from the watched range may only mean the reminder
+    // moved out of it, so it leaves the index once the store confirms it is gone. Occurrences
+    // that no longer match their indexed series (or that disappear) mean a series changed.
+    private void indexCached(List<Reminder> upserted, List<String> removedIds) {
+        ReminderIndex index = searchIndex;
+        if (index == null) return;
 
-                day++;
+        boolean seriesChanged = false;
+        for (Reminder r : upserted) {
+            if (r.isOccurrence() && !index.isCurrent(r)) seriesChanged = true;
+        }
+        index.onChanges(upserted, List.of());
+
+        for (String id : removedIds) {
+            if (!index.contains(id)) {
+                seriesChanged = true;
+                continue;
             }
-            row++;
+            Database.supplyAsync(() -> reminderRepository.getOwner(id))
+                    .whenComplete((owner, e) -> {
+                        if (e != null) {
+                            e.printStackTrace();
+                            return;
+                        }
+                        if (owner != null) return;
+                        index.onChanges(List.of(), List.of(id));
+                        Platform.runLater(() -> {
+                            if (index == searchIndex) runSearch();
+                        });
+                    });
         }
+
+        if (seriesChanged) searchSeriesReload.playFromStart();
+        runSearch();
     }
 
-    private void buildWeekView() {
+    // Shows results instead of the upcoming list while there is text in the search box
+    private void runSearch() {
+        String query = searchField.getText();
+        boolean searching = query != null && !query.isBlank();
 
-        calendarGrid.getChildren().clear();
-        calendarGrid.getColumnConstraints().clear();
-        calendarGrid.getRowConstraints().clear();
+        upcomingTitleLabel.setText(searching ? "Search Results" : "Upcoming");
+        upcomingRemindersList.setVisible(!searching);
+        upcomingRemindersList.setManaged(!searching);
+        searchResultsList.setVisible(searching);
+        searchResultsList.setManaged(searching);
 
-        LocalDate weekStart = selectedDate.with(DayOfWeek.MONDAY);
-        LocalDate weekEnd = weekStart.plusDays(6);
+        searchResultsList.getItems().setAll(searching && searchIndex != null
+                ? searchIndex.search(query, SEARCH_RESULTS)
+                : List.of());
+    }
 
-        for (int i = 0; i < 7; i++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setPercentWidth(100.0 / 7);
-            cc.setHgrow(Priority.ALWAYS);
-            calendarGrid.getColumnConstraints().add(cc);
-        }
+    // Starts the upcoming list over from now. After that it changes only incrementally:
+    // pages are added as the user scrolls, writes arrive through the window's listeners
+    // and reminders that have started are dropped by the expiry timer.
+    private void resetUpcoming() {
+        if (upcomingWindow != null) upcomingWindow.close();
+        upcomingRemindersList.getItems().clear();
+        upcomingWindow = (reminderRepository == null || currentUser == null)
+                ? null
+                : new UpcomingWindow(reminderRepository, currentUser,
+                upcomingRemindersList.getItems(), Platform::runLater);
+        loadMoreUpcoming();
+    }
 
-        RowConstraints rc = new RowConstraints();
-        rc.setPercentHeight(100);
-        rc.setVgrow(Priority.ALWAYS);
-        calendarGrid.getRowConstraints().add(rc);
+    private void loadMoreUpcoming() {
+        if (upcomingWindow != null) upcomingWindow.extend(UPCOMING_PAGE_SIZE);
+    }
 
-        for (int i = 0; i < 7; i++) {
-            LocalDate date = weekStart.plusDays(i);
-            VBox cell = buildWeekDayCell(date);
-            calendarGrid.add(cell, i, 0);
-        }
 
-        monthYearLabel.setText("Week of " +
-                weekStart.format(DateTimeFormatter.ofPattern("MMM d")) +
-                " - " +
-                weekEnd.format(DateTimeFormatter.ofPattern("MMM d, yyyy")));
-    }
+    // Retained grid: nodes for every view are created once and only updated on refresh
 
-    private VBox buildWeekDayCell(LocalDate date) {
-        VBox cell = new VBox();
-        cell.getStyleClass().add("day-cell");
-        cell.setSpacing(8);
-        cell.setPadding(new Insets(10));
+    private static final int MONTH_CELLS = 42; // 6 weeks x 7 days
 
-        Label dayNumber = new Label(String.valueOf(date.getDayOfMonth()));
-        dayNumber.getStyleClass().add("calendar-day-number");
-        cell.getChildren().add(dayNumber);
+    private ViewMode installedLayout;
 
-        try {
-            List<Reminder> reminders = reminderRepository.getRemindersForDate(currentUser, date);
-            for (Reminder r : reminders) {
-                Label lbl = new Label(r.getTime() + " — " + r.getTitle());
-                lbl.setWrapText(true);
-                lbl.setStyle("-fx-font-size: 10px; -fx-text-fill: #5F6368;");
-                cell.getChildren().add(lbl);
-            }
-        } catch (Exception ignored) {
-        }
+    private final Label[] monthHeaders = new Label[7];
+    private final VBox[] monthCells = new VBox[MONTH_CELLS];
+    private final Label[] monthCellNumbers = new Label[MONTH_CELLS];
+    private final Label[] monthCellCounts = new Label[MONTH_CELLS];
+    private final LocalDate[] monthCellDates = new LocalDate[MONTH_CELLS];
 
-        cell.setOnMouseClicked(e -> {
-            selectedDate = date;
-            refresh();
-        });
+    private final VBox[] weekCells = new VBox[7];
+    private final LocalDate[] weekCellDates = new LocalDate[7];
 
-        if (date.equals(selectedDate)) {
-            cell.getStyleClass().add("calendar-day-selected");
-        }
+    private final Label[] hourLabels = new Label[24];
 
-        return cell;
-    }
+    private final VBox[] yearCards = new VBox[12];
+    private final Label[][] yearDayLabels = new Label[12][31];
+    private final Tooltip[][] yearDayTooltips = new Tooltip[12][31];
+
+    private final List<ColumnConstraints> monthColumns = new ArrayList<>();
+    private final List<RowConstraints> monthRows = new ArrayList<>();
+    private final List<RowConstraints> weekRows = new ArrayList<>();
+    private final List<ColumnConstraints> dayColumns = new ArrayList<>();
+    private final List<RowConstraints> dayRows = new ArrayList<>();
+    private final List<ColumnConstraints> yearColumns = new ArrayList<>();
+    private final List<RowConstraints> yearRows = new ArrayList<>();
 
-    private void buildDayView() {
+    private void createGridNodes() {
+        for (int c = 0; c < 7; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / 7);
+            cc.setHgrow(Priority.ALWAYS);
+            monthColumns.add(cc);
+        }
+        for (int r = 0; r < 7; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setPercentHeight(100.0 / 7);
+            rc.setVgrow(Priority.ALWAYS);
+            monthRows.add(rc);
+        }
 
-        calendarGrid.getChildren().clear();
-        calendarGrid.getColumnConstraints().clear();
-        calendarGrid.getRowConstraints().clear();
+        RowConstraints weekRow = new RowConstraints();
+        weekRow.setPercentHeight(100);
+        weekRow.setVgrow(Priority.ALWAYS);
+        weekRows.add(weekRow);
 
         // 2 columns: time labels + event grid
         ColumnConstraints timeCol = new ColumnConstraints();
@@ -620,15 +1088,90 @@ public class CalendarController {
         gridCol.setHgrow(Priority.ALWAYS);
         gridCol.setFillWidth(true);
 
-        calendarGrid.getColumnConstraints().addAll(timeCol, gridCol);
+        dayColumns.add(timeCol);
+        dayColumns.add(gridCol);
 
         for (int i = 0; i < 24; i++) {
             RowConstraints rc = new RowConstraints();
             rc.setMinHeight(50);
             rc.setPrefHeight(50);
             rc.setVgrow(Priority.NEVER);
-            calendarGrid.getRowConstraints().add(rc);
+            dayRows.add(rc);
+        }
+
+        // 4 rows × 3 columns = 12 months
+        for (int c = 0; c < 3; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / 3);
+            cc.setHgrow(Priority.ALWAYS);
+            yearColumns.add(cc);
+        }
+        for (int r = 0; r < 4; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setPercentHeight(100.0 / 4);
+            rc.setVgrow(Priority.ALWAYS);
+            yearRows.add(rc);
+        }
+
+        DayOfWeek[] days = {
+                DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY
+        };
+
+        for (int i = 0; i < 7; i++) {
+            Label label = new Label(days[i].name().substring(0, 3));
+            label.setAlignment(Pos.CENTER);
+            label.getStyleClass().add("calendar-header");
+            GridPane.setConstraints(label, i, 0);
+            monthHeaders[i] = label;
+        }
+
+        for (int i = 0; i < MONTH_CELLS; i++) {
+            VBox cell = new VBox();
+            cell.getStyleClass().add("day-cell");
+            cell.setPadding(new Insets(6));
+            cell.setSpacing(4);
+
+            Label num = new Label();
+            num.getStyleClass().add("calendar-day-number");
+
+            Label dot = new Label();
+            dot.getStyleClass().add("calendar-reminder-icon");
+
+            cell.getChildren().add(num);
+
+            int index = i;
+            cell.setOnMouseClicked(e -> {
+                if (monthCellDates[index] != null) handleDayClicked(monthCellDates[index]);
+            });
+
+            GridPane.setConstraints(cell, i % 7, 1 + i / 7);
+            monthCells[i] = cell;
+            monthCellNumbers[i] = num;
+            monthCellCounts[i] = dot;
+        }
+
+        for (int i = 0; i < 7; i++) {
+            VBox cell = new VBox();
+            cell.getStyleClass().add("day-cell");
+            cell.setSpacing(8);
+            cell.setPadding(new Insets(10));
+
+            Label dayNumber = new Label();
+            dayNumber.getStyleClass().add("calendar-day-number");
+            cell.getChildren().add(dayNumber);
+
+            int index = i;
+            cell.setOnMouseClicked(e -> {
+                selectedDate = weekCellDates[index];
+                refresh();
+            });
 
+            GridPane.setConstraints(cell, i, 0);
+            weekCells[i] = cell;
+        }
+
+        for (int i = 0; i < 24; i++) {
             // Time label (12-hr)
             Label hourLabel = new Label(formatHour12(i));
             hourLabel.getStyleClass().add("day-time-label");
@@ -642,98 +1185,256 @@ public class CalendarController {
             slot.setMinHeight(50);
             slot.setMaxWidth(Double.MAX_VALUE);
 
+            GridPane.setConstraints(hourLabel, 0, i);
+            GridPane.setConstraints(slot, 1, i);
+            hourLabels[i] = hourLabel;
             daySlots[i] = slot;
-
-            calendarGrid.add(hourLabel, 0, i);
-            calendarGrid.add(slot, 1, i);
         }
 
-        try {
-            List<Reminder> list = reminderRepository.getRemindersForDate(currentUser, selectedDate);
+        for (int m = 0; m < 12; m++) {
+            VBox box = new VBox();
+            box.getStyleClass().add("year-month-card");
+            box.setSpacing(6);
+            box.setPadding(new Insets(10));
+
+            Label title = new Label(Month.of(m + 1).name());
+            title.getStyleClass().add("year-month-title");
+            box.getChildren().add(title);
+
+            FlowPane grid = new FlowPane();
+            grid.setHgap(4);
+            grid.setVgap(4);
+
+            for (int d = 0; d < 31; d++) {
+                Label dayLabel = new Label(String.valueOf(d + 1));
+                dayLabel.getStyleClass().add("year-day-number");
+
+                int month = m + 1;
+                int dayOfMonth = d + 1;
+                dayLabel.setOnMouseClicked(e -> {
+                    YearMonth ym = YearMonth.of(currentYearMonth.getYear(), month);
+                    selectedDate = ym.atDay(dayOfMonth);
+                    currentYearMonth = ym;
+                    handleMonthView(); // switches the toolbar too, then refreshes
+                });
+
+                yearDayLabels[m][d] = dayLabel;
+                yearDayTooltips[m][d] = new Tooltip();
+                grid.getChildren().add(dayLabel);
+            }
 
-            for (Reminder r : list) {
-                int hour = parseHour(r.getTime());
+            box.getChildren().add(grid);
+            GridPane.setConstraints(box, m % 3, m / 3);
+            yearCards[m] = box;
+        }
+    }
 
-                VBox eventBox = new VBox();
-                eventBox.getStyleClass().add("day-event");
+    private void buildCalendar() {
+        if (monthCells[0] == null) createGridNodes();
 
-                Label lbl = new Label(r.getTime() + " — " + r.getTitle());
-                lbl.setWrapText(true);
-                lbl.getStyleClass().add("day-event-text");
-                eventBox.getChildren().add(lbl);
+        if (installedLayout != currentViewMode) {
+            installLayout(currentViewMode);
+        }
 
-                // Put the event inside the hour slot
-                HBox slot = (HBox) daySlots[hour];
+        switch (currentViewMode) {
+            case YEAR -> updateYearView();
+            case MONTH -> updateMonthView();
+            case WEEK -> updateWeekView();
+            case DAY -> updateDayView();
+        }
 
-                // ✅ add vertical divider if not first item
-                if (!slot.getChildren().isEmpty()) {
-                    Separator sep = new Separator(Orientation.VERTICAL);
-                    sep.getStyleClass().add("day-event-vsep");
-                    slot.getChildren().add(sep);
-                }
+        updateMonthLabel();
+    }
 
-                slot.getChildren().add(eventBox);
-                HBox.setMargin(eventBox, new Insets(6, 6, 6, 6));
+    // Swaps the retained nodes and constraints of a view into the grid (mode changes only)
+    private void installLayout(ViewMode mode) {
+        List<Node> nodes = new ArrayList<>();
+        switch (mode) {
+            case YEAR -> {
+                nodes.addAll(List.of(yearCards));
+                calendarGrid.getColumnConstraints().setAll(yearColumns);
+                calendarGrid.getRowConstraints().setAll(yearRows);
+            }
+            case MONTH -> {
+                nodes.addAll(List.of(monthHeaders));
+                nodes.addAll(List.of(monthCells));
+                calendarGrid.getColumnConstraints().setAll(monthColumns);
+                calendarGrid.getRowConstraints().setAll(monthRows);
+            }
+            case WEEK -> {
+                nodes.addAll(List.of(weekCells));
+                calendarGrid.getColumnConstraints().setAll(monthColumns);
+                calendarGrid.getRowConstraints().setAll(weekRows);
+            }
+            case DAY -> {
+                for (int i = 0; i < 24; i++) {
+                    nodes.add(hourLabels[i]);
+                    nodes.add(daySlots[i]);
+                }
+                calendarGrid.getColumnConstraints().setAll(dayColumns);
+                calendarGrid.getRowConstraints().setAll(dayRows);
             }
-
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        calendarGrid.getChildren().setAll(nodes);
+        installedLayout = mode;
+    }
 
-        monthYearLabel.setText(
-                selectedDate.format(DateTimeFormatter.ofPattern("EEEE, MMM d yyyy"))
-        );
+    private static void setStyleClass(Node node, String styleClass, boolean on) {
+        boolean has = node.getStyleClass().contains(styleClass);
+        if (on && !has) node.getStyleClass().add(styleClass);
+        if (!on && has) node.getStyleClass().remove(styleClass);
     }
 
+    private static final String[] HEAT_CLASSES = {
+            "year-day-heat-1", "year-day-heat-2", "year-day-heat-3", "year-day-heat-4"
+    };
 
-    private String formatHour12(int hour24) {
-        int hour12 = hour24 % 12;
-        if (hour12 == 0) hour12 = 12;
+    // 0 = no shading, 1..4 = index into HEAT_CLASSES + 1
+    private static int heatLevel(int count) {
+        if (count >= 7) return 4;
+        if (count >= 4) return 3;
+        if (count >= 2) return 2;
+        return count > 0 ? 1 : 0;
+    }
 
-        String ampm = (hour24 < 12) ? "AM" : "PM";
-        return hour12 + ":00 " + ampm;
+    private void updateYearView() {
+        int year = currentYearMonth.getYear();
+
+        for (int m = 0; m < 12; m++) {
+            YearMonth ym = YearMonth.of(year, m + 1);
+            MonthSummary summary = summaries.get(ym);
+            int length = ym.lengthOfMonth();
+
+            for (int d = 0; d < 31; d++) {
+                Label dayLabel = yearDayLabels[m][d];
+                boolean inMonth = d < length;
+                dayLabel.setVisible(inMonth);
+                dayLabel.setManaged(inMonth);
+                if (!inMonth) continue;
+
+                LocalDate date = ym.atDay(d + 1);
+                int count = countFor(date);
+                int level = heatLevel(count);
+                for (int h = 0; h < HEAT_CLASSES.length; h++) {
+                    setStyleClass(dayLabel, HEAT_CLASSES[h], level == h + 1);
+                }
+
+                if (count > 0) {
+                    LocalTime earliest = summary != null ? summary.earliest(date) : null;
+                    yearDayTooltips[m][d].setText(count + " reminder(s)"
+                            + (earliest != null ? ", first at " + ReminderTime.format(earliest) : ""));
+                    dayLabel.setTooltip(yearDayTooltips[m][d]);
+                } else {
+                    dayLabel.setTooltip(null);
+                }
+            }
+        }
     }
 
+    private void updateMonthView() {
+        LocalDate first = currentYearMonth.atDay(1);
+        int firstCol = (first.getDayOfWeek().getValue() + 6) % 7;
+        int length = currentYearMonth.lengthOfMonth();
+
+        for (int i = 0; i < MONTH_CELLS; i++) {
+            VBox cell = monthCells[i];
+            int day = i - firstCol + 1;
 
-    private int parseHour(String time) {
-        try {
-            String[] parts = time.split(" ");
-            String[] hm = parts[0].split(":");
+            if (day < 1 || day > length) {
+                monthCellDates[i] = null;
+                cell.setVisible(false);
+                continue;
+            }
 
-            int hour = Integer.parseInt(hm[0]);
-            boolean pm = parts[1].equalsIgnoreCase("PM");
+            LocalDate date = currentYearMonth.atDay(day);
+            monthCellDates[i] = date;
+            cell.setVisible(true);
+            monthCellNumbers[i].setText(String.valueOf(day));
 
-            if (pm && hour != 12) hour += 12;
-            if (!pm && hour == 12) hour = 0;
+            int count = countFor(date);
+            Label dot = monthCellCounts[i];
+            if (count > 0) {
+                dot.setText("• " + count + " reminder(s)");
+                if (!cell.getChildren().contains(dot)) cell.getChildren().add(dot);
+            } else {
+                cell.getChildren().remove(dot);
+            }
 
-            return hour;
-        } catch (Exception e) {
-            return 0;
+            setStyleClass(cell, "calendar-day-selected", date.equals(selectedDate));
         }
     }
 
-    private VBox createDayCell(LocalDate date) {
-        VBox cell = new VBox();
-        cell.getStyleClass().add("day-cell");
-        cell.setPadding(new Insets(6));
-        cell.setSpacing(4);
+    private void updateWeekView() {
+        LocalDate weekStart = selectedDate.with(DayOfWeek.MONDAY);
 
-        Label num = new Label(String.valueOf(date.getDayOfMonth()));
-        num.getStyleClass().add("calendar-day-number");
-        cell.getChildren().add(num);
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = weekStart.plusDays(i);
+            VBox cell = weekCells[i];
+            weekCellDates[i] = date;
+
+            ((Label) cell.getChildren().get(0)).setText(String.valueOf(date.getDayOfMonth()));
+
+            // Reuse existing reminder labels; add or trim only the difference
+            List<ReminderHeader> reminders = headersFor(date);
+            var children = cell.getChildren();
+            for (int r = 0; r < reminders.size(); r++) {
+                ReminderHeader reminder = reminders.get(r);
+                String text = reminder.time() + " — " + reminder.title();
+                if (r + 1 < children.size()) {
+                    ((Label) children.get(r + 1)).setText(text);
+                } else {
+                    Label lbl = new Label(text);
+                    lbl.setWrapText(true);
+                    lbl.setStyle("-fx-font-size: 10px; -fx-text-fill: #5F6368;");
+                    children.add(lbl);
+                }
+            }
+            if (children.size() > reminders.size() + 1) {
+                children.remove(reminders.size() + 1, children.size());
+            }
 
-        try {
-            int count = reminderRepository.getRemindersForDate(currentUser, date).size();
-            if (count > 0) {
-                Label dot = new Label("• " + count + " reminder(s)");
-                dot.getStyleClass().add("calendar-reminder-icon");
-                cell.getChildren().add(dot);
+            setStyleClass(cell, "calendar-day-selected", date.equals(selectedDate));
+        }
+    }
+
+    private void updateDayView() {
+        for (Pane slot : daySlots) {
+            slot.getChildren().clear();
+        }
+
+        for (Reminder r : remindersFor(selectedDate)) {
+            int hour = r.getHour();
+
+            VBox eventBox = new VBox();
+            eventBox.getStyleClass().add("day-event");
+
+            Label lbl = new Label(r.getTime() + " — " + r.getTitle());
+            lbl.setWrapText(true);
+            lbl.getStyleClass().add("day-event-text");
+            eventBox.getChildren().add(lbl);
+
+            // Put the event inside the hour slot
+            HBox slot = (HBox) daySlots[hour];
+
+            // ✅ add vertical divider if not first item
+            if (!slot.getChildren().isEmpty()) {
+                Separator sep = new Separator(Orientation.VERTICAL);
+                sep.getStyleClass().add("day-event-vsep");
+                slot.getChildren().add(sep);
             }
-        } catch (Exception ignored) {
+
+            slot.getChildren().add(eventBox);
+            HBox.setMargin(eventBox, new Insets(6, 6, 6, 6));
         }
+    }
+
+
+    private String formatHour12(int hour24) {
+        int hour12 = hour24 % 12;
+        if (hour12 == 0) hour12 = 12;
 
-        cell.setOnMouseClicked(e -> handleDayClicked(date));
-        return cell;
+        String ampm = (hour24 < 12) ? "AM" : "PM";
+        return hour12 + ":00 " + ampm;
     }
 
     private void handleDayClicked(LocalDate date) {
@@ -748,27 +1449,6 @@ public class CalendarController {
         refresh();
     }
 
-    private void highlightSelectedDay() {
-        for (var node : calendarGrid.getChildren()) {
-            node.getStyleClass().remove("calendar-day-selected");
-
-            if (node instanceof VBox cell) {
-                for (var child : cell.getChildren()) {
-                    if (child instanceof Label lbl) {
-                        try {
-                            int day = Integer.parseInt(lbl.getText());
-                            LocalDate date = currentYearMonth.atDay(day);
-                            if (date.equals(selectedDate)) {
-                                cell.getStyleClass().add("calendar-day-selected");
-                            }
-                        } catch (Exception ignored) {
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     private void updateMonthLabel() {
         switch (currentViewMode) {
             case YEAR -> monthYearLabel.setText(String.valueOf(currentYearMonth.getYear()));
@@ -782,23 +1462,223 @@ public class CalendarController {
         selectedDateLabel.setText("Selected: " + selectedDate);
     }
 
-    private void refresh() {
+    private void render() {
         buildCalendar();
         updateDayReminders();
-        loadUpcomingReminders();
         updateSelectedDateLabel();
     }
 
+    // Renders a view from already-loaded data without touching the store (benchmarks)
+    void renderSnapshot(ViewMode mode, LocalDate date, NavigableMap<LocalDate, List<ReminderHeader>> headers,
+                        List<Reminder> dayReminders) {
+        currentViewMode = mode;
+        selectedDate = date;
+        currentYearMonth = YearMonth.from(date);
+        headersByDate = headers;
+        loadedFrom = visibleFrom();
+        loadedTo = visibleTo();
+        extraDay = date;
+        extraDayReminders = dayReminders;
+        render();
+    }
+
+    // Renders immediately from memory, then fetches whatever the view is missing
+    // off the FX thread and applies it in one batch unless a newer refresh started.
+    private void refresh() {
+        long generation = ++renderGeneration;
+
+        // Week/day navigation moves the month along with the selected date
+        if (currentViewMode == ViewMode.WEEK || currentViewMode == ViewMode.DAY) {
+            currentYearMonth = YearMonth.from(selectedDate);
+        }
+
+        LocalDate from = visibleFrom();
+        LocalDate to = visibleTo();
+        LocalDate day = selectedDate;
+
+        if (showsSummaries()) {
+            refreshSummaries(generation, YearMonth.from(from), YearMonth.from(to), day);
+            return;
+        }
+        unwatchSummaries();
+
+        // The day view shows only the selected day, which is read in full below
+        boolean showsGrid = currentViewMode == ViewMode.WEEK;
+
+        // Live cache covers the visible year; reads come from memory once it is ready
+        boolean cacheWatchesRange = false;
+        if (reminderCache != null) {
+            int year = currentYearMonth.getYear();
+            reminderCache.watch(LocalDate.of(year, 1, 1).minusDays(7), LocalDate.of(year, 12, 31).plusDays(7));
+
+            cacheWatchesRange = reminderCache.watches(from, to);
+            if (showsGrid && reminderCache.covers(from, to)) {
+                headersByDate = ReminderHeader.byDay(reminderCache.getRange(from, to));
+                loadedFrom = from;
+                loadedTo = to;
+            }
+            if (reminderCache.covers(day, day)) {
+                extraDay = day;
+                extraDayReminders = reminderCache.getRange(day, day).getOrDefault(day, List.of());
+            }
+        }
+
+        // Not in the live cache (yet): use a prefetched copy if one has arrived or is on its way
+        CompletableFuture<NavigableMap<LocalDate, List<ReminderHeader>>> prefetched = null;
+        CompletableFuture<List<Reminder>> prefetchedDay = null;
+        if (prefetcher != null) {
+            RangePrefetcher.Range visible = new RangePrefetcher.Range(from, to);
+            RangePrefetcher.Day visibleDay = new RangePrefetcher.Day(day);
+            List<RangePrefetcher.Key> keep = adjacentKeys();
+            keep.add(visible);
+            keep.add(visibleDay);
+            prefetcher.cancelExcept(keep); // the user jumped elsewhere
+
+            if (showsGrid && !(from.equals(loadedFrom) && to.equals(loadedTo))) {
+                prefetched = prefetcher.lookup(visible);
+                if (prefetched != null && prefetched.isDone()) {
+                    headersByDate = prefetched.join();
+                    loadedFrom = from;
+                    loadedTo = to;
+                    prefetched = null;
+                }
+            }
+            if (!day.equals(extraDay)) {
+                prefetchedDay = prefetcher.lookup(visibleDay);
+                if (prefetchedDay != null && prefetchedDay.isDone()) {
+                    extraDay = day;
+                    extraDayReminders = prefetchedDay.join();
+                    indexLoaded(extraDayReminders);
+                    prefetchedDay = null;
+                }
+            }
+        }
+
+        render();
+
+        if (currentUser == null || reminderRepository == null) return;
+        prefetchDelay.playFromStart();
+
+        // A watched range that is not ready yet re-renders when the first snapshot lands.
+        // The grid needs headers only; whole documents are read for the selected day alone.
+        boolean needRange = showsGrid && !(from.equals(loadedFrom) && to.equals(loadedTo))
+                && (prefetched != null || !cacheWatchesRange);
+        boolean needDay = !day.equals(extraDay);
+        if (!needRange && !needDay) return;
+
+        CompletableFuture<NavigableMap<LocalDate, List<ReminderHeader>>> rangeFuture = !needRange
+                ? CompletableFuture.completedFuture(headersByDate)
+                : prefetched != null
+                ? prefetched
+                : reminderRepository.getReminderHeadersForRangeAsync(currentUser, from, to);
+        CompletableFuture<List<Reminder>> dayFuture = !needDay
+                ? CompletableFuture.completedFuture(List.of())
+                : prefetchedDay != null
+                ? prefetchedDay
+                : reminderRepository.getRemindersForDateAsync(currentUser, day);
+
+        CompletableFuture.allOf(rangeFuture, dayFuture)
+                .whenComplete((ignored, e) -> Platform.runLater(() -> {
+                    if (generation != renderGeneration) return; // superseded by newer navigation
+                    if (e != null) {
+                        e.printStackTrace();
+                        return;
+                    }
+
+                    if (needRange) {
+                        headersByDate = rangeFuture.join();
+                        loadedFrom = from;
+                        loadedTo = to;
+                    }
+                    if (needDay) {
+                        extraDay = day;
+                        extraDayReminders = dayFuture.join();
+                        indexLoaded(extraDayReminders);
+                    }
+                    render();
+                }));
+    }
+
+    // Month and year grids only show how busy each day is, so they render from one summary
+    // per month; only the selected day's reminders are read in full, for the list
+    private void refreshSummaries(long generation, YearMonth first, YearMonth last, LocalDate day) {
+        headersByDate = new TreeMap<>();
+        loadedFrom = null;
+        loadedTo = null;
+        if (reminderCache != null && reminderCache.covers(day, day)) {
+            extraDay = day;
+            extraDayReminders = reminderCache.getRange(day, day).getOrDefault(day, List.of());
+        }
+
+        // Summaries fetched ahead for this period, arrived or on their way
+        CompletableFuture<NavigableMap<YearMonth, MonthSummary>> prefetched = null;
+        if (prefetcher != null) {
+            RangePrefetcher.Months visible = new RangePrefetcher.Months(first, last);
+            List<RangePrefetcher.Key> keep = adjacentKeys();
+            keep.add(visible);
+            prefetcher.cancelExcept(keep); // the user jumped elsewhere
+
+            prefetched = prefetcher.lookup(visible);
+            if (prefetched != null && prefetched.isDone()) {
+                summaries.putAll(prefetched.join());
+                prefetched = null;
+            }
+        }
+
+        render();
+
+        if (currentUser == null || reminderRepository == null) return;
+        prefetchDelay.playFromStart();
+        watchSummaries(first, last);
+
+        YearMonth missingFrom = null;
+        YearMonth missingTo = null;
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            if (summaries.containsKey(m)) continue;
+            if (missingFrom == null) missingFrom = m;
+            missingTo = m;
+        }
+        boolean needSummaries = missingFrom != null;
+        boolean needDay = !day.equals(extraDay);
+        if (!needSummaries && !needDay) return;
+
+        long epoch = summaryEpoch;
+        CompletableFuture<NavigableMap<YearMonth, MonthSummary>> summaryFuture = !needSummaries
+                ? CompletableFuture.completedFuture(new TreeMap<>())
+                : prefetched != null
+                ? prefetched
+                : reminderRepository.getMonthSummariesAsync(currentUser, missingFrom, missingTo);
+        CompletableFuture<List<Reminder>> dayFuture = needDay
+                ? reminderRepository.getRemindersForDateAsync(currentUser, day)
+                : CompletableFuture.completedFuture(List.of());
+
+        CompletableFuture.allOf(summaryFuture, dayFuture)
+                .whenComplete((ignored, e) -> Platform.runLater(() -> {
+                    if (e != null) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    if (epoch == summaryEpoch) summaries.putAll(summaryFuture.join()); // still good after navigating
+                    if (generation != renderGeneration) return;
+
+                    if (needDay) {
+                        extraDay = day;
+                        extraDayReminders = dayFuture.join();
+                        indexLoaded(extraDayReminders);
+                    }
+                    render();
+                }));
+    }
+
     @FXML
     private void handleToday() {
         selectedDate = LocalDate.now();
         currentYearMonth = YearMonth.now();
 
         // Ensure view stays consistent
-        if (currentViewMode == ViewMode.WEEK || currentViewMode == ViewMode.DAY) {
-            // selectedDate already set correctly
-        } else {
-            currentViewMode = ViewMode.MONTH;
+        if (currentViewMode == ViewMode.YEAR) {
+            handleMonthView();
+            return;
         }
 
         refresh();
@@ -807,21 +1687,40 @@ public class CalendarController {
     @FXML
     private void openHelp() {
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/calendarreminderapp/help-view.fxml")
-            );
-            Parent root = loader.load();
+            if (helpStage == null) {
+                Stage ownerStage = (Stage) calendarGrid.getScene().getWindow();
+
+                helpStage = new Stage();
+                helpStage.initOwner(ownerStage);
+                helpStage.initModality(javafx.stage.Modality.WINDOW_MODAL);
+                helpStage.setTitle("Help & User Guide");
+                helpStage.setScene(Views.get(Views.HELP).scene());
+                helpStage.setResizable(true);
+            }
 
-            Stage ownerStage = (Stage) calendarGrid.getScene().getWindow();
+            helpStage.showAndWait();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-            Stage helpStage = new Stage();
-            helpStage.initOwner(ownerStage);
-            helpStage.initModality(javafx.stage.Modality.WINDOW_MODAL);
-            helpStage.setTitle("Help & User Guide");
-            helpStage.setScene(new Scene(root, 900, 650));
-            helpStage.setResizable(true);
+    // Non-modal so it can stay open next to the calendar while views are exercised
+    @FXML
+    private void openDiagnostics() {
+        try {
+            if (diagnosticsStage == null) {
+                Views.View<DiagnosticsController> view = Views.get(Views.DIAGNOSTICS);
+
+                diagnosticsStage = new Stage();
+                diagnosticsStage.initOwner(calendarGrid.getScene().getWindow());
+                diagnosticsStage.setTitle("Diagnostics");
+                diagnosticsStage.setScene(view.scene());
+                diagnosticsStage.setOnShown(e -> view.controller().start());
+                diagnosticsStage.setOnHidden(e -> view.controller().stop());
+            }
 
-            helpStage.showAndWait();
+            diagnosticsStage.show();
+            diagnosticsStage.toFront();
         } catch (Exception e) {
             e.printStackTrace();
         }
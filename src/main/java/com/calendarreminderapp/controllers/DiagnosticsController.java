@@ -0,0 +1,108 @@
+package com.calendarreminderapp.controllers;
+
+import com.calendarreminderapp.database.OfflineReminderStore;
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.metrics.OperationStats;
+import com.calendarreminderapp.metrics.StoreMetrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public class DiagnosticsController {
+
+    @FXML
+    private TableView<OperationStats> statsTable;
+    @FXML
+    private TableColumn<OperationStats, String> operationColumn;
+    @FXML
+    private TableColumn<OperationStats, Long> callsColumn;
+    @FXML
+    private TableColumn<OperationStats, Long> errorsColumn;
+    @FXML
+    private TableColumn<OperationStats, String> p50Column;
+    @FXML
+    private TableColumn<OperationStats, String> p95Column;
+    @FXML
+    private TableColumn<OperationStats, String> p99Column;
+    @FXML
+    private TableColumn<OperationStats, String> maxColumn;
+    @FXML
+    private TableColumn<OperationStats, Long> documentsColumn;
+    @FXML
+    private TableColumn<OperationStats, String> bytesColumn;
+    @FXML
+    private ListView<OfflineReminderStore.Rejection> rejectedList;
+    @FXML
+    private Button closeButton;
+
+    // Re-reads the counters once a second while the window is open
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    @FXML
+    private void initialize() {
+        bind(operationColumn, s -> s.getStore() + "." + s.getOperation());
+        bind(callsColumn, OperationStats::getCalls);
+        bind(errorsColumn, OperationStats::getErrors);
+        bind(p50Column, s -> millis(s.getP50Millis()));
+        bind(p95Column, s -> millis(s.getP95Millis()));
+        bind(p99Column, s -> millis(s.getP99Millis()));
+        bind(maxColumn, s -> millis(s.getMaxMillis()));
+        bind(documentsColumn, OperationStats::getDocuments);
+        bind(bytesColumn, s -> String.format("%.1f", s.getBytes() / 1024.0));
+
+        rejectedList.setPlaceholder(new Label("None"));
+
+        refresher.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public void start() {
+        refresh();
+        refresher.play();
+    }
+
+    public void stop() {
+        refresher.stop();
+    }
+
+    @FXML
+    private void handleReset() {
+        StoreMetrics.resetAll();
+        refresh();
+    }
+
+    @FXML
+    private void handleClose() {
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+
+    private void refresh() {
+        statsTable.setItems(FXCollections.observableArrayList(StoreMetrics.snapshot()));
+        List<OfflineReminderStore.Rejection> rejected = new ArrayList<>(Stores.rejectedChanges());
+        Collections.reverse(rejected); // newest first
+        rejectedList.getItems().setAll(rejected);
+    }
+
+    private static <T> void bind(TableColumn<OperationStats, T> column, Function<OperationStats, T> value) {
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+    }
+
+    private static String millis(double ms) {
+        return String.format(ms < 10 ? "%.2f" : "%.0f", ms);
+    }
+}
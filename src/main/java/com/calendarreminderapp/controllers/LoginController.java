@@ -1,19 +1,17 @@
 package com.calendarreminderapp.controllers;
 
-import com.calendarreminderapp.database.UserRepository;
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.database.UserStore;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
-public class LoginController {
+public class LoginController implements Views.Reusable {
 
     @FXML private ImageView bgImage;
 
@@ -23,18 +21,12 @@ public class LoginController {
     @FXML private Button registerButton;
     @FXML private Label messageLabel;
 
-    private UserRepository userRepository;
+    private CompletableFuture<UserStore> userRepository;
 
     @FXML
     public void initialize() {
-        try {
-            userRepository = new UserRepository();
-        } catch (IOException e) {
-            e.printStackTrace();
-            if (messageLabel != null) {
-                messageLabel.setText("Error connecting to database.");
-            }
-        }
+        // Usually already resolved by the warm-up started in HelloApplication
+        userRepository = Stores.usersAsync();
 
         loginButton.setOnAction(e -> handleLogin());
         registerButton.setOnAction(e -> switchToRegister());
@@ -58,33 +50,36 @@ public class LoginController {
             return;
         }
 
-        try {
-            boolean ok = userRepository.validateUser(username, password);
-            if (ok) {
-                switchToCalendar(username);
-            } else {
-                messageLabel.setText("Invalid username or password.");
-            }
-        } catch (ExecutionException | InterruptedException ex) {
-            ex.printStackTrace();
-            messageLabel.setText("Login failed. Please try again.");
+        if (userRepository.isCompletedExceptionally()) {
+            userRepository = Stores.usersAsync(); // retry the connection
         }
+
+        loginButton.setDisable(true);
+        CompletableFuture<UserStore> store = userRepository;
+        store.thenCompose(users -> users.validateUserAsync(username, password))
+                .whenComplete((ok, ex) -> Platform.runLater(() -> {
+                    loginButton.setDisable(false);
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        messageLabel.setText(store.isCompletedExceptionally()
+                                ? "Error connecting to database."
+                                : "Login failed. Please try again.");
+                    } else if (ok) {
+                        switchToCalendar(username);
+                    } else {
+                        messageLabel.setText("Invalid username or password.");
+                    }
+                }));
     }
 
     private void switchToCalendar(String username) {
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/calendarreminderapp/calendar-view.fxml")
-            );
-            Parent root = loader.load();
-
-            CalendarController controller = loader.getController();
-
-            //  FXML loads BEFORE controller logic runs
-            Platform.runLater(() -> controller.setCurrentUser(username));
+            // Usually preloaded while the user was typing
+            Views.View<CalendarController> calendar = Views.get(Views.CALENDAR);
+            calendar.controller().setCurrentUser(username);
 
             Stage stage = (Stage) loginButton.getScene().getWindow();
-            stage.setScene(new Scene(root, 1200, 650));
+            Views.show(stage, Views.CALENDAR);
             stage.show();
 
         } catch (IOException ex) {
@@ -95,14 +90,19 @@ public class LoginController {
 
     private void switchToRegister() {
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/calendarreminderapp/register.fxml")
-            );
-            Parent root = loader.load();
             Stage stage = (Stage) loginButton.getScene().getWindow();
-            stage.setScene(new Scene(root, 420, 420));
+            Views.show(stage, Views.REGISTER);
         } catch (IOException ex) {
             ex.printStackTrace();
         }
     }
+
+    // Back from logout or the register screen: start with an empty form
+    @Override
+    public void reset() {
+        usernameField.clear();
+        passwordField.clear();
+        messageLabel.setText("");
+        loginButton.setDisable(false);
+    }
 }
@@ -1,10 +1,9 @@
 package com.calendarreminderapp.controllers;
 
-import com.calendarreminderapp.database.UserRepository;
+import com.calendarreminderapp.database.Stores;
+import com.calendarreminderapp.database.UserStore;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
@@ -13,9 +12,9 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
-public class RegisterController {
+public class RegisterController implements Views.Reusable {
 
     /* ---------- Background ---------- */
     @FXML
@@ -40,17 +39,11 @@ public class RegisterController {
     @FXML
     private Button backToLoginButton;
 
-    private UserRepository userRepository;
+    private CompletableFuture<UserStore> userRepository;
 
     @FXML
     public void initialize() {
-        try {
-            userRepository = new UserRepository();
-        } catch (IOException e) {
-            e.printStackTrace();
-            messageLabel.setText("❌ Error initializing database");
-            return;
-        }
+        userRepository = Stores.usersAsync();
 
         registerButton.setOnAction(e -> registerUser());
         backToLoginButton.setOnAction(e -> goBackToLogin());
@@ -79,32 +72,46 @@ public class RegisterController {
             return;
         }
 
-        try {
-            userRepository.createUser(username, password);
-
-            messageLabel.setText("✅ Registration successful!");
-            usernameField.clear();
-            passwordField.clear();
-            confirmPasswordField.clear();
-
-        } catch (ExecutionException | InterruptedException ex) {
-            ex.printStackTrace();
-            messageLabel.setText("❌ Registration failed!");
+        if (userRepository.isCompletedExceptionally()) {
+            userRepository = Stores.usersAsync(); // retry the connection
         }
+
+        registerButton.setDisable(true);
+        CompletableFuture<UserStore> store = userRepository;
+        store.thenCompose(users -> users.createUserAsync(username, password))
+                .whenComplete((ignored, ex) -> Platform.runLater(() -> {
+                    registerButton.setDisable(false);
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        messageLabel.setText(store.isCompletedExceptionally()
+                                ? "❌ Error initializing database"
+                                : "❌ Registration failed!");
+                        return;
+                    }
+
+                    messageLabel.setText("✅ Registration successful!");
+                    usernameField.clear();
+                    passwordField.clear();
+                    confirmPasswordField.clear();
+                }));
     }
 
     private void goBackToLogin() {
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/calendarreminderapp/login.fxml")
-            );
-            Parent root = loader.load();
-
             Stage stage = (Stage) backToLoginButton.getScene().getWindow();
-            stage.setScene(new Scene(root, 1200, 650));
+            Views.show(stage, Views.LOGIN);
 
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void reset() {
+        usernameField.clear();
+        passwordField.clear();
+        confirmPasswordField.clear();
+        messageLabel.setText("");
+        registerButton.setDisable(false);
+    }
 }
@@ -0,0 +1,119 @@
+package com.calendarreminderapp.controllers;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads each FXML view once and keeps its scene and controller for the rest of the
+ * session, so switching screens never re-parses FXML or re-applies style.css.
+ * Views can be preloaded on a background thread (nodes may be built off the FX thread
+ * until they are attached to a showing window); everything else runs on the FX thread.
+ */
+public final class Views {
+
+    public static final String LOGIN = "/com/calendarreminderapp/login.fxml";
+    public static final String REGISTER = "/com/calendarreminderapp/register.fxml";
+    public static final String CALENDAR = "/com/calendarreminderapp/calendar-view.fxml";
+    public static final String HELP = "/com/calendarreminderapp/help-view.fxml";
+    public static final String DIAGNOSTICS = "/com/calendarreminderapp/diagnostics-view.fxml";
+
+    // Controllers that hold per-visit state (typed text, messages) clear it when shown again
+    public interface Reusable {
+        void reset();
+    }
+
+    public record View<C>(Scene scene, C controller) {
+    }
+
+    private record Loaded(Parent root, Object controller) {
+    }
+
+    private static final ExecutorService PRELOADER = Executors.newSingleThreadExecutor(task -> {
+        Thread t = new Thread(task, "view-preload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Map<String, View<?>> views = new HashMap<>();
+    private static final Map<String, CompletableFuture<Loaded>> preloads = new HashMap<>();
+
+    private Views() {
+    }
+
+    // Starts parsing a view in the background unless it is loaded or loading already
+    public static void preload(String fxml) {
+        checkFxThread();
+        if (views.containsKey(fxml) || preloads.containsKey(fxml)) return;
+
+        preloads.put(fxml, CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(fxml);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, PRELOADER));
+    }
+
+    // Cached view; waits for a running preload rather than parsing the file twice
+    @SuppressWarnings("unchecked")
+    public static <C> View<C> get(String fxml) throws IOException {
+        checkFxThread();
+        View<?> view = views.get(fxml);
+        if (view != null) return (View<C>) view;
+
+        Loaded loaded;
+        CompletableFuture<Loaded> preload = preloads.remove(fxml);
+        try {
+            loaded = preload != null ? preload.join() : load(fxml);
+        } catch (RuntimeException e) {
+            loaded = load(fxml); // preload failed (e.g. a node that needs the FX thread): load here
+        }
+
+        double[] size = sizeOf(fxml);
+        View<C> created = new View<>(new Scene(loaded.root(), size[0], size[1]), (C) loaded.controller());
+        views.put(fxml, created);
+        return created;
+    }
+
+    // Puts a cached view on the stage and returns its controller
+    public static <C> C show(Stage stage, String fxml) throws IOException {
+        View<C> view = get(fxml);
+        if (view.controller() instanceof Reusable reusable) reusable.reset();
+        stage.setScene(view.scene());
+        return view.controller();
+    }
+
+    private static Loaded load(String fxml) throws IOException {
+        FXMLLoader loader = new FXMLLoader(Views.class.getResource(fxml));
+        Parent root = loader.load();
+        return new Loaded(root, loader.getController());
+    }
+
+    // Initial scene sizes each screen was designed for; the stage keeps its own size after that
+    private static double[] sizeOf(String fxml) {
+        return switch (fxml) {
+            case REGISTER -> new double[]{420, 420};
+            case CALENDAR -> new double[]{1200, 650};
+            case HELP -> new double[]{900, 650};
+            case DIAGNOSTICS -> new double[]{900, 450};
+            default -> new double[]{800, 600};
+        };
+    }
+
+    private static void checkFxThread() {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("Views must be used on the JavaFX thread");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.calendarreminderapp.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only record log backed by a memory-mapped file. Each record is an op code
+ * plus a list of nullable strings:
+ *
+ * <pre>[int length][byte op][short fieldCount]([int byteLength | -1 for null][utf-8 bytes])*</pre>
+ *
+ * The mapped region is zero-filled past the last record, so replay stops at the
+ * first zero length. The mapping doubles when an append does not fit.
+ */
+class AppendLog implements Closeable {
+
+    interface RecordHandler {
+        void onRecord(byte op, String[] fields);
+    }
+
+    private static final int INITIAL_CAPACITY = 1 << 20; // 1 MB
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Short.BYTES;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    AppendLog(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = Math.max(channel.size(), INITIAL_CAPACITY);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    // Feeds every stored record to the handler and positions the log for appends
+    synchronized void replay(RecordHandler handler) {
+        int pos = 0;
+        while (pos + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + Integer.BYTES + length > buffer.capacity()) break;
+
+            int p = pos + Integer.BYTES;
+            byte op = buffer.get(p);
+            p += Byte.BYTES;
+            int count = buffer.getShort(p);
+            p += Short.BYTES;
+
+            String[] fields = new String[count];
+            for (int i = 0; i < count; i++) {
+                int len = buffer.getInt(p);
+                p += Integer.BYTES;
+                if (len < 0) continue;
+
+                byte[] bytes = new byte[len];
+                buffer.get(p, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                p += len;
+            }
+
+            handler.onRecord(op, fields);
+            pos += Integer.BYTES + length;
+        }
+        writePosition = pos;
+    }
+
+    synchronized void append(byte op, String... fields) throws IOException {
+        write(op, fields);
+        buffer.force();
+    }
+
+    // Like append but without the flush; callers batching many records call sync() once at the end
+    synchronized void write(byte op, String... fields) throws IOException {
+        byte[][] encoded = new byte[fields.length][];
+        int length = Byte.BYTES + Short.BYTES;
+        for (int i = 0; i < fields.length; i++) {
+            length += Integer.BYTES;
+            if (fields[i] != null) {
+                encoded[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+                length += encoded[i].length;
+            }
+        }
+
+        ensureCapacity(writePosition + Integer.BYTES + length);
+
+        // Body first, length last: a torn write leaves a zero length and is skipped on replay
+        int p = writePosition + Integer.BYTES;
+        buffer.put(p, op);
+        p += Byte.BYTES;
+        buffer.putShort(p, (short) fields.length);
+        p += Short.BYTES;
+        for (byte[] bytes : encoded) {
+            if (bytes == null) {
+                buffer.putInt(p, -1);
+                p += Integer.BYTES;
+                continue;
+            }
+            buffer.putInt(p, bytes.length);
+            p += Integer.BYTES;
+            buffer.put(p, bytes);
+            p += bytes.length;
+        }
+        buffer.putInt(writePosition, length);
+
+        writePosition += Integer.BYTES + length;
+    }
+
+    synchronized void sync() {
+        buffer.force();
+    }
+
+    // Drops every record. Records are zeroed last to first, length before body, so a crash
+    // midway leaves a shorter log of whole records rather than a damaged one.
+    synchronized void clear() {
+        List<Integer> starts = new ArrayList<>();
+        for (int pos = 0; pos < writePosition; pos += Integer.BYTES + buffer.getInt(pos)) {
+            starts.add(pos);
+        }
+
+        int end = writePosition;
+        for (int i = starts.size() - 1; i >= 0; i--) {
+            int start = starts.get(i);
+            buffer.putInt(start, 0);
+            buffer.put(start + Integer.BYTES, new byte[end - start - Integer.BYTES]);
+            end = start;
+        }
+        buffer.force();
+        writePosition = 0;
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) return;
+
+        long capacity = buffer.capacity();
+        while (capacity < required) capacity *= 2;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Append log exceeds 2 GB");
+        }
+
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.calendarreminderapp.database;
+
+// Outcome of one item in a bulk reminder call; index is the item's position in the input list
+public final class BulkResult {
+
+    private final int index;
+    private final String id;
+    private final Throwable error;
+
+    private BulkResult(int index, String id, Throwable error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkResult success(int index, String id) {
+        return new BulkResult(index, id, null);
+    }
+
+    public static BulkResult failure(int index, String id, Throwable error) {
+        return new BulkResult(index, id, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + id + (isSuccess() ? " ok" : " failed: " + error);
+    }
+}
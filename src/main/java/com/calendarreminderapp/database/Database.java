@@ -1,48 +1,156 @@
 package com.calendarreminderapp.database;
 
 
+import com.google.api.gax.rpc.ApiException;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.FirestoreException;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.cloud.firestore.Firestore;
 import com.google.firebase.cloud.FirestoreClient;
+import io.grpc.StatusRuntimeException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Database {
 
-    private static boolean initialized = false;
+    // Dedicated pool for blocking store calls so the JavaFX thread never waits on I/O
+    private static final AtomicInteger IO_THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService IO_EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread t = new Thread(task, "store-io-" + IO_THREAD_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
 
+    private static final String EMULATOR_HOST_VARIABLE = "FIRESTORE_EMULATOR_HOST";
+    private static final String EMULATOR_PROJECT_ID = "demo-calendar-reminder-app";
 
-    public static void init() throws IOException {
-        if (initialized) {
-            return;
+    // gRPC status codes of failures that say nothing about the request itself
+    private static final Set<String> TRANSIENT_CODES = Set.of(
+            "UNAVAILABLE", "DEADLINE_EXCEEDED", "RESOURCE_EXHAUSTED", "ABORTED", "CANCELLED", "INTERNAL");
+
+    // Set once by the first caller; reset on failure so a later call can retry
+    private static CompletableFuture<Firestore> firestore;
+
+
+    // Starts Firebase/Firestore setup on the I/O pool (once) and returns the shared future
+    public static synchronized CompletableFuture<Firestore> initAsync() {
+        if (firestore == null || firestore.isCompletedExceptionally()) {
+            firestore = supplyAsync(Database::connect);
+            // Range reads filter on startMinute and grids read month summaries; one marker read
+            // once the project is migrated. In the background, so an unreachable backend never
+            // holds up offline use.
+            firestore.thenAcceptAsync(ReminderMigration::migrateOnce, IO_EXECUTOR);
         }
+        return firestore;
+    }
+
+    // Blocking form of initAsync for callers already off the FX thread
+    public static void init() throws IOException {
+        getFirestore();
+    }
 
-        try (InputStream serviceAccount =
-                     Database.class.getResourceAsStream("/serviceAccountKey.json")) {
+    public static Firestore getFirestore() throws IOException {
+        try {
+            return initAsync().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Firebase initialization failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Firebase", e);
+        }
+    }
 
-            if (serviceAccount == null) {
-                throw new IOException("serviceAccountKey.json not found in resources");
+    // Opens the gRPC channel with one tiny read so the first real query does not pay for it
+    public static CompletableFuture<Void> warmUpAsync() {
+        return initAsync().thenApplyAsync(db -> {
+            try {
+                long start = System.nanoTime();
+                db.collection("users").limit(1).get().get();
+                System.out.printf("⏱ Firestore warm-up read: %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace(); // not fatal: the first real query will connect instead
             }
+            return null;
+        }, IO_EXECUTOR);
+    }
+
+    private static Firestore connect() throws IOException {
+        long start = System.nanoTime();
+
+        if (FirebaseApp.getApps().isEmpty()) {
+            try (InputStream serviceAccount =
+                         Database.class.getResourceAsStream("/serviceAccountKey.json")) {
 
-            FirebaseOptions options = FirebaseOptions.builder()
-                    .setCredentials(GoogleCredentials.fromStream(serviceAccount))
-                    .build();
+                String emulatorHost = System.getenv(EMULATOR_HOST_VARIABLE);
+                if (serviceAccount == null && emulatorHost == null) {
+                    throw new IOException("serviceAccountKey.json not found in resources");
+                }
 
-            FirebaseApp.initializeApp(options);
-            initialized = true;
-            System.out.println("✅ Firebase initialized (Firestore ready)");
+                // Against the emulator (FIRESTORE_EMULATOR_HOST=host:port) no real credentials are needed
+                FirebaseOptions options = serviceAccount != null
+                        ? FirebaseOptions.builder()
+                                .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+                                .build()
+                        : FirebaseOptions.builder()
+                                .setCredentials(GoogleCredentials.create(new AccessToken("owner", null)))
+                                .setProjectId(System.getenv().getOrDefault("GCLOUD_PROJECT", EMULATOR_PROJECT_ID))
+                                .build();
+                if (emulatorHost != null) {
+                    System.out.println("🧪 Using the Firestore emulator at " + emulatorHost);
+                }
+
+                FirebaseApp.initializeApp(options);
+            }
         }
+
+        Firestore db = FirestoreClient.getFirestore();
+        System.out.printf("✅ Firebase initialized (Firestore ready) in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+        return db;
     }
 
+    // True when a failed Firestore call is worth retrying later: the backend could not be
+    // reached or did not answer, as opposed to rejecting the request itself
+    public static boolean isUnavailable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof TimeoutException) return true;
 
-    public static Firestore getFirestore() throws IOException {
-        if (!initialized) {
-            init();
+            String code = null;
+            if (t instanceof FirestoreException fe && fe.getStatus() != null) {
+                code = fe.getStatus().getCode().name();
+            } else if (t instanceof StatusRuntimeException sre) {
+                code = sre.getStatus().getCode().name();
+            } else if (t instanceof ApiException api) {
+                code = api.getStatusCode().getCode().name();
+            }
+            if (code != null) return TRANSIENT_CODES.contains(code);
         }
-        return FirestoreClient.getFirestore();
+        return false;
+    }
+
+    // Runs a blocking repository call on the I/O pool
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        IO_EXECUTOR.execute(() -> {
+            if (future.isDone()) return; // cancelled before it got a thread
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
     }
 
     // Optional quick test if anything go es wrong
@@ -0,0 +1,69 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Reminder and User documents field by field instead of through
+ * {@code DocumentSnapshot.toObject}, which goes through Firestore's reflective class
+ * mapper for every document. Each document's fields are decoded once; fields of the
+ * wrong type read as missing and unknown fields are ignored.
+ *
+ * <p>Writes still go through Firestore's mapper, so a field added to Reminder or User
+ * must be added here too.
+ */
+final class DocumentCodec {
+
+    private DocumentCodec() {
+    }
+
+    static Reminder toReminder(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        Reminder r = new Reminder();
+        r.setId(doc.getId());
+        if (data == null) return r;
+
+        r.setUsername(string(data, "username"));
+        r.setDate(string(data, "date"));
+        r.setTitle(string(data, "title"));
+        r.setDescription(string(data, "description"));
+        r.setTime(string(data, "time"));
+        if (data.get("startMinute") instanceof Number startMinute) r.setStartMinute(startMinute.longValue());
+        r.setRecurrence(string(data, "recurrence"));
+        r.setExceptions(strings(data, "exceptions"));
+        r.setSeriesId(string(data, "seriesId"));
+        r.setOriginalDate(string(data, "originalDate"));
+        return r;
+    }
+
+    static List<Reminder> toReminders(QuerySnapshot snapshot) {
+        List<Reminder> list = new ArrayList<>(snapshot.size());
+        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+            list.add(toReminder(doc));
+        }
+        return list;
+    }
+
+    static User toUser(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        if (data == null) return null;
+        return new User(string(data, "username"), string(data, "password"));
+    }
+
+    private static String string(Map<String, Object> data, String field) {
+        return data.get(field) instanceof String value ? value : null;
+    }
+
+    private static List<String> strings(Map<String, Object> data, String field) {
+        if (!(data.get(field) instanceof List<?> values)) return null;
+        List<String> list = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof String s) list.add(s);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,614 @@
+package com.calendarreminderapp.database;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded ReminderStore for single-user installs and test rigs: every write is
+ * appended to a memory-mapped {@link AppendLog}, and all reads are served from an
+ * in-memory per-user date index rebuilt from the log on startup. Recurring series
+ * live in the same log and are expanded per read window.
+ */
+public class LocalReminderStore implements ReminderStore {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_PUT_SERIES = 3;
+    private static final byte OP_DELETE_SERIES = 4;
+
+    private static final Comparator<Reminder> CHRONOLOGICAL = Comparator.comparingLong(Reminder::getSortKey);
+    private static final Comparator<Reminder> PAGE_ORDER = CHRONOLOGICAL.thenComparing(Reminder::getId);
+
+    private final AppendLog log;
+
+    private final Map<String, Reminder> byId = new HashMap<>();
+    private final Map<String, NavigableMap<LocalDate, List<Reminder>>> byUserDate = new HashMap<>();
+    private final Map<String, Reminder> seriesById = new HashMap<>();
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+    // Listener callbacks are queued under the store lock (so in write order) and run here
+    private final ExecutorService events = Executors.newSingleThreadExecutor(task -> {
+        Thread t = new Thread(task, "local-store-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // window is null for listenToAll, which receives series as stored instead of expanded
+    private record Watch(String username,
+                         LocalDate from,
+                         LocalDate to,
+                         ChangeListener listener,
+                         SeriesExpansion.Window window) {
+        boolean contains(Reminder r) {
+            if (!username.equals(r.getUsername())) return false;
+            LocalDate date = LocalDate.parse(r.getDate());
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+    }
+
+    public LocalReminderStore(Path file) throws IOException {
+        this.log = new AppendLog(file);
+        log.replay((op, f) -> {
+            if (op == OP_PUT) {
+                Reminder r = new Reminder(f[1], f[2], f[3], f[4], f[5]);
+                r.setId(f[0]);
+                if (f.length > 7) { // edited occurrence of a series
+                    r.setSeriesId(f[6]);
+                    r.setOriginalDate(f[7]);
+                }
+                unindex(r.getId());
+                index(r);
+            } else if (op == OP_DELETE) {
+                unindex(f[0]);
+            } else if (op == OP_PUT_SERIES) {
+                Reminder series = new Reminder(f[1], f[2], f[3], f[4], f[5]);
+                series.setId(f[0]);
+                series.setRecurrence(f[6]);
+                series.setExceptions(splitExceptions(f[7]));
+                seriesById.put(series.getId(), series);
+            } else if (op == OP_DELETE_SERIES) {
+                seriesById.remove(f[0]);
+            }
+        });
+    }
+
+    @Override
+    public void addReminder(String username,
+                            LocalDate date,
+                            String title,
+                            String description,
+                            String time)
+            throws ExecutionException {
+
+        Reminder reminder = new Reminder(username, date.toString(), title, description, time);
+        reminder.setId(UUID.randomUUID().toString());
+        put(null, reminder);
+    }
+
+    @Override
+    public synchronized List<Reminder> getRemindersForDate(String username, LocalDate date) {
+        List<Reminder> list = new ArrayList<>();
+        getRemindersForRange(username, date, date).values().forEach(list::addAll);
+        return list;
+    }
+
+    @Override
+    public synchronized List<Reminder> getRemindersForMonth(String username, YearMonth ym) {
+        List<Reminder> list = new ArrayList<>();
+        getRemindersForRange(username, ym.atDay(1), ym.atEndOfMonth()).values().forEach(list::addAll);
+        return list;
+    }
+
+    @Override
+    public synchronized NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username,
+                                                                                    LocalDate from,
+                                                                                    LocalDate to) {
+        NavigableMap<LocalDate, List<Reminder>> byDay = storedRange(username, from, to);
+        SeriesExpansion.expandInto(byDay, seriesOf(username), from, to);
+        return byDay;
+    }
+
+    // Counted from memory; there is no stored summary to keep in step
+    @Override
+    public synchronized NavigableMap<YearMonth, MonthSummary> getMonthSummaries(String username,
+                                                                               YearMonth from,
+                                                                               YearMonth to) {
+        NavigableMap<LocalDate, List<Reminder>> byDay = getRemindersForRange(username, from.atDay(1), to.atEndOfMonth());
+        NavigableMap<YearMonth, MonthSummary> summaries = new TreeMap<>();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            summaries.put(m, new MonthSummary(m));
+        }
+        for (List<Reminder> day : byDay.values()) {
+            for (Reminder r : day) summaries.get(YearMonth.from(LocalDate.parse(r.getDate()))).add(r);
+        }
+        return summaries;
+    }
+
+    @Override
+    public synchronized List<Reminder> getUpcomingReminders(String username, Reminder after, int limit) {
+        return getRemindersPage(username, ReminderTime.now(), after, limit);
+    }
+
+    @Override
+    public synchronized List<Reminder> getRemindersPage(String username, long fromMinute, Reminder after, int limit) {
+        long floor = Math.max(ReminderTime.startOfDay(LocalDate.MIN),
+                after != null ? Math.max(fromMinute, after.getSortKey()) : fromMinute);
+
+        List<Reminder> page = new ArrayList<>();
+        for (List<Reminder> day : userIndex(username).tailMap(ReminderTime.dateOf(floor), true).values()) {
+            List<Reminder> sorted = new ArrayList<>(day);
+            sorted.sort(PAGE_ORDER);
+            for (Reminder r : sorted) {
+                if (r.getSortKey() < fromMinute) continue;
+                if (after != null && PAGE_ORDER.compare(r, after) <= 0) continue;
+
+                page.add(r);
+                if (page.size() == limit) return page;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public String getOwner(String id) {
+        Reminder r = find(id);
+        return r == null ? null : r.getUsername();
+    }
+
+    @Override
+    public void deleteReminder(Reminder reminder) throws ExecutionException {
+        if (reminder == null || reminder.getId() == null) return;
+
+        synchronized (this) {
+            Reminder old = byId.get(reminder.getId());
+            if (old == null) return;
+
+            try {
+                log.append(OP_DELETE, old.getId());
+            } catch (IOException e) {
+                throw new ExecutionException(e);
+            }
+            unindex(old.getId());
+            notifyWatches(old, null);
+        }
+    }
+
+    @Override
+    public void updateReminder(Reminder reminder,
+                               LocalDate newDate,
+                               String newTitle,
+                               String newDescription,
+                               String newTime)
+            throws ExecutionException {
+
+        if (reminder == null || reminder.getId() == null) return;
+
+        Reminder old;
+        synchronized (this) {
+            old = byId.get(reminder.getId());
+        }
+        if (old == null) return;
+
+        Reminder updated = new Reminder(old.getUsername(), newDate.toString(), newTitle, newDescription, newTime);
+        updated.setId(old.getId());
+        updated.setSeriesId(old.getSeriesId());
+        updated.setOriginalDate(old.getOriginalDate());
+        put(old, updated);
+    }
+
+    @Override
+    public void updateReminderByFields(String username,
+                                       String originalDateString,
+                                       String originalTime,
+                                       String originalTitle,
+                                       LocalDate newDate,
+                                       String newTitle,
+                                       String newDescription,
+                                       String newTime)
+            throws ExecutionException {
+
+        List<Reminder> matches = new ArrayList<>();
+        synchronized (this) {
+            for (Reminder r : userIndex(username).getOrDefault(LocalDate.parse(originalDateString), List.of())) {
+                if (originalTime.equals(r.getTime()) && originalTitle.equals(r.getTitle())) {
+                    matches.add(r);
+                }
+            }
+        }
+        for (Reminder r : matches) {
+            updateReminder(r, newDate, newTitle, newDescription, newTime);
+        }
+    }
+
+    @Override
+    public List<BulkResult> addReminders(List<Reminder> reminders) {
+        return bulk(reminders, r -> {
+            Reminder created = new Reminder(r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime());
+            created.setId(r.getId() != null ? r.getId() : UUID.randomUUID().toString());
+            created.setSeriesId(r.getSeriesId());
+            created.setOriginalDate(r.getOriginalDate());
+            return created;
+        });
+    }
+
+    @Override
+    public List<BulkResult> updateReminders(List<Reminder> reminders) {
+        return bulk(reminders, r -> {
+            Reminder old = existing(r);
+            Reminder updated = new Reminder(old.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime());
+            updated.setId(old.getId());
+            updated.setSeriesId(old.getSeriesId());
+            updated.setOriginalDate(old.getOriginalDate());
+            return updated;
+        });
+    }
+
+    @Override
+    public List<BulkResult> moveReminders(List<Reminder> reminders, LocalDate newDate) {
+        return bulk(reminders, r -> {
+            Reminder old = existing(r);
+            Reminder moved = new Reminder(old.getUsername(), newDate.toString(), old.getTitle(), old.getDescription(), old.getTime());
+            moved.setId(old.getId());
+            moved.setSeriesId(old.getSeriesId());
+            moved.setOriginalDate(old.getOriginalDate());
+            return moved;
+        });
+    }
+
+    @Override
+    public List<BulkResult> deleteReminders(List<Reminder> reminders) {
+        return bulk(reminders, r -> {
+            if (r.getId() == null) throw new IllegalArgumentException("Reminder has no id");
+            return null; // an id already gone is done too (see ReminderStore)
+        });
+    }
+
+    @Override
+    public Subscription listenToRange(String username,
+                                      LocalDate from,
+                                      LocalDate to,
+                                      ChangeListener listener) {
+
+        Watch watch = new Watch(username, from, to, listener, new SeriesExpansion.Window(from, to));
+        List<Reminder> initial = new ArrayList<>();
+        synchronized (this) {
+            storedRange(username, from, to).values().forEach(initial::addAll);
+            watch.window().apply(seriesOf(username), List.of(), initial, new ArrayList<>());
+            watches.add(watch);
+            events.execute(() -> listener.onChanges(initial, List.of()));
+        }
+        return () -> watches.remove(watch);
+    }
+
+    @Override
+    public Subscription listenToAll(String username, ChangeListener listener) {
+        Watch watch = new Watch(username, LocalDate.MIN, LocalDate.MAX, listener, null);
+        List<Reminder> initial = new ArrayList<>();
+        synchronized (this) {
+            userIndex(username).values().forEach(initial::addAll);
+            initial.addAll(seriesOf(username));
+            watches.add(watch);
+            events.execute(() -> listener.onChanges(initial, List.of()));
+        }
+        return () -> watches.remove(watch);
+    }
+
+    @Override
+    public synchronized void addSeries(Reminder series) throws ExecutionException {
+        Reminder stored = new Reminder(series.getUsername(), series.getDate(),
+                series.getTitle(), series.getDescription(), series.getTime());
+        stored.setId(series.getId() != null ? series.getId() : UUID.randomUUID().toString());
+        stored.setRecurrence(Recurrence.parse(series.getRecurrence()).toRule());
+        stored.setExceptions(series.getExceptions() == null ? new ArrayList<>() : new ArrayList<>(series.getExceptions()));
+        putSeries(stored);
+    }
+
+    @Override
+    public synchronized List<Reminder> getSeries(String username) {
+        return seriesOf(username);
+    }
+
+    @Override
+    public synchronized void updateSeries(String seriesId,
+                                          String newTitle,
+                                          String newDescription,
+                                          String newTime,
+                                          String newRecurrence)
+            throws ExecutionException {
+
+        Reminder old = seriesById.get(seriesId);
+        if (old == null) return;
+
+        Reminder updated = new Reminder(old.getUsername(), old.getDate(), newTitle, newDescription, newTime);
+        updated.setId(old.getId());
+        updated.setRecurrence(Recurrence.parse(newRecurrence).toRule());
+        updated.setExceptions(old.getExceptions());
+        putSeries(updated);
+    }
+
+    @Override
+    public synchronized void deleteSeries(String seriesId) throws ExecutionException {
+        Reminder series = seriesById.get(seriesId);
+        if (series == null) return;
+
+        List<Reminder> overrides = new ArrayList<>();
+        for (Reminder r : byId.values()) {
+            if (seriesId.equals(r.getSeriesId())) overrides.add(r);
+        }
+        deleteReminders(overrides);
+
+        try {
+            log.append(OP_DELETE_SERIES, seriesId);
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+        seriesById.remove(seriesId);
+        notifySeries(series.getUsername(), List.of(), List.of(seriesId));
+    }
+
+    @Override
+    public synchronized void skipOccurrence(Reminder occurrence) throws ExecutionException {
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        Reminder series = seriesById.get(occurrence.getSeriesId());
+        if (series == null) return;
+
+        putSeries(withException(series, occurrence.getDate()));
+    }
+
+    @Override
+    public synchronized void overrideOccurrence(Reminder occurrence,
+                                                LocalDate newDate,
+                                                String newTitle,
+                                                String newDescription,
+                                                String newTime)
+            throws ExecutionException {
+
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        Reminder series = seriesById.get(occurrence.getSeriesId());
+        if (series == null) return;
+
+        Reminder edited = new Reminder(occurrence.getUsername(), newDate.toString(), newTitle, newDescription, newTime);
+        edited.setId(UUID.randomUUID().toString());
+        edited.setSeriesId(series.getId());
+        edited.setOriginalDate(occurrence.getDate());
+
+        putSeries(withException(series, occurrence.getDate()));
+        put(null, edited);
+    }
+
+    // Stored reminder or series with this id, or null
+    synchronized Reminder find(String id) {
+        Reminder r = byId.get(id);
+        return r != null ? r : seriesById.get(id);
+    }
+
+    // Every stored (non-series) reminder of a user
+    synchronized List<Reminder> storedReminders(String username) {
+        List<Reminder> list = new ArrayList<>();
+        userIndex(username).values().forEach(list::addAll);
+        return list;
+    }
+
+    // Users with any stored reminder or series
+    synchronized Set<String> usernames() {
+        Set<String> names = new HashSet<>(byUserDate.keySet());
+        for (Reminder series : seriesById.values()) names.add(series.getUsername());
+        return names;
+    }
+
+    public synchronized void close() throws IOException {
+        events.shutdown();
+        log.close();
+    }
+
+    // Maps an input reminder to its new version (null to delete); throws to fail just that item
+    private interface BulkOp {
+        Reminder apply(Reminder input);
+    }
+
+    // Applies every item under one lock with a single flush, then sends each watch one change set
+    private synchronized List<BulkResult> bulk(List<Reminder> reminders, BulkOp op) {
+        List<BulkResult> results = new ArrayList<>(reminders.size());
+        List<Reminder> olds = new ArrayList<>();
+        List<Reminder> updates = new ArrayList<>();
+
+        for (int i = 0; i < reminders.size(); i++) {
+            Reminder input = reminders.get(i);
+            try {
+                Reminder r = op.apply(input);
+                String id = r != null ? r.getId() : input.getId();
+                Reminder old = byId.get(id);
+                if (r == null && old == null) {
+                    results.add(BulkResult.success(i, id));
+                    continue;
+                }
+                if (r == null) {
+                    log.write(OP_DELETE, id);
+                } else {
+                    log.write(OP_PUT, putFields(r));
+                }
+                unindex(id);
+                if (r != null) index(r);
+
+                olds.add(old);
+                updates.add(r);
+                results.add(BulkResult.success(i, id));
+            } catch (Exception e) {
+                results.add(BulkResult.failure(i, input == null ? null : input.getId(), e));
+            }
+        }
+        log.sync();
+
+        for (Watch w : watches) {
+            List<Reminder> upserted = new ArrayList<>();
+            List<String> removedIds = new ArrayList<>();
+            for (int i = 0; i < updates.size(); i++) {
+                Reminder old = olds.get(i);
+                Reminder updated = updates.get(i);
+                if (updated != null && w.contains(updated)) {
+                    upserted.add(updated);
+                } else if (old != null && w.contains(old)) {
+                    removedIds.add(old.getId());
+                }
+            }
+            if (!upserted.isEmpty() || !removedIds.isEmpty()) {
+                events.execute(() -> w.listener().onChanges(upserted, removedIds));
+            }
+        }
+        return results;
+    }
+
+    private Reminder existing(Reminder r) {
+        Reminder old = r.getId() == null ? null : byId.get(r.getId());
+        if (old == null) {
+            throw new IllegalArgumentException("No reminder with id " + r.getId());
+        }
+        return old;
+    }
+
+    // Appends then indexes; old is the version being replaced (null for inserts)
+    private void put(Reminder old, Reminder r) throws ExecutionException {
+        synchronized (this) {
+            try {
+                log.append(OP_PUT, putFields(r));
+            } catch (IOException e) {
+                throw new ExecutionException(e);
+            }
+            unindex(r.getId());
+            index(r);
+            notifyWatches(old, r);
+        }
+    }
+
+    private void putSeries(Reminder series) throws ExecutionException {
+        try {
+            log.append(OP_PUT_SERIES, series.getId(), series.getUsername(), series.getDate(),
+                    series.getTitle(), series.getDescription(), series.getTime(),
+                    series.getRecurrence(), String.join(",", series.getExceptions()));
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+        seriesById.put(series.getId(), series);
+        notifySeries(series.getUsername(), List.of(series), List.of());
+    }
+
+    private static String[] putFields(Reminder r) {
+        if (r.getSeriesId() == null) {
+            return new String[]{r.getId(), r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime()};
+        }
+        return new String[]{r.getId(), r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime(),
+                r.getSeriesId(), r.getOriginalDate()};
+    }
+
+    private static Reminder withException(Reminder series, String date) {
+        Reminder copy = new Reminder(series.getUsername(), series.getDate(),
+                series.getTitle(), series.getDescription(), series.getTime());
+        copy.setId(series.getId());
+        copy.setRecurrence(series.getRecurrence());
+
+        List<String> exceptions = new ArrayList<>(series.getExceptions());
+        if (!exceptions.contains(date)) exceptions.add(date);
+        copy.setExceptions(exceptions);
+        return copy;
+    }
+
+    private static List<String> splitExceptions(String joined) {
+        List<String> list = new ArrayList<>();
+        if (joined == null || joined.isEmpty()) return list;
+        for (String date : joined.split(",")) list.add(date);
+        return list;
+    }
+
+    private void notifySeries(String username, List<Reminder> upsertedSeries, List<String> removedSeriesIds) {
+        for (Watch w : watches) {
+            if (!w.username().equals(username)) continue;
+
+            List<Reminder> upserted = new ArrayList<>();
+            List<String> removedIds = new ArrayList<>();
+            if (w.window() == null) {
+                upserted.addAll(upsertedSeries);
+                removedIds.addAll(removedSeriesIds);
+            } else {
+                w.window().apply(upsertedSeries, removedSeriesIds, upserted, removedIds);
+            }
+            if (!upserted.isEmpty() || !removedIds.isEmpty()) {
+                events.execute(() -> w.listener().onChanges(upserted, removedIds));
+            }
+        }
+    }
+
+    private List<Reminder> seriesOf(String username) {
+        List<Reminder> list = new ArrayList<>();
+        for (Reminder series : seriesById.values()) {
+            if (username.equals(series.getUsername())) list.add(series);
+        }
+        return list;
+    }
+
+    // Stored (non-series) reminders in [from, to], copied per day
+    private NavigableMap<LocalDate, List<Reminder>> storedRange(String username, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Reminder>> byDay = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<Reminder>> e : userIndex(username).subMap(from, true, to, true).entrySet()) {
+            byDay.put(e.getKey(), new ArrayList<>(e.getValue()));
+        }
+        return byDay;
+    }
+
+    private void notifyWatches(Reminder old, Reminder updated) {
+        for (Watch w : watches) {
+            if (updated != null && w.contains(updated)) {
+                events.execute(() -> w.listener().onChanges(List.of(updated), List.of()));
+            } else if (old != null && w.contains(old)) {
+                events.execute(() -> w.listener().onChanges(List.of(), List.of(old.getId())));
+            }
+        }
+    }
+
+    private NavigableMap<LocalDate, List<Reminder>> userIndex(String username) {
+        return byUserDate.getOrDefault(username, new TreeMap<>());
+    }
+
+    private void index(Reminder r) {
+        byId.put(r.getId(), r);
+
+        List<Reminder> day = byUserDate
+                .computeIfAbsent(r.getUsername(), u -> new TreeMap<>())
+                .computeIfAbsent(LocalDate.parse(r.getDate()), d -> new ArrayList<>());
+        int pos = 0;
+        while (pos < day.size() && CHRONOLOGICAL.compare(day.get(pos), r) <= 0) pos++;
+        day.add(pos, r);
+    }
+
+    private void unindex(String id) {
+        Reminder old = byId.remove(id);
+        if (old == null) return;
+
+        NavigableMap<LocalDate, List<Reminder>> user = byUserDate.get(old.getUsername());
+        LocalDate date = LocalDate.parse(old.getDate());
+        List<Reminder> day = user.get(date);
+        if (day == null) return;
+
+        day.removeIf(r -> id.equals(r.getId()));
+        if (day.isEmpty()) user.remove(date);
+        if (user.isEmpty()) byUserDate.remove(old.getUsername());
+    }
+}
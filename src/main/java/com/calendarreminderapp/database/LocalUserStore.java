@@ -0,0 +1,53 @@
+package com.calendarreminderapp.database;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+// Embedded UserStore: accounts appended to a memory-mapped log, looked up from memory
+public class LocalUserStore implements UserStore {
+
+    private static final byte OP_PUT = 1;
+
+    private final AppendLog log;
+    private final Map<String, User> users = new HashMap<>();
+
+    public LocalUserStore(Path file) throws IOException {
+        this.log = new AppendLog(file);
+        log.replay((op, f) -> {
+            if (op == OP_PUT) {
+                users.put(f[0], new User(f[0], f[1]));
+            }
+        });
+    }
+
+    @Override
+    public synchronized void createUser(String username, String password) throws ExecutionException {
+        try {
+            log.append(OP_PUT, username, password);
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+        users.put(username, new User(username, password));
+        System.out.println("✅ User created/updated locally: " + username);
+    }
+
+    @Override
+    public synchronized boolean validateUser(String username, String password) {
+        User user = users.get(username);
+        if (user == null) {
+            System.out.println("❌ User not found: " + username);
+            return false;
+        }
+
+        boolean ok = password.equals(user.getPassword());
+        System.out.println("🔍 Validate user '" + username + "': " + ok);
+        return ok;
+    }
+
+    public synchronized void close() throws IOException {
+        log.close();
+    }
+}
@@ -0,0 +1,145 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Firestore summary documents behind {@link MonthSummary}, one per user and month at
+ * {@code users/{username}/summaries/{yyyy-MM}}. A document counts the month's stored
+ * reminders (not series) by day and start minute:
+ *
+ * <pre>days: { "5": { "540": 2, "600": 1 }, ... }</pre>
+ *
+ * Keeping the minutes rather than only the earliest one means a delete never needs the
+ * day's other reminders to find the new earliest. Writers change the counts with
+ * increments in the same commit as the reminder itself, so concurrent writers never
+ * contend on a summary. Counts that drop to zero stay behind and are skipped on read;
+ * {@link SummaryRebuild} rewrites documents from the reminders if they ever drift.
+ */
+final class MonthSummaries {
+
+    private MonthSummaries() {
+    }
+
+    static DocumentReference ref(Firestore db, String username, YearMonth month) {
+        return collection(db, username).document(month.toString());
+    }
+
+    // Documents are named by month (2024-03), so id order is month order
+    static Query range(Firestore db, String username, YearMonth from, YearMonth to) {
+        return collection(db, username)
+                .whereGreaterThanOrEqualTo(FieldPath.documentId(), from.toString())
+                .whereLessThanOrEqualTo(FieldPath.documentId(), to.toString());
+    }
+
+    private static CollectionReference collection(Firestore db, String username) {
+        return db.collection("users").document(username).collection("summaries");
+    }
+
+    static MonthSummary read(YearMonth month, DocumentSnapshot doc) {
+        MonthSummary summary = new MonthSummary(month);
+        if (!doc.exists() || !(doc.get("days") instanceof Map<?, ?> days)) return summary;
+
+        for (Map.Entry<?, ?> day : days.entrySet()) {
+            if (!(day.getValue() instanceof Map<?, ?> minutes)) continue;
+            int dayOfMonth = Integer.parseInt(day.getKey().toString());
+            if (dayOfMonth < 1 || dayOfMonth > month.lengthOfMonth()) continue;
+
+            for (Map.Entry<?, ?> minute : minutes.entrySet()) {
+                if (minute.getValue() instanceof Number count) {
+                    summary.add(dayOfMonth, Integer.parseInt(minute.getKey().toString()), count.intValue());
+                }
+            }
+        }
+        return summary;
+    }
+
+    // Full document for a month's reminders, replacing whatever was there (rebuilds)
+    static Map<String, Object> document(Iterable<? extends DocumentSnapshot> reminders) {
+        Map<String, Map<String, Long>> days = new HashMap<>();
+        for (DocumentSnapshot doc : reminders) {
+            String date = doc.getString("date");
+            String time = doc.getString("time");
+            if (date == null || time == null) continue;
+            days.computeIfAbsent(dayKey(date), d -> new HashMap<>()).merge(minuteKey(date, time), 1L, Long::sum);
+        }
+        return Map.of("days", days);
+    }
+
+    private static String dayKey(String date) {
+        return Integer.toString(LocalDate.parse(date).getDayOfMonth());
+    }
+
+    private static String minuteKey(String date, String time) {
+        return Integer.toString(ReminderTime.minuteOfDay(ReminderTime.toStartMinute(LocalDate.parse(date), time)));
+    }
+
+    /**
+     * Summary changes for the reminders touched by one commit: a reminder written counts
+     * +1 on its day and minute, the document it replaces or removes -1.
+     */
+    static final class Delta {
+
+        private final Firestore db;
+
+        // Summary document -> day -> minute -> change
+        private final Map<DocumentReference, Map<String, Map<String, Integer>>> changes = new HashMap<>();
+
+        Delta(Firestore db) {
+            this.db = db;
+        }
+
+        void add(String username, String date, String time) {
+            change(username, date, time, 1);
+        }
+
+        void add(Reminder r) {
+            add(r.getUsername(), r.getDate(), r.getTime());
+        }
+
+        // The stored reminder as it was before this commit; nothing if it does not exist
+        void remove(DocumentSnapshot old) {
+            if (old == null || !old.exists()) return;
+            change(old.getString("username"), old.getString("date"), old.getString("time"), -1);
+        }
+
+        private void change(String username, String date, String time, int by) {
+            if (username == null || date == null || time == null) return;
+            DocumentReference ref = ref(db, username, YearMonth.from(LocalDate.parse(date)));
+            changes.computeIfAbsent(ref, r -> new HashMap<>())
+                    .computeIfAbsent(dayKey(date), d -> new HashMap<>())
+                    .merge(minuteKey(date, time), by, Integer::sum);
+        }
+
+        // Adds one merge write per touched summary to the batch or transaction
+        void writeTo(UpdateBuilder<?> writes) {
+            for (Map.Entry<DocumentReference, Map<String, Map<String, Integer>>> summary : changes.entrySet()) {
+                Map<String, Object> days = new HashMap<>();
+                for (Map.Entry<String, Map<String, Integer>> day : summary.getValue().entrySet()) {
+                    Map<String, Object> minutes = new HashMap<>();
+                    for (Map.Entry<String, Integer> minute : day.getValue().entrySet()) {
+                        if (minute.getValue() != 0) minutes.put(minute.getKey(), FieldValue.increment(minute.getValue()));
+                    }
+                    if (!minutes.isEmpty()) days.put(day.getKey(), minutes);
+                }
+                if (!days.isEmpty()) writes.set(summary.getKey(), Map.of("days", days), SetOptions.merge());
+            }
+        }
+
+        int size() {
+            return changes.size();
+        }
+    }
+}
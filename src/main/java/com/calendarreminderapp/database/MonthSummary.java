@@ -0,0 +1,85 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * How busy each day of one month is: the number of reminders and the earliest start,
+ * which is all the month and year grids show. Stored reminders come from a summary kept
+ * up to date on every write (see {@link MonthSummaries}); series occurrences are added
+ * when the summary is read.
+ */
+public final class MonthSummary {
+
+    private final YearMonth month;
+
+    // Index = day of month - 1; earliest is a minute of the day, -1 for a day without reminders
+    private final int[] counts = new int[31];
+    private final int[] earliest = new int[31];
+
+    public MonthSummary(YearMonth month) {
+        this.month = month;
+        Arrays.fill(earliest, -1);
+    }
+
+    // Summary of the given reminders that fall in the month (others are ignored)
+    public static MonthSummary of(YearMonth month, Collection<Reminder> reminders) {
+        MonthSummary summary = new MonthSummary(month);
+        for (Reminder r : reminders) summary.add(r);
+        return summary;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int count(LocalDate date) {
+        return YearMonth.from(date).equals(month) ? counts[date.getDayOfMonth() - 1] : 0;
+    }
+
+    // Start of the day's first reminder, or null if it has none
+    public LocalTime earliest(LocalDate date) {
+        if (!YearMonth.from(date).equals(month)) return null;
+        int minute = earliest[date.getDayOfMonth() - 1];
+        return minute < 0 ? null : LocalTime.ofSecondOfDay(minute * 60L);
+    }
+
+    public int total() {
+        int total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    void add(Reminder r) {
+        LocalDate date = LocalDate.parse(r.getDate());
+        if (YearMonth.from(date).equals(month)) add(date.getDayOfMonth(), r.getMinuteOfDay(), 1);
+    }
+
+    void add(int dayOfMonth, int minuteOfDay, int count) {
+        if (count <= 0) return;
+        int i = dayOfMonth - 1;
+        counts[i] += count;
+        if (earliest[i] < 0 || minuteOfDay < earliest[i]) earliest[i] = minuteOfDay;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MonthSummary other
+                && month.equals(other.month)
+                && Arrays.equals(counts, other.counts)
+                && Arrays.equals(earliest, other.earliest);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * month.hashCode() + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return month + ": " + total() + " reminder(s)";
+    }
+}
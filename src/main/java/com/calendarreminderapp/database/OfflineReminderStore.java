@@ -0,0 +1,1170 @@
+package com.calendarreminderapp.database;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ReminderStore that keeps working while the remote store (Firestore) is unreachable.
+ * Every mutation is first written to a fsync'd {@link WriteJournal}, then applied to a
+ * local snapshot ({@link LocalReminderStore}) so views and listeners see it at once, and
+ * finally replayed against the remote store, in order, by a background thread that keeps
+ * retrying with backoff until the remote store takes it. Replayed writes carry their own
+ * ids and complete values, so sending one twice (a crash between the remote write and its
+ * acknowledgement) changes nothing.
+ *
+ * <p>Reads go to the remote store, once the journal has been sent so they see every
+ * local change, and fall back to the snapshot only when the remote store is unavailable
+ * or does not answer in time. The snapshot holds just what that fallback needs: the
+ * results of whole-reminder range reads and series reads, and the ranges listeners are
+ * open on. Listeners are served from the snapshot, which sees local writes at once; one
+ * remote listener per watched range keeps that range current and is shared by every
+ * listener on it. Remote changes to a reminder or series with journal entries still
+ * outstanding are ignored until those entries have been sent. A user with no open
+ * listener and no reads for ten minutes is dropped from the snapshot.
+ *
+ * <p>Bulk updates, moves and deletes check each reminder before journaling it, against the
+ * snapshot for reminders it holds or has changes outstanding for and against the remote
+ * store for the rest (the snapshot alone while offline), and fail the ones that are not
+ * there. A journaled change the remote store still refuses when it is replayed is dropped
+ * and kept as a {@link Rejection}, both in {@link #rejections()} and for the listener set
+ * with {@link #setRejectionListener}.
+ */
+public class OfflineReminderStore implements ReminderStore {
+
+    // Journal ops; the first field is always the id of the reminder or series they change
+    private static final byte J_ADD = 1;           // id, username, date, title, description, time, seriesId, originalDate
+    private static final byte J_UPDATE = 2;        // id, date, title, description, time
+    private static final byte J_MOVE = 3;          // id, date, time
+    private static final byte J_DELETE = 4;        // id
+    private static final byte J_PUT_SERIES = 5;    // id, username, date, title, description, time, recurrence, exceptions
+    private static final byte J_UPDATE_SERIES = 6; // id, title, description, time, recurrence
+    private static final byte J_DELETE_SERIES = 7; // id
+    private static final byte J_SKIP = 8;          // seriesId, username, date, time, recurrence
+
+    private static final long REMOTE_READ_TIMEOUT_MILLIS = 5_000;
+    private static final int REPLAY_BATCH = 500;
+    private static final long MIN_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+    private static final long FOLLOW_IDLE_MILLIS = 10 * 60_000;
+    private static final int MAX_REJECTIONS = 100;
+
+    // An offline change the remote store refused when it was replayed; it was dropped
+    public record Rejection(LocalDateTime at, String id, String change, String reason) {
+        @Override
+        public String toString() {
+            return at.format(REJECTION_TIME) + "  " + change + " of " + id + ": " + reason;
+        }
+    }
+
+    private static final DateTimeFormatter REJECTION_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ReminderStore remote;
+    private final LocalReminderStore snapshot;
+    private final WriteJournal journal;
+
+    // Outstanding journal entries per reminder or series id
+    private final Map<String, Integer> pinned = new HashMap<>();
+    private final Map<String, Follow> followed = new HashMap<>();
+    // The latest rejected changes, oldest first
+    private final Deque<Rejection> rejections = new ArrayDeque<>();
+    private volatile Consumer<Rejection> rejectionListener = rejection -> {
+    };
+
+    private final Thread replayer;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread t = new Thread(task, "offline-snapshot-sweep");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean closed = false;
+    private volatile boolean online = true;
+    private volatile long skipRemoteUntil = System.nanoTime(); // reads go straight to the snapshot before this
+
+    private interface StoreRead<T> {
+        T from(ReminderStore store) throws ExecutionException, InterruptedException;
+    }
+
+    private interface SnapshotWrite {
+        void apply() throws ExecutionException;
+    }
+
+    // Copies a remote read's result into the snapshot
+    private interface Keep<T> {
+        void into(Follow follow, T result) throws ExecutionException;
+    }
+
+    public OfflineReminderStore(ReminderStore remote, LocalReminderStore snapshot, Path journalFile) throws IOException {
+        this.remote = remote;
+        this.snapshot = snapshot;
+        this.journal = new WriteJournal(journalFile);
+
+        List<WriteJournal.Entry> outstanding = journal.peek(Integer.MAX_VALUE);
+        outstanding.forEach(this::pin);
+        if (!outstanding.isEmpty()) {
+            System.out.println("📝 " + outstanding.size() + " offline change(s) waiting to be sent");
+        }
+
+        // Users left in the snapshot by an earlier run are dropped too unless they are used again
+        for (String username : snapshot.usernames()) followed.put(username, new Follow(username));
+
+        this.replayer = new Thread(this::replayLoop, "offline-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+        sweeper.scheduleWithFixedDelay(this::releaseIdleUsers, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    // Journaled changes the remote store has not confirmed yet
+    public int pendingWrites() {
+        return journal.size();
+    }
+
+    // Changes dropped because the remote store refused them, oldest first
+    public synchronized List<Rejection> rejections() {
+        return new ArrayList<>(rejections);
+    }
+
+    // Told about each rejected change as it happens, on the replay thread
+    public void setRejectionListener(Consumer<Rejection> listener) {
+        rejectionListener = listener != null ? listener : rejection -> {
+        };
+    }
+
+    // Waits until every journaled change has been sent; false if some are still waiting at the timeout
+    public synchronized boolean awaitReplay(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (journal.size() > 0) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return false;
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    // MUTATIONS: journal, snapshot, then the replayer
+
+    @Override
+    public void addReminder(String username,
+                            LocalDate date,
+                            String title,
+                            String description,
+                            String time)
+            throws ExecutionException {
+
+        Reminder reminder = new Reminder(username, date.toString(), title, description, time);
+        reminder.setId(newId());
+        record(List.of(added(reminder)), () -> snapshot.addReminders(List.of(reminder)));
+    }
+
+    @Override
+    public void deleteReminder(Reminder reminder) throws ExecutionException {
+        if (reminder == null || reminder.getId() == null) return;
+
+        record(List.of(entry(J_DELETE, reminder.getId())), () -> snapshot.deleteReminder(reminder));
+    }
+
+    @Override
+    public void updateReminder(Reminder reminder,
+                               LocalDate newDate,
+                               String newTitle,
+                               String newDescription,
+                               String newTime)
+            throws ExecutionException {
+
+        if (reminder == null || reminder.getId() == null) return;
+
+        record(List.of(entry(J_UPDATE, reminder.getId(), newDate.toString(), newTitle, newDescription, newTime)),
+                () -> snapshot.updateReminder(reminder, newDate, newTitle, newDescription, newTime));
+    }
+
+    // Matched once, here; the journal holds updates by id
+    @Override
+    public void updateReminderByFields(String username,
+                                       String originalDateString,
+                                       String originalTime,
+                                       String originalTitle,
+                                       LocalDate newDate,
+                                       String newTitle,
+                                       String newDescription,
+                                       String newTime)
+            throws ExecutionException, InterruptedException {
+
+        List<Reminder> matches = new ArrayList<>();
+        for (Reminder r : getRemindersForDate(username, LocalDate.parse(originalDateString))) {
+            if (!r.isOccurrence() && originalTime.equals(r.getTime()) && originalTitle.equals(r.getTitle())) {
+                matches.add(r);
+            }
+        }
+
+        List<WriteJournal.Entry> entries = new ArrayList<>();
+        for (Reminder r : matches) {
+            entries.add(entry(J_UPDATE, r.getId(), newDate.toString(), newTitle, newDescription, newTime));
+        }
+        record(entries, () -> {
+            for (Reminder r : matches) snapshot.updateReminder(r, newDate, newTitle, newDescription, newTime);
+        });
+    }
+
+    @Override
+    public List<BulkResult> addReminders(List<Reminder> reminders) throws ExecutionException {
+        List<BulkResult> results = new ArrayList<>(reminders.size());
+        List<Reminder> created = new ArrayList<>();
+        List<WriteJournal.Entry> entries = new ArrayList<>();
+
+        for (int i = 0; i < reminders.size(); i++) {
+            Reminder r = reminders.get(i);
+            try {
+                Reminder copy = new Reminder(r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime());
+                copy.setId(r.getId() != null ? r.getId() : newId());
+                copy.setSeriesId(r.getSeriesId());
+                copy.setOriginalDate(r.getOriginalDate());
+                created.add(copy);
+                entries.add(added(copy));
+                results.add(BulkResult.success(i, copy.getId()));
+            } catch (RuntimeException e) {
+                results.add(BulkResult.failure(i, r == null ? null : r.getId(), e));
+            }
+        }
+        record(entries, () -> snapshot.addReminders(created));
+        return results;
+    }
+
+    @Override
+    public List<BulkResult> updateReminders(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        return recordEach(reminders, true,
+                r -> {
+                    LocalDate.parse(r.getDate()); // fails the item, as the remote store would
+                    return entry(J_UPDATE, r.getId(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime());
+                },
+                snapshot::updateReminders);
+    }
+
+    @Override
+    public List<BulkResult> moveReminders(List<Reminder> reminders, LocalDate newDate)
+            throws ExecutionException, InterruptedException {
+        Objects.requireNonNull(newDate, "newDate");
+        return recordEach(reminders, true,
+                r -> entry(J_MOVE, r.getId(), newDate.toString(), r.getTime()),
+                valid -> snapshot.moveReminders(valid, newDate));
+    }
+
+    // Deleting a reminder that is already gone succeeds without a journal entry
+    @Override
+    public List<BulkResult> deleteReminders(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        return recordEach(reminders, false, r -> entry(J_DELETE, r.getId()), snapshot::deleteReminders);
+    }
+
+    @Override
+    public void addSeries(Reminder series) throws ExecutionException {
+        Reminder stored = new Reminder(series.getUsername(), series.getDate(),
+                series.getTitle(), series.getDescription(), series.getTime());
+        stored.setId(series.getId() != null ? series.getId() : newId());
+        stored.setRecurrence(Recurrence.parse(series.getRecurrence()).toRule());
+        stored.setExceptions(series.getExceptions() == null ? new ArrayList<>() : new ArrayList<>(series.getExceptions()));
+
+        record(List.of(entry(J_PUT_SERIES, stored.getId(), stored.getUsername(), stored.getDate(),
+                        stored.getTitle(), stored.getDescription(), stored.getTime(),
+                        stored.getRecurrence(), String.join(",", stored.getExceptions()))),
+                () -> snapshot.addSeries(stored));
+    }
+
+    @Override
+    public void updateSeries(String seriesId,
+                             String newTitle,
+                             String newDescription,
+                             String newTime,
+                             String newRecurrence)
+            throws ExecutionException {
+
+        String rule = Recurrence.parse(newRecurrence).toRule();
+        record(List.of(entry(J_UPDATE_SERIES, seriesId, newTitle, newDescription, newTime, rule)),
+                () -> snapshot.updateSeries(seriesId, newTitle, newDescription, newTime, rule));
+    }
+
+    @Override
+    public void deleteSeries(String seriesId) throws ExecutionException {
+        record(List.of(entry(J_DELETE_SERIES, seriesId)), () -> snapshot.deleteSeries(seriesId));
+    }
+
+    @Override
+    public void skipOccurrence(Reminder occurrence) throws ExecutionException {
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        record(List.of(skipped(occurrence)), () -> snapshot.skipOccurrence(occurrence));
+    }
+
+    // Journaled as a skip plus an add with a fixed id, so that replaying it twice is harmless
+    @Override
+    public void overrideOccurrence(Reminder occurrence,
+                                   LocalDate newDate,
+                                   String newTitle,
+                                   String newDescription,
+                                   String newTime)
+            throws ExecutionException {
+
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        Reminder edited = new Reminder(occurrence.getUsername(), newDate.toString(), newTitle, newDescription, newTime);
+        edited.setId(newId());
+        edited.setSeriesId(occurrence.getSeriesId());
+        edited.setOriginalDate(occurrence.getDate());
+
+        record(List.of(skipped(occurrence), added(edited)), () -> {
+            snapshot.skipOccurrence(occurrence);
+            snapshot.addReminders(List.of(edited));
+        });
+    }
+
+    // READS AND LISTENERS
+
+    @Override
+    public List<Reminder> getRemindersForDate(String username, LocalDate date)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getRemindersForDate(username, date),
+                (follow, list) -> keepRange(follow, date, date, list));
+    }
+
+    @Override
+    public List<Reminder> getRemindersForMonth(String username, YearMonth ym)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getRemindersForMonth(username, ym),
+                (follow, list) -> keepRange(follow, ym.atDay(1), ym.atEndOfMonth(), list));
+    }
+
+    @Override
+    public NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username,
+                                                                       LocalDate from,
+                                                                       LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getRemindersForRange(username, from, to), (follow, byDay) -> {
+            List<Reminder> list = new ArrayList<>();
+            byDay.values().forEach(list::addAll);
+            keepRange(follow, from, to, list);
+        });
+    }
+
+    // Headers, summaries and pages are not whole ranges of whole reminders, so they are not
+    // kept; offline they come from whatever the snapshot holds
+
+    @Override
+    public NavigableMap<LocalDate, List<ReminderHeader>> getReminderHeadersForRange(String username,
+                                                                                  LocalDate from,
+                                                                                  LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getReminderHeadersForRange(username, from, to), null);
+    }
+
+    @Override
+    public NavigableMap<YearMonth, MonthSummary> getMonthSummaries(String username, YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getMonthSummaries(username, from, to), null);
+    }
+
+    @Override
+    public List<Reminder> getUpcomingReminders(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getUpcomingReminders(username, after, limit), null);
+    }
+
+    @Override
+    public List<Reminder> getRemindersPage(String username, long fromMinute, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getRemindersPage(username, fromMinute, after, limit), null);
+    }
+
+    @Override
+    public List<Reminder> getSearchEntriesPage(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getSearchEntriesPage(username, after, limit), null);
+    }
+
+    @Override
+    public List<Reminder> getSeries(String username) throws ExecutionException, InterruptedException {
+        return read(username, store -> store.getSeries(username), this::keepSeries);
+    }
+
+    // A reminder's owner never changes, so a copy in the snapshot answers; anything else is asked remotely
+    @Override
+    public String getOwner(String id) throws ExecutionException, InterruptedException {
+        Reminder mine = snapshot.find(id);
+        return mine != null ? mine.getUsername() : remote.getOwner(id);
+    }
+
+    // Same, with one remote read for all the ids the snapshot does not have
+    @Override
+    public Map<String, String> getOwners(Collection<String> ids) throws ExecutionException, InterruptedException {
+        Map<String, String> owners = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String id : ids) {
+            Reminder mine = id == null ? null : snapshot.find(id);
+            if (mine != null) owners.put(id, mine.getUsername());
+            else if (id != null) unknown.add(id);
+        }
+        if (!unknown.isEmpty()) owners.putAll(remote.getOwners(unknown));
+        return owners;
+    }
+
+    // Served by the snapshot once the range's remote listener has brought it up to date
+    @Override
+    public Subscription listenToRange(String username, LocalDate from, LocalDate to, ChangeListener listener) {
+        return watching(username, new Span(from, to, false), () -> snapshot.listenToRange(username, from, to, listener));
+    }
+
+    // Remote summaries only; local writes reload the grids themselves
+    @Override
+    public Subscription listenToMonthSummaries(String username, YearMonth from, YearMonth to, Runnable onChange) {
+        return remote.listenToMonthSummaries(username, from, to, onChange);
+    }
+
+    // The caller asked for everything, so everything is kept while it listens
+    @Override
+    public Subscription listenToAll(String username, ChangeListener listener) {
+        return watching(username, new Span(LocalDate.MIN, LocalDate.MAX, true),
+                () -> snapshot.listenToAll(username, listener));
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            for (Follow follow : followed.values()) follow.watches.values().forEach(Watch::stop);
+            notifyAll();
+        }
+        sweeper.shutdownNow();
+        replayer.interrupt();
+        try {
+            replayer.join(REMOTE_READ_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        snapshot.close();
+    }
+
+    // From the remote store once the journal has gone out, keeping what the result says about
+    // the snapshot's ranges; from the snapshot while the remote store is down or if it does not
+    // answer (or take the journal) in time
+    private <T> T read(String username, StoreRead<T> read, Keep<T> keep) throws ExecutionException, InterruptedException {
+        Follow follow = follow(username);
+        if (System.nanoTime() - skipRemoteUntil < 0) return read.from(snapshot);
+        if (!awaitReplay(REMOTE_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) return read.from(snapshot);
+
+        CompletableFuture<T> future = Database.supplyAsync(() -> read.from(remote));
+        try {
+            T result = future.get(REMOTE_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            markOnline();
+            if (keep != null) keep(follow, keep, result);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            markOffline(e);
+        } catch (ExecutionException e) {
+            if (!Database.isUnavailable(e.getCause())) {
+                throw e.getCause() instanceof ExecutionException inner ? inner : e;
+            }
+            markOffline(e.getCause());
+        }
+        return read.from(snapshot);
+    }
+
+    private synchronized <T> void keep(Follow follow, Keep<T> keep, T result) {
+        if (closed || followed.get(follow.username) != follow) return; // released meanwhile
+        try {
+            keep.into(follow, result);
+        } catch (ExecutionException | RuntimeException e) {
+            warn("Offline copy of " + follow.username + "'s reminders not updated", e); // only the copy is behind
+        }
+    }
+
+    // Journals the entries with one fsync, then shows the change in the snapshot and wakes the replayer
+    private synchronized void record(List<WriteJournal.Entry> entries, SnapshotWrite write) throws ExecutionException {
+        if (entries.isEmpty()) return;
+
+        try {
+            for (WriteJournal.Entry e : entries) journal.write(e.op(), e.fields());
+            journal.sync();
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+        entries.forEach(this::pin);
+
+        try {
+            write.apply();
+        } catch (ExecutionException | RuntimeException e) {
+            // The change is journaled; the next read or listener brings the snapshot back in line
+            warn("Offline copy not updated", e);
+        }
+        notifyAll();
+    }
+
+    // One entry per reminder the remote store would take; the others fail as they would there.
+    // Reminders that are not stored fail if mustExist, and succeed with nothing to send if not.
+    private List<BulkResult> recordEach(List<Reminder> reminders,
+                                        boolean mustExist,
+                                        Function<Reminder, WriteJournal.Entry> toEntry,
+                                        Function<List<Reminder>, List<BulkResult>> snapshotWrite)
+            throws ExecutionException, InterruptedException {
+
+        Map<String, String> owners = owners(reminders);
+        List<BulkResult> results = new ArrayList<>(reminders.size());
+        List<Reminder> valid = new ArrayList<>();
+        List<WriteJournal.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < reminders.size(); i++) {
+            Reminder r = reminders.get(i);
+            if (r == null || r.getId() == null) {
+                results.add(BulkResult.failure(i, null, new IllegalArgumentException("Reminder has no id")));
+                continue;
+            }
+            String owner = owners.get(r.getId());
+            if (owner == null) {
+                results.add(mustExist
+                        ? BulkResult.failure(i, r.getId(), new IllegalArgumentException("No reminder with id " + r.getId()))
+                        : BulkResult.success(i, r.getId()));
+                continue;
+            }
+            if (r.getUsername() != null && !r.getUsername().equals(owner)) {
+                results.add(BulkResult.failure(i, r.getId(), new IllegalArgumentException("Reminder belongs to another user")));
+                continue;
+            }
+            try {
+                entries.add(toEntry.apply(r));
+            } catch (RuntimeException e) {
+                results.add(BulkResult.failure(i, r.getId(), e));
+                continue;
+            }
+            valid.add(r);
+            results.add(BulkResult.success(i, r.getId()));
+        }
+        record(entries, () -> {
+            for (BulkResult result : snapshotWrite.apply(valid)) {
+                if (!result.isSuccess()) warn("Offline copy of " + result.getId() + " not updated", result.getError());
+            }
+        });
+        return results;
+    }
+
+    // Owners of the stored reminders among these. The snapshot answers for the ids it holds and
+    // for those with changes outstanding (no copy means deleted here); the remote store, in one
+    // read, for the rest while it is reachable. Offline the rest count as not stored.
+    private Map<String, String> owners(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        Map<String, String> owners = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        synchronized (this) {
+            for (Reminder r : reminders) {
+                if (r == null || r.getId() == null) continue;
+                Reminder mine = snapshot.find(r.getId());
+                if (mine != null) owners.put(r.getId(), mine.getUsername());
+                else if (!pinned.containsKey(r.getId())) unknown.add(r.getId());
+            }
+        }
+        if (unknown.isEmpty() || System.nanoTime() - skipRemoteUntil < 0) return owners;
+
+        CompletableFuture<Map<String, String>> future = Database.supplyAsync(() -> remote.getOwners(unknown));
+        try {
+            owners.putAll(future.get(REMOTE_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            markOnline();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            markOffline(e);
+        } catch (ExecutionException e) {
+            if (!Database.isUnavailable(e.getCause())) {
+                throw e.getCause() instanceof ExecutionException inner ? inner : e;
+            }
+            markOffline(e.getCause());
+        }
+        return owners;
+    }
+
+    private static WriteJournal.Entry entry(byte op, String... fields) {
+        return new WriteJournal.Entry(op, fields);
+    }
+
+    private static WriteJournal.Entry added(Reminder r) {
+        return entry(J_ADD, r.getId(), r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime(),
+                r.getSeriesId(), r.getOriginalDate());
+    }
+
+    private static WriteJournal.Entry skipped(Reminder occurrence) {
+        return entry(J_SKIP, occurrence.getSeriesId(), occurrence.getUsername(), occurrence.getDate(),
+                occurrence.getTime(), occurrence.getRecurrence());
+    }
+
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+
+    private void pin(WriteJournal.Entry e) {
+        pinned.merge(e.fields()[0], 1, Integer::sum);
+    }
+
+    private void unpin(WriteJournal.Entry e) {
+        pinned.computeIfPresent(e.fields()[0], (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void markOnline() {
+        if (!online) System.out.println("🔌 Firestore reachable again");
+        online = true;
+        skipRemoteUntil = System.nanoTime();
+    }
+
+    private void markOffline(Throwable cause) {
+        if (online) {
+            System.out.println("📴 Firestore unreachable (" + cause + "); changes are kept in the offline journal");
+        }
+        online = false;
+        skipRemoteUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_RETRY_MILLIS);
+    }
+
+    // REPLAY
+
+    private void replayLoop() {
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (true) {
+            List<WriteJournal.Entry> run;
+            synchronized (this) {
+                try {
+                    while (!closed && journal.size() == 0) wait();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+                run = nextRun(journal.peek(REPLAY_BATCH));
+            }
+
+            boolean[] rejected = {false};
+            int done = send(run, rejected);
+            if (done > 0) {
+                acknowledge(done);
+                if (rejected[0]) resync();
+                retryMillis = MIN_RETRY_MILLIS;
+            }
+            if (done < run.size()) {
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+            }
+        }
+    }
+
+    // The longest prefix that can go out as one bulk call: same op (and target date for moves),
+    // no reminder twice; series changes go one at a time
+    private static List<WriteJournal.Entry> nextRun(List<WriteJournal.Entry> head) {
+        WriteJournal.Entry first = head.get(0);
+        if (!isBulk(first.op())) return head.subList(0, 1);
+
+        Set<String> ids = new HashSet<>();
+        int end = 0;
+        while (end < head.size()) {
+            WriteJournal.Entry e = head.get(end);
+            if (e.op() != first.op() || !ids.add(e.fields()[0])) break;
+            if (e.op() == J_MOVE && !e.fields()[1].equals(first.fields()[1])) break;
+            end++;
+        }
+        return head.subList(0, end);
+    }
+
+    private static boolean isBulk(byte op) {
+        return op == J_ADD || op == J_UPDATE || op == J_MOVE || op == J_DELETE;
+    }
+
+    // Sends a run and returns how many of its entries are done with, sent or rejected for good,
+    // before the first one that has to wait for the connection
+    private int send(List<WriteJournal.Entry> run, boolean[] rejected) {
+        byte op = run.get(0).op();
+        try {
+            if (!isBulk(op)) {
+                sendOne(run.get(0));
+                markOnline();
+                return 1;
+            }
+
+            int done = 0;
+            for (BulkResult result : sendBulk(op, run)) {
+                if (!result.isSuccess()) {
+                    if (Database.isUnavailable(result.getError())) {
+                        markOffline(result.getError());
+                        break;
+                    }
+                    reject(run.get(done), result.getError());
+                    rejected[0] = true;
+                }
+                done++;
+            }
+            if (done > 0) markOnline();
+            return done;
+        } catch (InterruptedException e) {
+            return 0;
+        } catch (ExecutionException | RuntimeException e) {
+            if (Database.isUnavailable(e)) {
+                markOffline(e);
+                return 0;
+            }
+            for (WriteJournal.Entry entry : run) reject(entry, e);
+            rejected[0] = true;
+            return run.size();
+        }
+    }
+
+    private List<BulkResult> sendBulk(byte op, List<WriteJournal.Entry> run)
+            throws ExecutionException, InterruptedException {
+
+        List<Reminder> reminders = new ArrayList<>(run.size());
+        for (WriteJournal.Entry e : run) {
+            String[] f = e.fields();
+            Reminder r;
+            if (op == J_ADD) {
+                r = new Reminder(f[1], f[2], f[3], f[4], f[5]);
+                r.setSeriesId(f[6]);
+                r.setOriginalDate(f[7]);
+            } else {
+                // Updates, moves and deletes only read the id and the fields they change
+                r = new Reminder();
+                if (op == J_UPDATE) {
+                    r.setDate(f[1]);
+                    r.setTitle(f[2]);
+                    r.setDescription(f[3]);
+                    r.setTime(f[4]);
+                } else if (op == J_MOVE) {
+                    r.setTime(f[2]);
+                }
+            }
+            r.setId(f[0]);
+            reminders.add(r);
+        }
+
+        if (op == J_ADD) return remote.addReminders(reminders);
+        if (op == J_UPDATE) return remote.updateReminders(reminders);
+        if (op == J_MOVE) return remote.moveReminders(reminders, LocalDate.parse(run.get(0).fields()[1]));
+        return remote.deleteReminders(reminders);
+    }
+
+    private void sendOne(WriteJournal.Entry e) throws ExecutionException, InterruptedException {
+        String[] f = e.fields();
+        if (e.op() == J_PUT_SERIES) {
+            Reminder series = new Reminder(f[1], f[2], f[3], f[4], f[5]);
+            series.setId(f[0]);
+            series.setRecurrence(f[6]);
+            List<String> exceptions = new ArrayList<>();
+            if (f[7] != null && !f[7].isEmpty()) exceptions.addAll(List.of(f[7].split(",")));
+            series.setExceptions(exceptions);
+            remote.addSeries(series);
+        } else if (e.op() == J_UPDATE_SERIES) {
+            remote.updateSeries(f[0], f[1], f[2], f[3], f[4]);
+        } else if (e.op() == J_DELETE_SERIES) {
+            remote.deleteSeries(f[0]);
+        } else if (e.op() == J_SKIP) {
+            Reminder occurrence = new Reminder();
+            occurrence.setSeriesId(f[0]);
+            occurrence.setUsername(f[1]);
+            occurrence.setDate(f[2]);
+            occurrence.setTime(f[3]);
+            occurrence.setRecurrence(f[4]);
+            remote.skipOccurrence(occurrence);
+        }
+    }
+
+    // Keeps a refused change where the user can see it, then lets it be dropped
+    private void reject(WriteJournal.Entry entry, Throwable error) {
+        Rejection rejection = new Rejection(LocalDateTime.now(), entry.fields()[0], change(entry.op()), reason(error));
+        System.out.println("⚠ Firestore rejected an offline change (" + rejection + "); it is dropped");
+        synchronized (this) {
+            rejections.addLast(rejection);
+            if (rejections.size() > MAX_REJECTIONS) rejections.removeFirst();
+        }
+        try {
+            rejectionListener.accept(rejection);
+        } catch (RuntimeException e) {
+            warn("Rejection listener failed", e);
+        }
+    }
+
+    private static String change(byte op) {
+        return switch (op) {
+            case J_ADD -> "add";
+            case J_UPDATE -> "update";
+            case J_MOVE -> "move";
+            case J_DELETE -> "delete";
+            case J_PUT_SERIES -> "series add";
+            case J_UPDATE_SERIES -> "series update";
+            case J_DELETE_SERIES -> "series delete";
+            case J_SKIP -> "occurrence skip";
+            default -> "change";
+        };
+    }
+
+    // The innermost message, without the ExecutionException wrappers
+    private static String reason(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof ExecutionException && cause.getCause() != null) cause = cause.getCause();
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static void warn(String what, Throwable e) {
+        System.out.println("⚠ " + what + ": " + reason(e));
+    }
+
+    private synchronized void acknowledge(int count) {
+        List<WriteJournal.Entry> done = journal.peek(count);
+        try {
+            journal.acknowledge(count);
+        } catch (IOException e) {
+            warn("Offline journal not trimmed", e); // they will be sent again after a restart, which is harmless
+        }
+        done.forEach(this::unpin);
+        notifyAll();
+    }
+
+    // FOLLOWED USERS
+
+    // What the snapshot holds of one user: recent read results and the ranges watched now
+    private final class Follow {
+        private final String username;
+
+        // Guarded by the store lock; a user with no watches is released once idle
+        private final Map<Span, Watch> watches = new HashMap<>();
+        private long lastUsed = System.nanoTime();
+        private boolean seriesLoading = false;
+        private boolean seriesStale = false;
+
+        Follow(String username) {
+            this.username = username;
+        }
+    }
+
+    // A watched range; all is listenToAll's everything, series unexpanded
+    private record Span(LocalDate from, LocalDate to, boolean all) {
+        boolean contains(Reminder r) {
+            LocalDate date = LocalDate.parse(r.getDate());
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+    }
+
+    // The remote listener on one span of a user, shared by every snapshot listener on it
+    private final class Watch {
+        private final Follow follow;
+        private final Span span;
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        private Subscription subscription;
+        private int listeners = 0;
+
+        Watch(Follow follow, Span span) {
+            this.follow = follow;
+            this.span = span;
+        }
+
+        // The first change set is the span's complete remote contents. Listeners are opened on
+        // the snapshot once it is in, straight away while offline, or when it is late.
+        void start() {
+            if (System.nanoTime() - skipRemoteUntil < 0) ready.complete(null);
+            ready.completeOnTimeout(null, REMOTE_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            boolean[] first = {true};
+            ChangeListener apply = (upserted, removedIds) -> {
+                markOnline();
+                synchronized (OfflineReminderStore.this) {
+                    if (closed || follow.watches.get(span) != this) return;
+                    try {
+                        if (span.all()) {
+                            if (first[0]) reconcile(follow.username, upserted);
+                            else applyRemote(upserted, removedIds);
+                        } else if (first[0]) {
+                            keepRange(follow, span.from(), span.to(), upserted);
+                        } else {
+                            applyRangeChanges(follow, span, upserted, removedIds);
+                        }
+                    } catch (ExecutionException | RuntimeException e) {
+                        warn("Offline copy of " + follow.username + "'s reminders not updated", e);
+                    }
+                    first[0] = false;
+                }
+                ready.complete(null);
+            };
+            subscription = span.all()
+                    ? remote.listenToAll(follow.username, apply)
+                    : remote.listenToRange(follow.username, span.from(), span.to(), apply);
+        }
+
+        void stop() {
+            if (subscription != null) subscription.cancel();
+            subscription = null;
+        }
+    }
+
+    private synchronized Follow follow(String username) {
+        Follow follow = followed.computeIfAbsent(username, Follow::new);
+        follow.lastUsed = System.nanoTime();
+        return follow;
+    }
+
+    // A snapshot subscription that keeps the span's remote listener running while it is open
+    private Subscription watching(String username, Span span, Supplier<Subscription> listen) {
+        Watch watch;
+        synchronized (this) {
+            Follow follow = follow(username);
+            watch = follow.watches.get(span);
+            if (watch == null) {
+                watch = new Watch(follow, span);
+                follow.watches.put(span, watch);
+                if (!closed) watch.start();
+            }
+            watch.listeners++;
+        }
+        CompletableFuture<Subscription> opened = watch.ready.thenApply(ignored -> listen.get());
+        Watch held = watch;
+        boolean[] cancelled = {false};
+        return () -> {
+            opened.thenAccept(Subscription::cancel);
+            synchronized (this) {
+                if (cancelled[0]) return;
+                cancelled[0] = true;
+                held.follow.lastUsed = System.nanoTime();
+                if (--held.listeners > 0) return;
+                held.stop();
+                held.follow.watches.remove(held.span);
+            }
+        };
+    }
+
+    // Drops users nobody has read or listened to for a while from the snapshot (a long-running
+    // service would otherwise keep every user it ever served in memory)
+    private synchronized void releaseIdleUsers() {
+        long now = System.nanoTime();
+        followed.values().removeIf(follow -> {
+            boolean idle = follow.watches.isEmpty()
+                    && now - follow.lastUsed > TimeUnit.MILLISECONDS.toNanos(FOLLOW_IDLE_MILLIS);
+            if (idle) evict(follow.username);
+            return idle;
+        });
+    }
+
+    // Removes a user's reminders and series from the snapshot, except those with journal
+    // entries outstanding
+    private void evict(String username) {
+        try {
+            List<Reminder> reminders = new ArrayList<>();
+            for (Reminder r : snapshot.storedReminders(username)) {
+                if (!pinned.containsKey(r.getId())) reminders.add(r);
+            }
+            snapshot.deleteReminders(reminders);
+            for (Reminder series : snapshot.getSeries(username)) {
+                if (!pinned.containsKey(series.getId())) snapshot.deleteSeries(series.getId());
+            }
+        } catch (ExecutionException | RuntimeException e) {
+            warn("Offline copy of " + username + "'s reminders not released", e);
+        }
+    }
+
+    // After a rejected change the snapshot may show something the remote store never took;
+    // fresh remote listeners compare their ranges again
+    private synchronized void resync() {
+        for (Follow follow : followed.values()) {
+            for (Watch watch : follow.watches.values()) {
+                watch.stop();
+                watch.start();
+            }
+        }
+    }
+
+    // Makes the snapshot's copy of [from, to] match a remote read or listener's contents for it.
+    // Occurrences in the contents that the snapshot's series do not produce mean the series changed.
+    private void keepRange(Follow follow, LocalDate from, LocalDate to, List<Reminder> contents)
+            throws ExecutionException {
+
+        Set<String> present = new HashSet<>();
+        Set<String> occurrences = new HashSet<>();
+        List<Reminder> stored = new ArrayList<>();
+        boolean seriesChanged = false;
+        for (Reminder r : contents) {
+            if (r.isOccurrence()) {
+                occurrences.add(r.getId());
+                seriesChanged |= !matchesSeries(r);
+            } else {
+                present.add(r.getId());
+                stored.add(r);
+            }
+        }
+
+        Set<String> expected = new HashSet<>();
+        List<String> gone = new ArrayList<>();
+        for (List<Reminder> day : snapshot.getRemindersForRange(follow.username, from, to).values()) {
+            for (Reminder r : day) {
+                if (r.isOccurrence()) expected.add(r.getId());
+                else if (!present.contains(r.getId())) gone.add(r.getId());
+            }
+        }
+        applyRemote(stored, gone);
+        if (seriesChanged || !expected.equals(occurrences)) loadSeries(follow);
+    }
+
+    // Later changes from a range listener. A removal may only mean the reminder moved out of
+    // the range, so the snapshot's copy goes only if it is still dated inside it.
+    private void applyRangeChanges(Follow follow, Span span, List<Reminder> upserted, List<String> removedIds)
+            throws ExecutionException {
+
+        boolean seriesChanged = false;
+        List<Reminder> stored = new ArrayList<>();
+        for (Reminder r : upserted) {
+            if (r.isOccurrence()) seriesChanged |= !matchesSeries(r);
+            else stored.add(r);
+        }
+        List<String> gone = new ArrayList<>();
+        for (String id : removedIds) {
+            Reminder mine = snapshot.find(id);
+            if (mine == null) {
+                seriesChanged |= isOccurrenceId(id); // an occurrence went: skipped, or its series changed
+            } else if (!isSeries(mine) && span.contains(mine)) {
+                gone.add(id);
+            }
+        }
+        applyRemote(stored, gone);
+        if (seriesChanged) loadSeries(follow);
+    }
+
+    // Replaces the snapshot's series of a user with the remote ones
+    private void keepSeries(Follow follow, List<Reminder> series) throws ExecutionException {
+        Set<String> present = new HashSet<>();
+        for (Reminder r : series) present.add(r.getId());
+
+        List<String> gone = new ArrayList<>();
+        for (Reminder mine : snapshot.getSeries(follow.username)) {
+            if (!present.contains(mine.getId())) gone.add(mine.getId());
+        }
+        applyRemote(series, gone);
+    }
+
+    // Reads the user's series in the background; asked again while loading, it reads once more after
+    private void loadSeries(Follow follow) {
+        if (follow.seriesLoading) {
+            follow.seriesStale = true;
+            return;
+        }
+        follow.seriesLoading = true;
+        Database.supplyAsync(() -> remote.getSeries(follow.username)).whenComplete((series, e) -> {
+            synchronized (this) {
+                follow.seriesLoading = false;
+                if (e != null) {
+                    warn("Series of " + follow.username + " not reloaded", e);
+                    return;
+                }
+                keep(follow, this::keepSeries, series);
+                if (follow.seriesStale) {
+                    follow.seriesStale = false;
+                    loadSeries(follow);
+                }
+            }
+        });
+    }
+
+    // The snapshot has the occurrence's series with the same text, time and rule
+    private boolean matchesSeries(Reminder occurrence) {
+        Reminder series = snapshot.find(occurrence.getSeriesId());
+        return series != null
+                && Objects.equals(series.getTitle(), occurrence.getTitle())
+                && Objects.equals(series.getDescription(), occurrence.getDescription())
+                && Objects.equals(series.getTime(), occurrence.getTime())
+                && Objects.equals(series.getRecurrence(), occurrence.getRecurrence());
+    }
+
+    // Occurrence ids are the series id and the date (see SeriesExpansion.occurrenceId)
+    private boolean isOccurrenceId(String id) {
+        int cut = id.lastIndexOf('_');
+        return cut > 0 && snapshot.find(id.substring(0, cut)) != null;
+    }
+
+    // Makes the snapshot's copy of a user match the remote contents
+    private void reconcile(String username, List<Reminder> contents) throws ExecutionException {
+        Set<String> present = new HashSet<>();
+        for (Reminder r : contents) present.add(r.getId());
+
+        List<String> gone = new ArrayList<>();
+        for (Reminder r : snapshot.storedReminders(username)) {
+            if (!present.contains(r.getId())) gone.add(r.getId());
+        }
+        for (Reminder series : snapshot.getSeries(username)) {
+            if (!present.contains(series.getId())) gone.add(series.getId());
+        }
+        applyRemote(contents, gone);
+    }
+
+    // Copies remote changes into the snapshot, leaving out ids with journal entries outstanding
+    // and anything the snapshot already has as it is
+    private void applyRemote(List<Reminder> upserted, List<String> removedIds) throws ExecutionException {
+        List<Reminder> reminders = new ArrayList<>();
+        for (Reminder r : upserted) {
+            if (pinned.containsKey(r.getId())) continue;
+            Reminder mine = snapshot.find(r.getId());
+            if (mine != null && sameContent(mine, r)) continue;
+
+            if (isSeries(r)) {
+                snapshot.addSeries(r);
+            } else {
+                reminders.add(r);
+            }
+        }
+        if (!reminders.isEmpty()) snapshot.addReminders(reminders);
+
+        List<Reminder> removed = new ArrayList<>();
+        for (String id : removedIds) {
+            if (pinned.containsKey(id)) continue;
+            Reminder mine = snapshot.find(id);
+            if (mine == null) continue;
+
+            if (isSeries(mine)) {
+                snapshot.deleteSeries(id);
+            } else {
+                removed.add(mine);
+            }
+        }
+        if (!removed.isEmpty()) snapshot.deleteReminders(removed);
+    }
+
+    private static boolean isSeries(Reminder r) {
+        return r.getRecurrence() != null && r.getSeriesId() == null;
+    }
+
+    private static boolean sameContent(Reminder a, Reminder b) {
+        return Objects.equals(a.getUsername(), b.getUsername())
+                && Objects.equals(a.getDate(), b.getDate())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getTime(), b.getTime())
+                && Objects.equals(a.getSeriesId(), b.getSeriesId())
+                && Objects.equals(a.getOriginalDate(), b.getOriginalDate())
+                && Objects.equals(a.getRecurrence(), b.getRecurrence())
+                && Objects.equals(exceptionsOf(a), exceptionsOf(b));
+    }
+
+    private static List<String> exceptionsOf(Reminder r) {
+        return r.getExceptions() == null ? List.of() : r.getExceptions();
+    }
+}
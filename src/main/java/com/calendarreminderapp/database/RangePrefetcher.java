@@ -0,0 +1,131 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads fetched ahead of navigation (the periods either side of the one on screen), held
+ * in a small LRU: grid headers for a range, month summaries for the month and year grids,
+ * or one day's reminders in full for the day view. Entries expire after
+ * {@link #MAX_AGE_MILLIS} since, unlike {@link ReminderCache}, they are not kept live.
+ * In-flight fetches that are no longer wanted are cancelled; one that has not started yet
+ * never runs.
+ */
+public class RangePrefetcher {
+
+    // What can be fetched ahead
+    public sealed interface Key permits Range, Months, Day {
+    }
+
+    // Grid headers of [from, to]
+    public record Range(LocalDate from, LocalDate to) implements Key {
+    }
+
+    // Summaries of [first, last]
+    public record Months(YearMonth first, YearMonth last) implements Key {
+    }
+
+    // Every reminder on one day, in full
+    public record Day(LocalDate date) implements Key {
+    }
+
+    static final int CAPACITY = 8;
+    static final long MAX_AGE_MILLIS = 60_000;
+
+    private record Entry(CompletableFuture<?> future, long startedAt) {
+        boolean expired(long now) {
+            return now - startedAt > MAX_AGE_MILLIS;
+        }
+    }
+
+    private final ReminderStore store;
+    private final String username;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= CAPACITY) return false;
+            eldest.getValue().future().cancel(false);
+            return true;
+        }
+    };
+
+    public RangePrefetcher(ReminderStore store, String username) {
+        this.store = store;
+        this.username = username;
+    }
+
+    // Starts fetching each key not already held, after cancelling in-flight fetches for anything else
+    public synchronized void prefetch(Collection<? extends Key> wanted) {
+        cancelExcept(wanted);
+
+        long now = System.currentTimeMillis();
+        for (Key key : wanted) {
+            Entry e = entries.get(key);
+            if (e != null && !e.expired(now) && !e.future().isCompletedExceptionally()) continue;
+
+            entries.put(key, new Entry(fetch(key), now));
+        }
+    }
+
+    private CompletableFuture<?> fetch(Key key) {
+        if (key instanceof Range r) return store.getReminderHeadersForRangeAsync(username, r.from(), r.to());
+        if (key instanceof Months m) return store.getMonthSummariesAsync(username, m.first(), m.last());
+        Day d = (Day) key;
+        return store.getRemindersForDateAsync(username, d.date());
+    }
+
+    // Fetch for exactly this range, finished or still running; null if there is none usable
+    @SuppressWarnings("unchecked")
+    public synchronized CompletableFuture<NavigableMap<LocalDate, List<ReminderHeader>>> lookup(Range range) {
+        return (CompletableFuture<NavigableMap<LocalDate, List<ReminderHeader>>>) find(range);
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized CompletableFuture<NavigableMap<YearMonth, MonthSummary>> lookup(Months months) {
+        return (CompletableFuture<NavigableMap<YearMonth, MonthSummary>>) find(months);
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized CompletableFuture<List<Reminder>> lookup(Day day) {
+        return (CompletableFuture<List<Reminder>>) find(day);
+    }
+
+    private CompletableFuture<?> find(Key key) {
+        Entry e = entries.get(key);
+        if (e == null) return null;
+
+        if (e.expired(System.currentTimeMillis()) || e.future().isCompletedExceptionally()) {
+            entries.remove(key);
+            return null;
+        }
+        return e.future();
+    }
+
+    // Cancels fetches still running for keys outside keep; finished entries stay cached
+    public synchronized void cancelExcept(Collection<? extends Key> keep) {
+        List<Key> cancelled = new ArrayList<>();
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            if (!keep.contains(e.getKey()) && !e.getValue().future().isDone()) {
+                e.getValue().future().cancel(false);
+                cancelled.add(e.getKey());
+            }
+        }
+        cancelled.forEach(entries::remove);
+    }
+
+    // Drops everything, e.g. after a write that any cached range might contain
+    public synchronized void clear() {
+        for (Entry e : entries.values()) {
+            e.future().cancel(false);
+        }
+        entries.clear();
+    }
+}
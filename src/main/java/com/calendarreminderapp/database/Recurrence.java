@@ -0,0 +1,207 @@
+package com.calendarreminderapp.database;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The subset of RFC 5545 RRULEs the app stores on a series:
+ * {@code FREQ=DAILY|WEEKLY|MONTHLY|YEARLY}, {@code INTERVAL}, {@code COUNT}, {@code UNTIL}
+ * and, for weekly rules, {@code BYDAY} with plain weekdays. Weeks start on Monday.
+ * Dates a rule would land on that do not exist (Feb 30, Feb 29 in common years) are
+ * skipped, as the RFC specifies.
+ *
+ * <p>Expansion is window-bounded: without COUNT the first candidate period is computed
+ * arithmetically from the window start, so expanding one month of a ten-year daily
+ * series costs about thirty steps, not thousands.
+ */
+public final class Recurrence {
+
+    public enum Frequency {DAILY, WEEKLY, MONTHLY, YEARLY}
+
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+    private final Set<DayOfWeek> byDay;
+
+    private Recurrence(Frequency frequency, int interval, Integer count, LocalDate until, Set<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    public static Recurrence of(Frequency frequency) {
+        return new Recurrence(frequency, 1, null, null, EnumSet.noneOf(DayOfWeek.class));
+    }
+
+    // Accepts the rule with or without a leading "RRULE:"; rejects parts it cannot honour
+    public static Recurrence parse(String rule) {
+        if (rule == null || rule.isBlank()) throw new IllegalArgumentException("Empty recurrence rule");
+
+        String body = rule.trim();
+        if (body.regionMatches(true, 0, "RRULE:", 0, 6)) body = body.substring(6);
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) continue;
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+
+            try {
+                switch (key) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value.substring(0, 8), UNTIL_DATE);
+                    case "BYDAY" -> {
+                        for (String code : value.split(",")) {
+                            byDay.add(dayOf(code));
+                        }
+                    }
+                    case "WKST" -> {
+                        if (!value.equals("MO")) throw new IllegalArgumentException("Unsupported WKST " + value);
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported rule part " + key);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Bad recurrence rule: " + rule, e);
+            }
+        }
+
+        if (frequency == null) throw new IllegalArgumentException("Recurrence rule has no FREQ: " + rule);
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new IllegalArgumentException("Bad recurrence rule: " + rule);
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported on weekly rules: " + rule);
+        }
+        return new Recurrence(frequency, interval, count, until, byDay);
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public String toRule() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) sb.append(";INTERVAL=").append(interval);
+        if (count != null) sb.append(";COUNT=").append(count);
+        if (until != null) sb.append(";UNTIL=").append(UNTIL_DATE.format(until));
+        if (!byDay.isEmpty()) {
+            sb.append(";BYDAY=");
+            String sep = "";
+            for (DayOfWeek d : byDay) {
+                sb.append(sep).append(DAY_CODES[d.getValue() - 1]);
+                sep = ",";
+            }
+        }
+        return sb.toString();
+    }
+
+    // Occurrence dates of a series first starting on start, within [from, to], ascending
+    public List<LocalDate> occurrences(LocalDate start, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        if (last.isBefore(start) || last.isBefore(from)) return dates;
+
+        // COUNT numbers occurrences from the series start, so those rules are walked from
+        // the beginning; the walk still ends at the window
+        long period = count != null ? 0 : Math.max(0, Math.floorDiv(periodsBetween(start, from), interval));
+        int seen = 0;
+
+        while (!periodStart(start, period).isAfter(last)) {
+            for (LocalDate d : candidates(start, period)) {
+                if (d.isBefore(start)) continue;
+                if (d.isAfter(last)) return dates;
+                if (count != null && ++seen > count) return dates;
+                if (!d.isBefore(from)) dates.add(d);
+            }
+            period++;
+        }
+        return dates;
+    }
+
+    private long periodsBetween(LocalDate start, LocalDate date) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(start, date);
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(start), weekStart(date));
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(date));
+            case YEARLY -> date.getYear() - start.getYear();
+        };
+    }
+
+    private LocalDate periodStart(LocalDate start, long period) {
+        long n = period * interval;
+        return switch (frequency) {
+            case DAILY -> start.plusDays(n);
+            case WEEKLY -> weekStart(start).plusWeeks(n);
+            case MONTHLY -> YearMonth.from(start).plusMonths(n).atDay(1);
+            case YEARLY -> LocalDate.of(start.getYear(), 1, 1).plusYears(n);
+        };
+    }
+
+    // Dates the rule produces in one period, ascending; invalid dates are dropped
+    private List<LocalDate> candidates(LocalDate start, long period) {
+        long n = period * interval;
+        switch (frequency) {
+            case DAILY:
+                return List.of(start.plusDays(n));
+            case WEEKLY: {
+                LocalDate monday = weekStart(start).plusWeeks(n);
+                if (byDay.isEmpty()) return List.of(monday.with(TemporalAdjusters.nextOrSame(start.getDayOfWeek())));
+
+                List<LocalDate> week = new ArrayList<>(byDay.size());
+                for (DayOfWeek d : byDay) {
+                    week.add(monday.plusDays(d.getValue() - 1));
+                }
+                return week;
+            }
+            case MONTHLY: {
+                YearMonth ym = YearMonth.from(start).plusMonths(n);
+                return ym.isValidDay(start.getDayOfMonth()) ? List.of(ym.atDay(start.getDayOfMonth())) : List.of();
+            }
+            default: {
+                int year = (int) (start.getYear() + n);
+                MonthDay md = MonthDay.from(start);
+                return md.isValidYear(year) ? List.of(md.atYear(year)) : List.of();
+            }
+        }
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code.trim())) return DayOfWeek.of(i + 1);
+        }
+        throw new IllegalArgumentException("Unsupported BYDAY value " + code);
+    }
+
+    @Override
+    public String toString() {
+        return toRule();
+    }
+}
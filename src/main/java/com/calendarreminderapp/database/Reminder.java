@@ -1,5 +1,9 @@
 package com.calendarreminderapp.database;
 
+import com.google.cloud.firestore.annotation.Exclude;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public class Reminder {
 
@@ -10,6 +14,19 @@ public class Reminder {
     private String description;
     private String time;
 
+    // Sortable start: wall-clock minutes since epoch (see ReminderTime)
+    private Long startMinute;
+
+    // Recurring series (stored in "reminderSeries"): RRULE and the ISO dates of removed occurrences.
+    // Expanded occurrences carry the series' rule too.
+    private String recurrence;
+    private List<String> exceptions;
+
+    // Occurrences and edited instances point back at their series; an edited instance also
+    // records which occurrence date it replaces
+    private String seriesId;
+    private String originalDate;
+
 
     public Reminder() {
     }
@@ -25,6 +42,7 @@ public class Reminder {
         this.title = title;
         this.description = description;
         this.time = time;
+        this.startMinute = ReminderTime.toStartMinute(LocalDate.parse(date), time);
     }
 
 
@@ -79,6 +97,70 @@ public class Reminder {
         this.time = time;
     }
 
+    public Long getStartMinute() {
+        return startMinute;
+    }
+
+    public void setStartMinute(Long startMinute) {
+        this.startMinute = startMinute;
+    }
+
+    public String getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(String recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public List<String> getExceptions() {
+        return exceptions;
+    }
+
+    public void setExceptions(List<String> exceptions) {
+        this.exceptions = exceptions;
+    }
+
+    public String getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(String seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public String getOriginalDate() {
+        return originalDate;
+    }
+
+    public void setOriginalDate(String originalDate) {
+        this.originalDate = originalDate;
+    }
+
+    // Derived values (not stored); fall back to the time string for unmigrated documents
+
+    @Exclude
+    public long getSortKey() {
+        if (startMinute != null) return startMinute;
+        return ReminderTime.toStartMinute(LocalDate.parse(date), time);
+    }
+
+    @Exclude
+    public int getMinuteOfDay() {
+        return ReminderTime.minuteOfDay(getSortKey());
+    }
+
+    @Exclude
+    public int getHour() {
+        return getMinuteOfDay() / 60;
+    }
+
+    // An occurrence expanded from a series; it has no document of its own
+    @Exclude
+    public boolean isOccurrence() {
+        return seriesId != null && recurrence != null;
+    }
+
     @Override
     public String toString() {
         return time + " — " + title;
@@ -0,0 +1,133 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Client-side copy of one user's reminders inside a date window, kept live by the
+ * store's range listener (a Firestore snapshot listener for the cloud backend).
+ * Changes are applied incrementally so views can read from memory, and writes from
+ * other sessions show up without a re-query.
+ */
+public class ReminderCache {
+
+    private static final Comparator<Reminder> CHRONOLOGICAL = Comparator.comparingLong(Reminder::getSortKey);
+
+    private final ReminderStore store;
+    private final String username;
+    private final ReminderStore.ChangeListener onChange;
+
+    private final Map<String, Reminder> byId = new HashMap<>();
+    private final NavigableMap<LocalDate, List<Reminder>> byDate = new TreeMap<>();
+
+    private ReminderStore.Subscription subscription;
+    private LocalDate windowFrom;
+    private LocalDate windowTo;
+    private boolean ready = false;
+
+    // Bumped on every re-anchor so late events from a removed listener are ignored
+    private long windowGeneration = 0;
+
+    /**
+     * @param onChange called on the store's callback thread with each change set once it is applied
+     */
+    public ReminderCache(ReminderStore store, String username, ReminderStore.ChangeListener onChange) {
+        this.store = store;
+        this.username = username;
+        this.onChange = onChange;
+    }
+
+    // Re-anchors the listener unless the current window already contains [from, to]
+    public synchronized void watch(LocalDate from, LocalDate to) {
+        if (watches(from, to)) return;
+
+        stopListening();
+        windowFrom = from;
+        windowTo = to;
+
+        long generation = ++windowGeneration;
+        subscription = store.listenToRange(username, from, to, (upserted, removedIds) -> {
+            if (apply(generation, upserted, removedIds)) {
+                onChange.onChanges(upserted, removedIds);
+            }
+        });
+    }
+
+    // Listener is attached for [from, to] (data may still be in flight)
+    public synchronized boolean watches(LocalDate from, LocalDate to) {
+        return windowFrom != null && !from.isBefore(windowFrom) && !to.isAfter(windowTo);
+    }
+
+    // Initial contents for [from, to] have arrived. Stores hand them over as one first change
+    // set once every underlying listener (reminders and series) has delivered its snapshot.
+    public synchronized boolean covers(LocalDate from, LocalDate to) {
+        return ready && watches(from, to);
+    }
+
+    // Copy of [from, to] grouped by day; safe to hand to the FX thread
+    public synchronized NavigableMap<LocalDate, List<Reminder>> getRange(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Reminder>> copy = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<Reminder>> e : byDate.subMap(from, true, to, true).entrySet()) {
+            copy.put(e.getKey(), new ArrayList<>(e.getValue()));
+        }
+        return copy;
+    }
+
+    public synchronized void close() {
+        stopListening();
+        windowFrom = null;
+        windowTo = null;
+    }
+
+    private void stopListening() {
+        windowGeneration++;
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+        byId.clear();
+        byDate.clear();
+        ready = false;
+    }
+
+    private synchronized boolean apply(long generation, List<Reminder> upserted, List<String> removedIds) {
+        if (generation != windowGeneration) return false;
+
+        for (Reminder r : upserted) {
+            remove(r.getId());
+            insert(r);
+        }
+        for (String id : removedIds) {
+            remove(id);
+        }
+        ready = true;
+        return true;
+    }
+
+    private void insert(Reminder r) {
+        byId.put(r.getId(), r);
+
+        List<Reminder> day = byDate.computeIfAbsent(LocalDate.parse(r.getDate()), d -> new ArrayList<>());
+        int pos = 0;
+        while (pos < day.size() && CHRONOLOGICAL.compare(day.get(pos), r) <= 0) pos++;
+        day.add(pos, r);
+    }
+
+    private void remove(String id) {
+        Reminder old = byId.remove(id);
+        if (old == null) return;
+
+        LocalDate date = LocalDate.parse(old.getDate());
+        List<Reminder> day = byDate.get(date);
+        if (day == null) return;
+
+        day.removeIf(r -> id.equals(r.getId()));
+        if (day.isEmpty()) byDate.remove(date);
+    }
+}
@@ -0,0 +1,34 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The part of a reminder a calendar grid shows: when it starts and its title. Read with a
+ * field projection (see {@link ReminderStore#getReminderHeadersForRange}), so descriptions
+ * and series fields are not fetched or mapped for days nobody has opened.
+ */
+public record ReminderHeader(String id, String date, String time, String title, long startMinute) {
+
+    public static final Comparator<ReminderHeader> CHRONOLOGICAL = Comparator.comparingLong(ReminderHeader::startMinute);
+
+    public static ReminderHeader of(Reminder r) {
+        return new ReminderHeader(r.getId(), r.getDate(), r.getTime(), r.getTitle(), r.getSortKey());
+    }
+
+    // Same days, same order
+    public static NavigableMap<LocalDate, List<ReminderHeader>> byDay(Map<LocalDate, List<Reminder>> reminders) {
+        NavigableMap<LocalDate, List<ReminderHeader>> byDay = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<Reminder>> day : reminders.entrySet()) {
+            List<ReminderHeader> headers = new ArrayList<>(day.getValue().size());
+            for (Reminder r : day.getValue()) headers.add(of(r));
+            byDay.put(day.getKey(), headers);
+        }
+        return byDay;
+    }
+}
@@ -0,0 +1,107 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * One-off migrations of reminders written before a field or document they now need existed:
+ * <ul>
+ *   <li>the numeric {@code startMinute} field, which queries filter and order on, so
+ *       documents without it are invisible until it is backfilled;</li>
+ *   <li>the month summary documents ({@link MonthSummaries}) the month and year views read,
+ *       which show zero counts until they are built (see {@link SummaryRebuild}).</li>
+ * </ul>
+ * {@link Database} runs them once per project on first connect, each recorded by its own
+ * marker in {@code meta/migrations}; both are safe to re-run by hand.
+ */
+public class ReminderMigration {
+
+    private static final int PAGE_SIZE = 400; // below Firestore's 500 writes per batch
+    private static final String MARKER_FIELD = "startMinuteBackfilled";
+    private static final String SUMMARIES_MARKER_FIELD = "monthSummariesBuilt";
+
+    // Runs whatever a previous run did not finish; a failed run is retried on the next connect.
+    // Summaries are built after the backfill, since the rebuild reads reminders by startMinute.
+    static void migrateOnce(Firestore db) {
+        try {
+            DocumentReference marker = db.collection("meta").document("migrations");
+            DocumentSnapshot done = marker.get().get();
+
+            if (!Boolean.TRUE.equals(done.getBoolean(MARKER_FIELD))) {
+                int updated = backfillStartMinutes(db);
+                marker.set(Map.of(MARKER_FIELD, true), SetOptions.merge()).get();
+                System.out.println("✅ Backfilled startMinute on " + updated + " reminder(s)");
+            }
+            if (!Boolean.TRUE.equals(done.getBoolean(SUMMARIES_MARKER_FIELD))) {
+                int users = SummaryRebuild.rebuildAll(db);
+                marker.set(Map.of(SUMMARIES_MARKER_FIELD, true), SetOptions.merge()).get();
+                System.out.println("✅ Built month summaries for " + users + " user(s)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static int backfillStartMinutes(Firestore db)
+            throws ExecutionException, InterruptedException {
+
+        CollectionReference remindersRef = db.collection("reminders");
+        int updated = 0;
+        QueryDocumentSnapshot last = null;
+
+        while (true) {
+            Query page = remindersRef.orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+            if (last != null) page = page.startAfter(last);
+
+            QuerySnapshot snapshot = page.get().get();
+            List<QueryDocumentSnapshot> docs = snapshot.getDocuments();
+            if (docs.isEmpty()) break;
+
+            WriteBatch batch = db.batch();
+            int pending = 0;
+            for (QueryDocumentSnapshot doc : docs) {
+                if (doc.contains("startMinute")) continue;
+
+                String date = doc.getString("date");
+                String time = doc.getString("time");
+                if (date == null || time == null) continue;
+
+                batch.update(doc.getReference(), "startMinute",
+                        ReminderTime.toStartMinute(LocalDate.parse(date), time));
+                pending++;
+            }
+            if (pending > 0) {
+                batch.commit().get();
+                updated += pending;
+            }
+
+            last = docs.get(docs.size() - 1);
+        }
+        return updated;
+    }
+
+    public static void main(String[] args) {
+        try {
+            int updated = backfillStartMinutes(Database.getFirestore());
+            System.out.println("✅ Backfilled startMinute on " + updated + " reminder(s)");
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
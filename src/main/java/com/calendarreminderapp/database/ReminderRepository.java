@@ -2,28 +2,74 @@ package com.calendarreminderapp.database;
 
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
 import com.google.cloud.firestore.Query;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 
-public class ReminderRepository {
+/*
+ * Firestore-backed ReminderStore. Every write to "reminders" commits together with the
+ * change to the user's month summaries (see MonthSummaries): a batch for new documents,
+ * a transaction when the stored document has to be read first.
+ */
+public class ReminderRepository implements ReminderStore {
 
+    // Most reminders per bulk transaction; a chunk closes earlier once its summary writes
+    // would take the commit past Firestore's limit
+    private static final int BULK_CHUNK_SIZE = 200;
+    static final int MAX_WRITES_PER_COMMIT = 500;
+    // A reminder write moves a count from one month's summary to another's at most
+    private static final int SUMMARY_WRITES_PER_ITEM = 2;
+
+    private final Firestore db;
     private final CollectionReference remindersRef;
+    private final CollectionReference seriesRef;
+
+    private interface BulkOp {
+        // current is the stored document (null for a new one); throws IllegalArgumentException to
+        // fail the item, before adding any write or summary change
+        void apply(Transaction tx, DocumentReference ref, Reminder reminder, DocumentSnapshot current,
+                   MonthSummaries.Delta delta);
+    }
+
+    // Applies the item at index i of a chunk; throws IllegalArgumentException to fail it
+    interface ItemWrite {
+        void apply(int i);
+    }
 
     public ReminderRepository() throws IOException {
-        Firestore db = Database.getFirestore();
+        this.db = Database.getFirestore();
         this.remindersRef = db.collection("reminders");
+        this.seriesRef = db.collection("reminderSeries");
     }
 
     // ADD REMINDER
+    @Override
     public void addReminder(String username,
                             LocalDate date,
                             String title,
@@ -39,82 +85,401 @@ public class ReminderRepository {
                 time
         );
 
-        remindersRef.add(reminder).get();
+        MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+        delta.add(reminder);
+
+        WriteBatch batch = db.batch();
+        batch.set(remindersRef.document(), reminder);
+        delta.writeTo(batch);
+        batch.commit().get();
     }
 
     // GET REMINDERS FOR DATE
+    @Override
     public List<Reminder> getRemindersForDate(String username, LocalDate date)
             throws ExecutionException, InterruptedException {
 
-        Query query = remindersRef
-                .whereEqualTo("username", username)
-                .whereEqualTo("date", date.toString());
+        return flatten(getRemindersForRange(username, date, date));
+    }
+
+    // GET REMINDERS FOR MONTH
+    @Override
+    public List<Reminder> getRemindersForMonth(String username, YearMonth ym)
+            throws ExecutionException, InterruptedException {
+
+        return flatten(getRemindersForRange(username, ym.atDay(1), ym.atEndOfMonth()));
+    }
 
-        QuerySnapshot snapshot = query.get().get();
+    // MONTH SUMMARIES: one summary document per month plus the series, all in flight at once
+    @Override
+    public NavigableMap<YearMonth, MonthSummary> getMonthSummaries(String username, YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException {
 
-        List<Reminder> list = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
-            Reminder r = doc.toObject(Reminder.class);
-            r.setId(doc.getId());
-            list.add(r);
+        List<DocumentReference> refs = new ArrayList<>();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            refs.add(MonthSummaries.ref(db, username, m));
         }
-        return list;
+        ApiFuture<List<DocumentSnapshot>> docs = db.getAll(refs.toArray(new DocumentReference[0]));
+        ApiFuture<QuerySnapshot> series = seriesQuery(username).get();
+
+        NavigableMap<YearMonth, MonthSummary> summaries = new TreeMap<>();
+        for (DocumentSnapshot doc : docs.get()) {
+            YearMonth month = YearMonth.parse(doc.getId());
+            summaries.put(month, MonthSummaries.read(month, doc));
+        }
+        List<Reminder> allSeries = toReminders(series.get());
+        for (MonthSummary summary : summaries.values()) {
+            YearMonth month = summary.getMonth();
+            for (Reminder s : allSeries) {
+                for (Reminder r : SeriesExpansion.expand(s, month.atDay(1), month.atEndOfMonth())) summary.add(r);
+            }
+        }
+        return summaries;
     }
-    // GET REMINDERS FOR MONTH
-    public List<Reminder> getRemindersForMonth(String username, YearMonth ym)
+
+    // GET REMINDERS FOR RANGE (inclusive), grouped by day in chronological order
+    @Override
+    public NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username,
+                                                                       LocalDate from,
+                                                                       LocalDate to)
             throws ExecutionException, InterruptedException {
 
-        String start = ym.atDay(1).toString();
-        String end   = ym.atEndOfMonth().toString();
+        // Both queries in flight at once; a user's series list is small
+        ApiFuture<QuerySnapshot> reminders = rangeQuery(username, from, to).get();
+        ApiFuture<QuerySnapshot> series = seriesQuery(username).get();
 
-        Query query = remindersRef
-                .whereEqualTo("username", username)
-                .whereGreaterThanOrEqualTo("date", start)
-                .whereLessThanOrEqualTo("date", end)
-                .orderBy("date")
-                .orderBy("time");
+        NavigableMap<LocalDate, List<Reminder>> byDay = new TreeMap<>();
+        for (QueryDocumentSnapshot doc : reminders.get().getDocuments()) {
+            Reminder r = toReminder(doc);
+            byDay.computeIfAbsent(LocalDate.parse(r.getDate()), d -> new ArrayList<>()).add(r);
+        }
+        SeriesExpansion.expandInto(byDay, toReminders(series.get()), from, to);
+        return byDay;
+    }
+
+    // GRID HEADERS FOR RANGE (inclusive): the same query projected to the fields a grid shows
+    @Override
+    public NavigableMap<LocalDate, List<ReminderHeader>> getReminderHeadersForRange(String username,
+                                                                                  LocalDate from,
+                                                                                  LocalDate to)
+            throws ExecutionException, InterruptedException {
+
+        ApiFuture<QuerySnapshot> reminders = rangeQuery(username, from, to)
+                .select("date", "time", "title", "startMinute")
+                .get();
+        ApiFuture<QuerySnapshot> series = seriesQuery(username).get();
+
+        NavigableMap<LocalDate, List<ReminderHeader>> byDay = new TreeMap<>();
+        for (QueryDocumentSnapshot doc : reminders.get().getDocuments()) {
+            String date = doc.getString("date");
+            Long startMinute = doc.getLong("startMinute");
+            if (date == null || startMinute == null) continue;
+            byDay.computeIfAbsent(LocalDate.parse(date), d -> new ArrayList<>())
+                    .add(new ReminderHeader(doc.getId(), date, doc.getString("time"), doc.getString("title"), startMinute));
+        }
+
+        NavigableMap<LocalDate, List<Reminder>> occurrences = new TreeMap<>();
+        SeriesExpansion.expandInto(occurrences, toReminders(series.get()), from, to);
+        for (Map.Entry<LocalDate, List<Reminder>> day : occurrences.entrySet()) {
+            List<ReminderHeader> headers = byDay.computeIfAbsent(day.getKey(), d -> new ArrayList<>());
+            for (Reminder r : day.getValue()) headers.add(ReminderHeader.of(r));
+            headers.sort(ReminderHeader.CHRONOLOGICAL);
+        }
+        return byDay;
+    }
+
+    // LIVE QUERY FOR RANGE (inclusive); events arrive on Firestore's callback thread. The first
+    // call waits for both the reminders' and the series' initial snapshots.
+    @Override
+    public Subscription listenToRange(String username,
+                                      LocalDate from,
+                                      LocalDate to,
+                                      ChangeListener listener) {
+
+        InitialJoin join = new InitialJoin(listener, 2);
+        ListenerRegistration registration = forwardChanges(rangeQuery(username, from, to), join.source());
+
+        ChangeListener seriesSource = join.source();
+        SeriesExpansion.Window window = new SeriesExpansion.Window(from, to);
+        boolean[] initial = {true};
+        ListenerRegistration seriesRegistration = seriesQuery(username)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                        return;
+                    }
+                    if (snapshot == null) return;
+
+                    List<Reminder> changedSeries = new ArrayList<>();
+                    List<String> removedSeriesIds = new ArrayList<>();
+                    for (DocumentChange change : snapshot.getDocumentChanges()) {
+                        if (change.getType() == DocumentChange.Type.REMOVED) {
+                            removedSeriesIds.add(change.getDocument().getId());
+                        } else {
+                            changedSeries.add(toReminder(change.getDocument()));
+                        }
+                    }
+
+                    List<Reminder> upserted = new ArrayList<>();
+                    List<String> removedIds = new ArrayList<>();
+                    window.apply(changedSeries, removedSeriesIds, upserted, removedIds);
+                    // The initial snapshot counts even without occurrences in the range
+                    if (initial[0] || !upserted.isEmpty() || !removedIds.isEmpty()) {
+                        initial[0] = false;
+                        seriesSource.onChanges(upserted, removedIds);
+                    }
+                });
+
+        return () -> {
+            registration.remove();
+            seriesRegistration.remove();
+        };
+    }
+
+    // LIVE MONTH SUMMARIES: the summary documents of [from, to] and the series, whose occurrences
+    // are counted on read. Only documents, never reminders, are watched.
+    @Override
+    public Subscription listenToMonthSummaries(String username, YearMonth from, YearMonth to, Runnable onChange) {
+        ListenerRegistration registration = pingChanges(MonthSummaries.range(db, username, from, to), onChange);
+        ListenerRegistration seriesRegistration = pingChanges(seriesQuery(username), onChange);
 
-        QuerySnapshot snapshot = query.get().get();
+        return () -> {
+            registration.remove();
+            seriesRegistration.remove();
+        };
+    }
+
+    // Runs onChange for every snapshot after the first
+    private static ListenerRegistration pingChanges(Query query, Runnable onChange) {
+        boolean[] initial = {true};
+        return query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (snapshot == null) return;
+            if (initial[0]) {
+                initial[0] = false;
+                return;
+            }
+            onChange.run();
+        });
+    }
+
+    // LIVE QUERY FOR EVERYTHING; the two queries' initial snapshots are handed over as one call
+    @Override
+    public Subscription listenToAll(String username, ChangeListener listener) {
+        InitialJoin join = new InitialJoin(listener, 2);
+        ListenerRegistration registration = forwardChanges(remindersRef.whereEqualTo("username", username), join.source());
+        ListenerRegistration seriesRegistration = forwardChanges(seriesQuery(username), join.source());
+
+        return () -> {
+            registration.remove();
+            seriesRegistration.remove();
+        };
+    }
 
-        List<Reminder> list = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
-            Reminder r = doc.toObject(Reminder.class);
-            r.setId(doc.getId());
-            list.add(r);
+    /*
+     * Holds back changes from several listeners until each has delivered its initial
+     * snapshot, then passes everything on as a single first call (so that call carries the
+     * complete contents, as ChangeListener promises) and forwards later changes as they come.
+     */
+    private static final class InitialJoin {
+        private final ChangeListener target;
+        private int waiting;
+        private Map<String, Reminder> initial = new LinkedHashMap<>();
+
+        InitialJoin(ChangeListener target, int sources) {
+            this.target = target;
+            this.waiting = sources;
         }
+
+        ChangeListener source() {
+            boolean[] first = {true};
+            return (upserted, removedIds) -> {
+                synchronized (this) {
+                    if (initial == null) {
+                        target.onChanges(upserted, removedIds);
+                        return;
+                    }
+                    for (String id : removedIds) initial.remove(id);
+                    for (Reminder r : upserted) initial.put(r.getId(), r);
+                    if (first[0]) {
+                        first[0] = false;
+                        waiting--;
+                    }
+                    if (waiting > 0) return;
+
+                    List<Reminder> contents = new ArrayList<>(initial.values());
+                    initial = null;
+                    target.onChanges(contents, List.of());
+                }
+            };
+        }
+    }
+
+    // Passes each snapshot's document changes on as one change set
+    private ListenerRegistration forwardChanges(Query query, ChangeListener listener) {
+        return query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (snapshot == null) return;
+
+            // The first snapshot carries every matching document; later ones are small
+            List<DocumentChange> changes = snapshot.getDocumentChanges();
+            List<Reminder> upserted = new ArrayList<>(changes.size());
+            List<String> removedIds = new ArrayList<>();
+            for (DocumentChange change : changes) {
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    removedIds.add(change.getDocument().getId());
+                } else {
+                    upserted.add(toReminder(change.getDocument()));
+                }
+            }
+            listener.onChanges(upserted, removedIds);
+        });
+    }
+
+    // Reminders starting within [from, to], in chronological order
+    private Query rangeQuery(String username, LocalDate from, LocalDate to) {
+        return remindersRef
+                .whereEqualTo("username", username)
+                .whereGreaterThanOrEqualTo("startMinute", ReminderTime.startOfDay(from))
+                .whereLessThan("startMinute", ReminderTime.startOfDay(to.plusDays(1)))
+                .orderBy("startMinute");
+    }
+
+    private Query seriesQuery(String username) {
+        return seriesRef.whereEqualTo("username", username);
+    }
+
+    private static List<Reminder> toReminders(QuerySnapshot snapshot) {
+        return DocumentCodec.toReminders(snapshot);
+    }
+
+    private static List<Reminder> flatten(NavigableMap<LocalDate, List<Reminder>> byDay) {
+        int size = 0;
+        for (List<Reminder> day : byDay.values()) size += day.size();
+        List<Reminder> list = new ArrayList<>(size);
+        byDay.values().forEach(list::addAll);
         return list;
     }
 
+    static Reminder toReminder(DocumentSnapshot doc) {
+        return DocumentCodec.toReminder(doc);
+    }
+
     // GET UPCOMING REMINDERS
-    public List<Reminder> getUpcomingReminders(String username)
+    @Override
+    public List<Reminder> getUpcomingReminders(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        // startAfter + limit: only the page on screen is read, never the whole history
+        return getRemindersPage(username, ReminderTime.now(), after, limit);
+    }
+
+    // PAGE OF REMINDERS FROM fromMinute, continuing after the previous page's last reminder
+    @Override
+    public List<Reminder> getRemindersPage(String username, long fromMinute, Reminder after, int limit)
             throws ExecutionException, InterruptedException {
 
-        QuerySnapshot snapshot = remindersRef
+        Query query = remindersRef
                 .whereEqualTo("username", username)
-                .orderBy("date")
-                .orderBy("time")
-                .get()
-                .get();
+                .whereGreaterThanOrEqualTo("startMinute", fromMinute)
+                .orderBy("startMinute")
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (after != null) {
+            query = query.startAfter(after.getSortKey(), after.getId());
+        }
+
+        return toReminders(query.get().get());
+    }
+
+    // PAGE OF SEARCH ENTRIES: the same paging over the whole history, projected to the fields
+    // a search index needs
+    @Override
+    public List<Reminder> getSearchEntriesPage(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
 
-        List<Reminder> list = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
-            Reminder r = doc.toObject(Reminder.class);
-            r.setId(doc.getId());
-            list.add(r);
+        Query query = remindersRef
+                .whereEqualTo("username", username)
+                .orderBy("startMinute")
+                .orderBy(FieldPath.documentId())
+                .select("date", "time", "title", "description", "startMinute")
+                .limit(limit);
+        if (after != null) {
+            query = query.startAfter(after.getSortKey(), after.getId());
         }
-        return list;
+
+        return toReminders(query.get().get());
+    }
+
+    // OWNER OF A REMINDER OR SERIES (both lookups in flight at once)
+    @Override
+    public String getOwner(String id)
+            throws ExecutionException, InterruptedException {
+
+        ApiFuture<DocumentSnapshot> reminder = remindersRef.document(id).get();
+        ApiFuture<DocumentSnapshot> series = seriesRef.document(id).get();
+        String owner = reminder.get().getString("username");
+        return owner != null ? owner : series.get().getString("username");
+    }
+
+    // OWNERS OF MANY REMINDERS OR SERIES (one batched read of each collection, only the owner field)
+    @Override
+    public Map<String, String> getOwners(Collection<String> ids)
+            throws ExecutionException, InterruptedException {
+
+        Map<String, String> owners = new HashMap<>();
+        Set<String> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty()) return owners;
+
+        DocumentReference[] reminders = new DocumentReference[unique.size()];
+        DocumentReference[] series = new DocumentReference[unique.size()];
+        int i = 0;
+        for (String id : unique) {
+            reminders[i] = remindersRef.document(id);
+            series[i++] = seriesRef.document(id);
+        }
+        FieldMask owner = FieldMask.of("username");
+        ApiFuture<List<DocumentSnapshot>> reminderDocs = db.getAll(reminders, owner);
+        ApiFuture<List<DocumentSnapshot>> seriesDocs = db.getAll(series, owner);
+
+        for (DocumentSnapshot doc : seriesDocs.get()) putOwner(owners, doc);
+        for (DocumentSnapshot doc : reminderDocs.get()) putOwner(owners, doc);
+        return owners;
+    }
+
+    private static void putOwner(Map<String, String> owners, DocumentSnapshot doc) {
+        String owner = doc.getString("username");
+        if (owner != null) owners.put(doc.getId(), owner);
     }
 
     // DELETE REMINDER BY ID
+    @Override
     public void deleteReminder(Reminder reminder)
             throws ExecutionException, InterruptedException {
 
         if (reminder == null || reminder.getId() == null) return;
 
-        remindersRef.document(reminder.getId()).delete().get();
+        DocumentReference ref = remindersRef.document(reminder.getId());
+        db.runTransaction(tx -> {
+            DocumentSnapshot current = tx.get(ref).get();
+            if (!current.exists()) return null;
+
+            MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+            delta.remove(current);
+            tx.delete(ref);
+            delta.writeTo(tx);
+            return null;
+        }).get();
     }
 
     // UPDATE REMINDER BY ID
+    @Override
     public void updateReminder(Reminder reminder,
                                LocalDate newDate,
                                String newTitle,
@@ -124,14 +489,29 @@ public class ReminderRepository {
 
         if (reminder == null || reminder.getId() == null) return;
 
-        remindersRef.document(reminder.getId()).update(
-                "date", newDate.toString(),
-                "title", newTitle,
-                "description", newDescription,
-                "time", newTime
-        ).get();
+        DocumentReference ref = remindersRef.document(reminder.getId());
+        db.runTransaction(tx -> {
+            DocumentSnapshot current = tx.get(ref).get();
+            if (!current.exists()) {
+                throw new IllegalArgumentException("No reminder " + reminder.getId());
+            }
+
+            MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+            delta.remove(current);
+            delta.add(current.getString("username"), newDate.toString(), newTime);
+            tx.update(ref,
+                    "date", newDate.toString(),
+                    "title", newTitle,
+                    "description", newDescription,
+                    "time", newTime,
+                    "startMinute", ReminderTime.toStartMinute(newDate, newTime)
+            );
+            delta.writeTo(tx);
+            return null;
+        }).get();
     }
     // Update a reminder by matching old values
+    @Override
     public void updateReminderByFields(String username,
                                        String originalDateString,
                                        String originalTime,
@@ -150,16 +530,300 @@ public class ReminderRepository {
                 .whereEqualTo("time", originalTime)
                 .whereEqualTo("title", originalTitle);
 
-        ApiFuture<QuerySnapshot> future = query.get();
-        QuerySnapshot snapshot = future.get();
+        // One transaction for every match and their summaries
+        db.runTransaction(tx -> {
+            QuerySnapshot snapshot = tx.get(query).get();
+            if (snapshot.isEmpty()) return null;
 
-        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
-            doc.getReference().update(
-                    "date", newDateString,
-                    "title", newTitle,
-                    "description", newDescription,
-                    "time", newTime
+            MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+            for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+                delta.remove(doc);
+                delta.add(username, newDateString, newTime);
+                tx.update(doc.getReference(),
+                        "date", newDateString,
+                        "title", newTitle,
+                        "description", newDescription,
+                        "time", newTime,
+                        "startMinute", ReminderTime.toStartMinute(newDate, newTime)
+                );
+            }
+            delta.writeTo(tx);
+            return null;
+        }).get();
+    }
+
+    // ADD RECURRING SERIES (upserts when the series already has an id)
+    @Override
+    public void addSeries(Reminder series)
+            throws ExecutionException, InterruptedException {
+
+        Reminder stored = new Reminder(series.getUsername(), series.getDate(),
+                series.getTitle(), series.getDescription(), series.getTime());
+        stored.setRecurrence(Recurrence.parse(series.getRecurrence()).toRule());
+        stored.setExceptions(series.getExceptions() == null ? new ArrayList<>() : series.getExceptions());
+
+        DocumentReference ref = series.getId() == null ? seriesRef.document() : seriesRef.document(series.getId());
+        stored.setId(ref.getId());
+        ref.set(stored).get();
+    }
+
+    // GET RECURRING SERIES
+    @Override
+    public List<Reminder> getSeries(String username)
+            throws ExecutionException, InterruptedException {
+
+        return toReminders(seriesQuery(username).get().get());
+    }
+
+    // UPDATE RECURRING SERIES
+    @Override
+    public void updateSeries(String seriesId,
+                             String newTitle,
+                             String newDescription,
+                             String newTime,
+                             String newRecurrence)
+            throws ExecutionException, InterruptedException {
+
+        DocumentReference ref = seriesRef.document(seriesId);
+        String date = ref.get().get().getString("date");
+        if (date == null) return;
+
+        ref.update(
+                "title", newTitle,
+                "description", newDescription,
+                "time", newTime,
+                "recurrence", Recurrence.parse(newRecurrence).toRule(),
+                "startMinute", ReminderTime.toStartMinute(LocalDate.parse(date), newTime)
+        ).get();
+    }
+
+    // DELETE RECURRING SERIES with its edited instances, in one transaction
+    @Override
+    public void deleteSeries(String seriesId)
+            throws ExecutionException, InterruptedException {
+
+        db.runTransaction(tx -> {
+            QuerySnapshot overrides = tx.get(remindersRef.whereEqualTo("seriesId", seriesId)).get();
+
+            MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+            tx.delete(seriesRef.document(seriesId));
+            for (QueryDocumentSnapshot doc : overrides.getDocuments()) {
+                delta.remove(doc);
+                tx.delete(doc.getReference());
+            }
+            delta.writeTo(tx);
+            return null;
+        }).get();
+    }
+
+    // SKIP ONE OCCURRENCE
+    @Override
+    public void skipOccurrence(Reminder occurrence)
+            throws ExecutionException, InterruptedException {
+
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        seriesRef.document(occurrence.getSeriesId())
+                .update("exceptions", FieldValue.arrayUnion(occurrence.getDate()))
+                .get();
+    }
+
+    // EDIT ONE OCCURRENCE: exception on the series plus a stand-alone reminder, atomically
+    @Override
+    public void overrideOccurrence(Reminder occurrence,
+                                   LocalDate newDate,
+                                   String newTitle,
+                                   String newDescription,
+                                   String newTime)
+            throws ExecutionException, InterruptedException {
+
+        if (occurrence == null || !occurrence.isOccurrence()) return;
+
+        DocumentReference ref = remindersRef.document();
+        Reminder edited = new Reminder(occurrence.getUsername(), newDate.toString(), newTitle, newDescription, newTime);
+        edited.setId(ref.getId());
+        edited.setSeriesId(occurrence.getSeriesId());
+        edited.setOriginalDate(occurrence.getDate());
+
+        MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+        delta.add(edited);
+
+        WriteBatch batch = db.batch();
+        batch.update(seriesRef.document(occurrence.getSeriesId()),
+                "exceptions", FieldValue.arrayUnion(occurrence.getDate()));
+        batch.set(ref, edited);
+        delta.writeTo(batch);
+        batch.commit().get();
+    }
+
+    // BULK ADD (an id already stored is overwritten, and counted once)
+    @Override
+    public List<BulkResult> addReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException {
+
+        return bulk(reminders, true, (tx, ref, r, current, delta) -> {
+            startMinute(r.getDate(), r.getTime());
+            Reminder created = new Reminder(r.getUsername(), r.getDate(), r.getTitle(), r.getDescription(), r.getTime());
+            created.setId(ref.getId());
+            created.setSeriesId(r.getSeriesId());
+            created.setOriginalDate(r.getOriginalDate());
+            delta.remove(current);
+            delta.add(created);
+            tx.set(ref, created);
+        });
+    }
+
+    // BULK UPDATE BY ID
+    @Override
+    public List<BulkResult> updateReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException {
+
+        return bulk(reminders, false, (tx, ref, r, current, delta) -> {
+            requireStored(ref, current);
+            long startMinute = startMinute(r.getDate(), r.getTime());
+
+            // Title and description may be cleared, so no Map.of
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("date", r.getDate());
+            fields.put("title", r.getTitle());
+            fields.put("description", r.getDescription());
+            fields.put("time", r.getTime());
+            fields.put("startMinute", startMinute);
+
+            delta.remove(current);
+            delta.add(current.getString("username"), r.getDate(), r.getTime());
+            tx.update(ref, fields);
+        });
+    }
+
+    // BULK MOVE TO ANOTHER DAY (the stored time of day is kept)
+    @Override
+    public List<BulkResult> moveReminders(List<Reminder> reminders, LocalDate newDate)
+            throws ExecutionException, InterruptedException {
+
+        return bulk(reminders, false, (tx, ref, r, current, delta) -> {
+            requireStored(ref, current);
+            String time = current.getString("time");
+            long startMinute = startMinute(newDate.toString(), time);
+            delta.remove(current);
+            delta.add(current.getString("username"), newDate.toString(), time);
+            tx.update(ref,
+                    "date", newDate.toString(),
+                    "startMinute", startMinute
             );
+        });
+    }
+
+    // BULK DELETE BY ID (already gone counts as done)
+    @Override
+    public List<BulkResult> deleteReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException {
+
+        return bulk(reminders, false, (tx, ref, r, current, delta) -> {
+            if (current == null) return;
+            delta.remove(current);
+            tx.delete(ref);
+        });
+    }
+
+    private static void requireStored(DocumentReference ref, DocumentSnapshot current) {
+        if (current == null) throw new IllegalArgumentException("No reminder " + ref.getId());
+    }
+
+    // Start of a reminder handed in; a missing or malformed date or time fails just that item
+    private static long startMinute(String date, String time) {
+        if (date == null || time == null) throw new IllegalArgumentException("Reminder needs a date and a time");
+        try {
+            return ReminderTime.toStartMinute(LocalDate.parse(date), time);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bad date or time: " + date + " " + time, e);
+        }
+    }
+
+    /*
+     * Runs the writes in transactions of up to BULK_CHUNK_SIZE reminders, each committing
+     * its reminders together with their summary changes. The stored documents of a chunk
+     * are read inside its transaction, so summaries count what was really replaced. An id
+     * appearing twice starts a new chunk, and so does an item whose reminder and summary
+     * writes could take the commit past MAX_WRITES_PER_COMMIT (see applyWithinCommit).
+     * Items fail on their own for a missing id or document; a chunk that cannot commit
+     * fails as a whole.
+     */
+    private List<BulkResult> bulk(List<Reminder> reminders, boolean newDocuments, BulkOp op)
+            throws InterruptedException {
+
+        List<BulkResult> results = new ArrayList<>(reminders.size());
+        int start = 0;
+        while (start < reminders.size()) {
+            Set<String> ids = new HashSet<>();
+            int end = start;
+            while (end < reminders.size() && end - start < BULK_CHUNK_SIZE) {
+                Reminder r = reminders.get(end);
+                if (r != null && r.getId() != null && !ids.add(r.getId())) break;
+                end++;
+            }
+            List<BulkResult> chunk = bulkChunk(reminders.subList(start, end), start, newDocuments, op);
+            results.addAll(chunk);
+            start += chunk.size();
+        }
+        return results;
+    }
+
+    private List<BulkResult> bulkChunk(List<Reminder> chunk, int offset, boolean newDocuments, BulkOp op)
+            throws InterruptedException {
+
+        DocumentReference[] refs = new DocumentReference[chunk.size()];
+        List<DocumentReference> stored = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Reminder r = chunk.get(i);
+            if (r == null || (r.getId() == null && !newDocuments)) continue;
+            refs[i] = r.getId() == null ? remindersRef.document() : remindersRef.document(r.getId());
+            if (r.getId() != null) stored.add(refs[i]);
+        }
+
+        try {
+            return db.runTransaction(tx -> {
+                Map<String, DocumentSnapshot> current = new HashMap<>();
+                if (!stored.isEmpty()) {
+                    for (DocumentSnapshot doc : tx.getAll(stored.toArray(new DocumentReference[0])).get()) {
+                        if (doc.exists()) current.put(doc.getId(), doc);
+                    }
+                }
+
+                MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+                List<BulkResult> results = applyWithinCommit(chunk.size(), offset, refs, delta,
+                        i -> op.apply(tx, refs[i], chunk.get(i), current.get(refs[i].getId()), delta));
+                delta.writeTo(tx);
+                return results;
+            }).get();
+        } catch (ExecutionException e) {
+            List<BulkResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(BulkResult.failure(offset + i, refs[i] != null ? refs[i].getId() : null, e.getCause()));
+            }
+            return failed;
+        }
+    }
+
+    // Applies the first items of a chunk while one more reminder write, plus the summaries it
+    // can touch, still fits in the commit next to the writes so far. Returns the results of
+    // the items it got to; the rest go in the next chunk. A null ref fails its item.
+    static List<BulkResult> applyWithinCommit(int size, int offset, DocumentReference[] refs,
+                                              MonthSummaries.Delta delta, ItemWrite write) {
+        List<BulkResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (i + 1 + delta.size() + SUMMARY_WRITES_PER_ITEM > MAX_WRITES_PER_COMMIT) break;
+            if (refs[i] == null) {
+                results.add(BulkResult.failure(offset + i, null, new IllegalArgumentException("Reminder has no id")));
+                continue;
+            }
+            try {
+                write.apply(i);
+                results.add(BulkResult.success(offset + i, refs[i].getId()));
+            } catch (IllegalArgumentException e) {
+                results.add(BulkResult.failure(offset + i, refs[i].getId(), e));
+            }
         }
+        return results;
     }
-}
\ No newline at end of file
+}
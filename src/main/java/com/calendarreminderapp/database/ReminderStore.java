@@ -0,0 +1,348 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage backend for reminders. {@link ReminderRepository} talks to Firestore,
+ * {@link LocalReminderStore} keeps everything in an embedded on-disk log and
+ * {@link RemoteReminderStore} goes through the reminder service.
+ * Pick one through {@link Stores}.
+ *
+ * <p>Recurring reminders are stored once per series. Range reads and range listeners
+ * return their occurrences inside the requested window alongside one-off reminders;
+ * other reads return stored reminders only.
+ */
+public interface ReminderStore {
+
+    // Receives incremental changes for a watched range; the first call carries the initial contents
+    interface ChangeListener {
+        void onChanges(List<Reminder> upserted, List<String> removedIds);
+    }
+
+    interface Subscription {
+        void cancel();
+    }
+
+    void addReminder(String username,
+                     LocalDate date,
+                     String title,
+                     String description,
+                     String time)
+            throws ExecutionException, InterruptedException;
+
+    List<Reminder> getRemindersForDate(String username, LocalDate date)
+            throws ExecutionException, InterruptedException;
+
+    List<Reminder> getRemindersForMonth(String username, YearMonth ym)
+            throws ExecutionException, InterruptedException;
+
+    // Inclusive range, grouped by day in chronological order
+    NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username,
+                                                                LocalDate from,
+                                                                LocalDate to)
+            throws ExecutionException, InterruptedException;
+
+    // Inclusive range as grid headers (start and title only), grouped by day in chronological
+    // order. Stores that hold whole reminders anyway just map them.
+    default NavigableMap<LocalDate, List<ReminderHeader>> getReminderHeadersForRange(String username,
+                                                                                   LocalDate from,
+                                                                                   LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return ReminderHeader.byDay(getRemindersForRange(username, from, to));
+    }
+
+    // How busy each day of each month in [from, to] is, series occurrences included; for grids
+    // that show counts only (one small read per month instead of every reminder)
+    NavigableMap<YearMonth, MonthSummary> getMonthSummaries(String username, YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException;
+
+    // Stored reminders from the current minute on, one page at a time: pass the last reminder of
+    // the previous page as after to continue (see UpcomingFeed, which also merges in series)
+    List<Reminder> getUpcomingReminders(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException;
+
+    // Up to limit reminders starting at or after fromMinute, ordered by (startMinute, id).
+    // Pass the last reminder of the previous page as after to continue, or null for the first page.
+    List<Reminder> getRemindersPage(String username, long fromMinute, Reminder after, int limit)
+            throws ExecutionException, InterruptedException;
+
+    // Stored reminders from the earliest on, paged like getRemindersPage, with only what a search
+    // index needs: id, date, time, title, description and startMinute. Series are not included
+    // (see getSeries). Stores that hold whole reminders anyway return them as they are.
+    default List<Reminder> getSearchEntriesPage(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return getRemindersPage(username, Long.MIN_VALUE, after, limit);
+    }
+
+    // Username owning the stored reminder or series with this id, or null if there is none
+    String getOwner(String id)
+            throws ExecutionException, InterruptedException;
+
+    // Owners of those of the ids that are stored, in one read where the store can batch it.
+    // Ids with no reminder or series are left out of the map.
+    default Map<String, String> getOwners(Collection<String> ids)
+            throws ExecutionException, InterruptedException {
+        Map<String, String> owners = new HashMap<>();
+        for (String id : ids) {
+            String owner = getOwner(id);
+            if (owner != null) owners.put(id, owner);
+        }
+        return owners;
+    }
+
+    void deleteReminder(Reminder reminder)
+            throws ExecutionException, InterruptedException;
+
+    void updateReminder(Reminder reminder,
+                        LocalDate newDate,
+                        String newTitle,
+                        String newDescription,
+                        String newTime)
+            throws ExecutionException, InterruptedException;
+
+    void updateReminderByFields(String username,
+                                String originalDateString,
+                                String originalTime,
+                                String originalTitle,
+                                LocalDate newDate,
+                                String newTitle,
+                                String newDescription,
+                                String newTime)
+            throws ExecutionException, InterruptedException;
+
+    // BULK MUTATIONS: one result per input item, in input order; a failed item never aborts the rest
+
+    // Inserts reminders; ids are assigned by the store unless a reminder already carries one,
+    // in which case the write is an upsert so replaying the same input is harmless. An edited
+    // occurrence (seriesId and originalDate set) keeps its link to the series.
+    List<BulkResult> addReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException;
+
+    // Overwrites date/title/description/time of existing reminders, matched by id
+    List<BulkResult> updateReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException;
+
+    // Moves existing reminders to newDate, keeping their time of day
+    List<BulkResult> moveReminders(List<Reminder> reminders, LocalDate newDate)
+            throws ExecutionException, InterruptedException;
+
+    // Deletes reminders by id. An id that is already gone succeeds, so a repeated or replayed
+    // delete is harmless; only an item without an id fails.
+    List<BulkResult> deleteReminders(List<Reminder> reminders)
+            throws ExecutionException, InterruptedException;
+
+    // RECURRING SERIES
+
+    // Stores a series starting on its date; getRecurrence() holds the RRULE
+    void addSeries(Reminder series)
+            throws ExecutionException, InterruptedException;
+
+    List<Reminder> getSeries(String username)
+            throws ExecutionException, InterruptedException;
+
+    // Changes every occurrence; occurrences already edited on their own keep their edits
+    void updateSeries(String seriesId,
+                      String newTitle,
+                      String newDescription,
+                      String newTime,
+                      String newRecurrence)
+            throws ExecutionException, InterruptedException;
+
+    // Removes the series and its edited instances
+    void deleteSeries(String seriesId)
+            throws ExecutionException, InterruptedException;
+
+    // Drops a single occurrence from its series
+    void skipOccurrence(Reminder occurrence)
+            throws ExecutionException, InterruptedException;
+
+    // Replaces a single occurrence with a stand-alone reminder that remembers its series
+    void overrideOccurrence(Reminder occurrence,
+                            LocalDate newDate,
+                            String newTitle,
+                            String newDescription,
+                            String newTime)
+            throws ExecutionException, InterruptedException;
+
+    // Live view of [from, to]; the listener is called off the FX thread
+    Subscription listenToRange(String username,
+                               LocalDate from,
+                               LocalDate to,
+                               ChangeListener listener);
+
+    // Calls onChange (off the FX thread) whenever the month summaries of [from, to] may have
+    // changed, series included; not for the initial contents, which getMonthSummaries reads.
+    // Stores without stored summaries watch the reminders of those months instead.
+    default Subscription listenToMonthSummaries(String username, YearMonth from, YearMonth to, Runnable onChange) {
+        boolean[] initial = {true};
+        return listenToRange(username, from.atDay(1), to.atEndOfMonth(), (upserted, removedIds) -> {
+            if (initial[0]) {
+                initial[0] = false;
+                return;
+            }
+            onChange.run();
+        });
+    }
+
+    // Live view of every stored reminder and series of a user, series unexpanded (for indexes
+    // over the whole history). A reminder moved to another date is an upsert, never a removal.
+    Subscription listenToAll(String username, ChangeListener listener);
+
+    // ASYNC VARIANTS (run on the shared I/O pool, never on the FX thread)
+
+    default CompletableFuture<Void> addReminderAsync(String username,
+                                                     LocalDate date,
+                                                     String title,
+                                                     String description,
+                                                     String time) {
+        return Database.supplyAsync(() -> {
+            addReminder(username, date, title, description, time);
+            return null;
+        });
+    }
+
+    default CompletableFuture<List<Reminder>> getRemindersForDateAsync(String username, LocalDate date) {
+        return Database.supplyAsync(() -> getRemindersForDate(username, date));
+    }
+
+    default CompletableFuture<List<Reminder>> getRemindersForMonthAsync(String username, YearMonth ym) {
+        return Database.supplyAsync(() -> getRemindersForMonth(username, ym));
+    }
+
+    default CompletableFuture<NavigableMap<LocalDate, List<Reminder>>> getRemindersForRangeAsync(String username,
+                                                                                                 LocalDate from,
+                                                                                                 LocalDate to) {
+        return Database.supplyAsync(() -> getRemindersForRange(username, from, to));
+    }
+
+    default CompletableFuture<NavigableMap<LocalDate, List<ReminderHeader>>> getReminderHeadersForRangeAsync(String username,
+                                                                                                           LocalDate from,
+                                                                                                           LocalDate to) {
+        return Database.supplyAsync(() -> getReminderHeadersForRange(username, from, to));
+    }
+
+    default CompletableFuture<NavigableMap<YearMonth, MonthSummary>> getMonthSummariesAsync(String username,
+                                                                                           YearMonth from,
+                                                                                           YearMonth to) {
+        return Database.supplyAsync(() -> getMonthSummaries(username, from, to));
+    }
+
+    default CompletableFuture<List<Reminder>> getUpcomingRemindersAsync(String username, Reminder after, int limit) {
+        return Database.supplyAsync(() -> getUpcomingReminders(username, after, limit));
+    }
+
+    default CompletableFuture<List<Reminder>> getRemindersPageAsync(String username,
+                                                                   long fromMinute,
+                                                                   Reminder after,
+                                                                   int limit) {
+        return Database.supplyAsync(() -> getRemindersPage(username, fromMinute, after, limit));
+    }
+
+    default CompletableFuture<List<Reminder>> getSearchEntriesPageAsync(String username, Reminder after, int limit) {
+        return Database.supplyAsync(() -> getSearchEntriesPage(username, after, limit));
+    }
+
+    default CompletableFuture<List<Reminder>> getSeriesAsync(String username) {
+        return Database.supplyAsync(() -> getSeries(username));
+    }
+
+    default CompletableFuture<Void> deleteReminderAsync(Reminder reminder) {
+        return Database.supplyAsync(() -> {
+            deleteReminder(reminder);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> updateReminderAsync(Reminder reminder,
+                                                        LocalDate newDate,
+                                                        String newTitle,
+                                                        String newDescription,
+                                                        String newTime) {
+        return Database.supplyAsync(() -> {
+            updateReminder(reminder, newDate, newTitle, newDescription, newTime);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> updateReminderByFieldsAsync(String username,
+                                                                String originalDateString,
+                                                                String originalTime,
+                                                                String originalTitle,
+                                                                LocalDate newDate,
+                                                                String newTitle,
+                                                                String newDescription,
+                                                                String newTime) {
+        return Database.supplyAsync(() -> {
+            updateReminderByFields(username, originalDateString, originalTime, originalTitle,
+                    newDate, newTitle, newDescription, newTime);
+            return null;
+        });
+    }
+
+    default CompletableFuture<List<BulkResult>> addRemindersAsync(List<Reminder> reminders) {
+        return Database.supplyAsync(() -> addReminders(reminders));
+    }
+
+    default CompletableFuture<List<BulkResult>> updateRemindersAsync(List<Reminder> reminders) {
+        return Database.supplyAsync(() -> updateReminders(reminders));
+    }
+
+    default CompletableFuture<List<BulkResult>> moveRemindersAsync(List<Reminder> reminders, LocalDate newDate) {
+        return Database.supplyAsync(() -> moveReminders(reminders, newDate));
+    }
+
+    default CompletableFuture<List<BulkResult>> deleteRemindersAsync(List<Reminder> reminders) {
+        return Database.supplyAsync(() -> deleteReminders(reminders));
+    }
+
+    default CompletableFuture<Void> addSeriesAsync(Reminder series) {
+        return Database.supplyAsync(() -> {
+            addSeries(series);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> updateSeriesAsync(String seriesId,
+                                                      String newTitle,
+                                                      String newDescription,
+                                                      String newTime,
+                                                      String newRecurrence) {
+        return Database.supplyAsync(() -> {
+            updateSeries(seriesId, newTitle, newDescription, newTime, newRecurrence);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> deleteSeriesAsync(String seriesId) {
+        return Database.supplyAsync(() -> {
+            deleteSeries(seriesId);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> skipOccurrenceAsync(Reminder occurrence) {
+        return Database.supplyAsync(() -> {
+            skipOccurrence(occurrence);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> overrideOccurrenceAsync(Reminder occurrence,
+                                                            LocalDate newDate,
+                                                            String newTitle,
+                                                            String newDescription,
+                                                            String newTime) {
+        return Database.supplyAsync(() -> {
+            overrideOccurrence(occurrence, newDate, newTitle, newDescription, newTime);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Conversions between the "h:mm AM" display string and the numeric start minute
+ * stored on each reminder (minutes since 1970-01-01T00:00 wall-clock, no time zone).
+ * One numeric field lets Firestore order and range-filter reminders chronologically.
+ */
+public final class ReminderTime {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+
+    private ReminderTime() {
+    }
+
+    // "9:05 PM" -> 21:05; returns midnight for anything unparseable
+    public static LocalTime parse(String time) {
+        try {
+            return LocalTime.parse(time.trim().toUpperCase(Locale.US), DISPLAY);
+        } catch (Exception e) {
+            return LocalTime.MIDNIGHT;
+        }
+    }
+
+    public static String format(LocalTime time) {
+        return time.format(DISPLAY);
+    }
+
+    public static long toStartMinute(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60L + time.getMinute();
+    }
+
+    public static long toStartMinute(LocalDate date, String time) {
+        return toStartMinute(date, parse(time));
+    }
+
+    // Start minute of the current wall-clock minute
+    public static long now() {
+        LocalDateTime now = LocalDateTime.now();
+        return toStartMinute(now.toLocalDate(), now.toLocalTime());
+    }
+
+    // First start minute of the given day, inclusive
+    public static long startOfDay(LocalDate date) {
+        return date.toEpochDay() * MINUTES_PER_DAY;
+    }
+
+    public static LocalDate dateOf(long startMinute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(startMinute, MINUTES_PER_DAY));
+    }
+
+    public static int minuteOfDay(long startMinute) {
+        return (int) Math.floorMod(startMinute, (long) MINUTES_PER_DAY);
+    }
+}
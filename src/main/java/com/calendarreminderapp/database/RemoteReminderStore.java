@@ -0,0 +1,331 @@
+package com.calendarreminderapp.database;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.calendarreminderapp.database.ServiceJson.args;
+
+/**
+ * ReminderStore served by the reminder service over HTTP, for client mode. Each call maps
+ * onto one {@code /reminders/<method>} request of the same name.
+ *
+ * <p>Listeners are long polls: the service queues changes per subscription and answers a
+ * poll as soon as it has any. Polls are asynchronous, so an idle listener holds no thread
+ * here. When the service has dropped a subscription (it restarted, or the client was away
+ * too long) a new one is opened; its initial contents replace what the listener was given
+ * before, with removals for whatever is gone.
+ */
+public class RemoteReminderStore implements ReminderStore {
+
+    private static final int POLL_WAIT_SECONDS = 25;
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(POLL_WAIT_SECONDS + 15);
+    private static final Duration SUBSCRIBE_TIMEOUT = Duration.ofSeconds(30);
+    private static final long RETRY_MILLIS = 2_000;
+
+    private final ServiceClient client;
+
+    public RemoteReminderStore(ServiceClient client) {
+        this.client = client;
+    }
+
+    private <T> T call(String method, Map<String, Object> arguments, Type type)
+            throws ExecutionException, InterruptedException {
+        return client.call("/reminders/" + method, arguments, type);
+    }
+
+    private List<BulkResult> bulk(String method, Map<String, Object> arguments)
+            throws ExecutionException, InterruptedException {
+        List<ServiceJson.BulkItem> items = call(method, arguments, ServiceJson.BULK_ITEMS);
+        List<BulkResult> results = new ArrayList<>(items.size());
+        for (ServiceJson.BulkItem item : items) results.add(item.toResult());
+        return results;
+    }
+
+    @Override
+    public void addReminder(String username, LocalDate date, String title, String description, String time)
+            throws ExecutionException, InterruptedException {
+        call("addReminder", args("username", username, "date", date, "title", title,
+                "description", description, "time", time), null);
+    }
+
+    @Override
+    public List<Reminder> getRemindersForDate(String username, LocalDate date)
+            throws ExecutionException, InterruptedException {
+        return call("getRemindersForDate", args("username", username, "date", date), ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public List<Reminder> getRemindersForMonth(String username, YearMonth ym)
+            throws ExecutionException, InterruptedException {
+        return call("getRemindersForMonth", args("username", username, "month", ym), ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username, LocalDate from, LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return call("getRemindersForRange", args("username", username, "from", from, "to", to),
+                ServiceJson.REMINDERS_BY_DAY);
+    }
+
+    @Override
+    public NavigableMap<LocalDate, List<ReminderHeader>> getReminderHeadersForRange(String username,
+                                                                                  LocalDate from,
+                                                                                  LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return call("getReminderHeadersForRange", args("username", username, "from", from, "to", to),
+                ServiceJson.HEADERS_BY_DAY);
+    }
+
+    @Override
+    public NavigableMap<YearMonth, MonthSummary> getMonthSummaries(String username, YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException {
+        return call("getMonthSummaries", args("username", username, "from", from, "to", to),
+                ServiceJson.SUMMARIES_BY_MONTH);
+    }
+
+    @Override
+    public List<Reminder> getUpcomingReminders(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return call("getUpcomingReminders", args("username", username, "after", after, "limit", limit),
+                ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public List<Reminder> getRemindersPage(String username, long fromMinute, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return call("getRemindersPage", args("username", username, "fromMinute", fromMinute,
+                "after", after, "limit", limit), ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public List<Reminder> getSearchEntriesPage(String username, Reminder after, int limit)
+            throws ExecutionException, InterruptedException {
+        return call("getSearchEntriesPage", args("username", username, "after", after, "limit", limit),
+                ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public String getOwner(String id) throws ExecutionException, InterruptedException {
+        return call("getOwner", args("id", id), String.class);
+    }
+
+    @Override
+    public Map<String, String> getOwners(Collection<String> ids) throws ExecutionException, InterruptedException {
+        return call("getOwners", args("ids", ids), ServiceJson.OWNERS);
+    }
+
+    @Override
+    public void deleteReminder(Reminder reminder) throws ExecutionException, InterruptedException {
+        call("deleteReminder", args("reminder", reminder), null);
+    }
+
+    @Override
+    public void updateReminder(Reminder reminder, LocalDate newDate, String newTitle, String newDescription, String newTime)
+            throws ExecutionException, InterruptedException {
+        call("updateReminder", args("reminder", reminder, "newDate", newDate, "newTitle", newTitle,
+                "newDescription", newDescription, "newTime", newTime), null);
+    }
+
+    @Override
+    public void updateReminderByFields(String username,
+                                       String originalDateString,
+                                       String originalTime,
+                                       String originalTitle,
+                                       LocalDate newDate,
+                                       String newTitle,
+                                       String newDescription,
+                                       String newTime)
+            throws ExecutionException, InterruptedException {
+        call("updateReminderByFields", args("username", username, "originalDate", originalDateString,
+                "originalTime", originalTime, "originalTitle", originalTitle, "newDate", newDate,
+                "newTitle", newTitle, "newDescription", newDescription, "newTime", newTime), null);
+    }
+
+    @Override
+    public List<BulkResult> addReminders(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        return bulk("addReminders", args("reminders", reminders));
+    }
+
+    @Override
+    public List<BulkResult> updateReminders(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        return bulk("updateReminders", args("reminders", reminders));
+    }
+
+    @Override
+    public List<BulkResult> moveReminders(List<Reminder> reminders, LocalDate newDate)
+            throws ExecutionException, InterruptedException {
+        return bulk("moveReminders", args("reminders", reminders, "newDate", newDate));
+    }
+
+    @Override
+    public List<BulkResult> deleteReminders(List<Reminder> reminders) throws ExecutionException, InterruptedException {
+        return bulk("deleteReminders", args("reminders", reminders));
+    }
+
+    @Override
+    public void addSeries(Reminder series) throws ExecutionException, InterruptedException {
+        call("addSeries", args("series", series), null);
+    }
+
+    @Override
+    public List<Reminder> getSeries(String username) throws ExecutionException, InterruptedException {
+        return call("getSeries", args("username", username), ServiceJson.REMINDERS);
+    }
+
+    @Override
+    public void updateSeries(String seriesId, String newTitle, String newDescription, String newTime, String newRecurrence)
+            throws ExecutionException, InterruptedException {
+        call("updateSeries", args("seriesId", seriesId, "newTitle", newTitle, "newDescription", newDescription,
+                "newTime", newTime, "newRecurrence", newRecurrence), null);
+    }
+
+    @Override
+    public void deleteSeries(String seriesId) throws ExecutionException, InterruptedException {
+        call("deleteSeries", args("seriesId", seriesId), null);
+    }
+
+    @Override
+    public void skipOccurrence(Reminder occurrence) throws ExecutionException, InterruptedException {
+        call("skipOccurrence", args("occurrence", occurrence), null);
+    }
+
+    @Override
+    public void overrideOccurrence(Reminder occurrence, LocalDate newDate, String newTitle, String newDescription, String newTime)
+            throws ExecutionException, InterruptedException {
+        call("overrideOccurrence", args("occurrence", occurrence, "newDate", newDate, "newTitle", newTitle,
+                "newDescription", newDescription, "newTime", newTime), null);
+    }
+
+    @Override
+    public Subscription listenToRange(String username, LocalDate from, LocalDate to, ChangeListener listener) {
+        return new Feed(args("username", username, "from", from, "to", to), listener).start();
+    }
+
+    // Each change arrives as an empty change set
+    @Override
+    public Subscription listenToMonthSummaries(String username, YearMonth from, YearMonth to, Runnable onChange) {
+        return new Feed(args("username", username, "fromMonth", from, "toMonth", to),
+                (upserted, removedIds) -> onChange.run()).start();
+    }
+
+    @Override
+    public Subscription listenToAll(String username, ChangeListener listener) {
+        return new Feed(args("username", username, "all", true), listener).start();
+    }
+
+    // One subscription on the service, polled until cancelled. Polls run one after another,
+    // so the listener sees changes in order and never from two threads at once.
+    private final class Feed implements Subscription {
+        private final Map<String, Object> request;
+        private final ChangeListener listener;
+
+        // Ids the listener currently holds, to work out removals after a resubscribe
+        private final Set<String> delivered = new HashSet<>();
+        private boolean replacing;
+
+        private volatile String id;
+        private volatile boolean cancelled;
+
+        Feed(Map<String, Object> request, ChangeListener listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+
+        Feed start() {
+            subscribe();
+            return this;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            String current = id;
+            if (current != null) unsubscribe(current);
+        }
+
+        private void subscribe() {
+            if (cancelled) return;
+            client.<ServiceJson.Subscribed>callAsync("/reminders/listen", request, ServiceJson.Subscribed.class, SUBSCRIBE_TIMEOUT)
+                    .whenComplete((subscribed, error) -> {
+                        if (error != null) {
+                            later(this::subscribe);
+                            return;
+                        }
+                        id = subscribed.id();
+                        if (cancelled) {
+                            unsubscribe(subscribed.id());
+                        } else {
+                            poll();
+                        }
+                    });
+        }
+
+        private void poll() {
+            if (cancelled) return;
+            client.<List<ServiceJson.Changes>>callAsync("/reminders/listen/poll",
+                            args("id", id, "wait", POLL_WAIT_SECONDS), ServiceJson.CHANGES, POLL_TIMEOUT)
+                    .whenComplete((batches, error) -> {
+                        if (error == null) {
+                            deliver(batches);
+                            poll();
+                        } else if (isGone(error)) {
+                            replacing = !delivered.isEmpty();
+                            subscribe();
+                        } else {
+                            later(this::poll);
+                        }
+                    });
+        }
+
+        private void deliver(List<ServiceJson.Changes> batches) {
+            for (ServiceJson.Changes changes : batches) {
+                if (cancelled) return;
+                List<Reminder> upserted = changes.upserted() != null ? changes.upserted() : List.of();
+                List<String> removed = changes.removedIds() != null ? changes.removedIds() : List.of();
+
+                if (replacing) {
+                    // First contents of a new subscription: whatever it lacks is gone
+                    replacing = false;
+                    Set<String> current = new HashSet<>();
+                    for (Reminder r : upserted) current.add(r.getId());
+                    removed = new ArrayList<>(removed);
+                    for (String old : delivered) {
+                        if (!current.contains(old)) removed.add(old);
+                    }
+                    delivered.retainAll(current);
+                }
+
+                delivered.removeAll(removed);
+                for (Reminder r : upserted) delivered.add(r.getId());
+                listener.onChanges(upserted, removed);
+            }
+        }
+
+        private void unsubscribe(String subscription) {
+            client.callAsync("/reminders/listen/cancel", args("id", subscription), null, SUBSCRIBE_TIMEOUT)
+                    .exceptionally(error -> null); // expires on the service anyway
+        }
+
+        private boolean isGone(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof ServiceClient.Rejected rejected && rejected.getStatus() == 404;
+        }
+
+        private void later(Runnable step) {
+            CompletableFuture.runAsync(step, CompletableFuture.delayedExecutor(RETRY_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.calendarreminderapp.database;
+
+import java.util.concurrent.ExecutionException;
+
+// UserStore served by the reminder service; a successful validation is also the client's login
+public class RemoteUserStore implements UserStore {
+
+    private final ServiceClient client;
+
+    public RemoteUserStore(ServiceClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void createUser(String username, String password) throws ExecutionException, InterruptedException {
+        client.createUser(username, password);
+        System.out.println("✅ User created/updated through the reminder service: " + username);
+    }
+
+    @Override
+    public boolean validateUser(String username, String password) throws ExecutionException, InterruptedException {
+        boolean ok = client.login(username, password);
+        System.out.println("🔍 Validate user '" + username + "' with the reminder service: " + ok);
+        return ok;
+    }
+}
@@ -0,0 +1,118 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+/**
+ * Turns recurring series into the occurrences a date window needs. Shared by both
+ * store backends so reads and live listeners expand series the same way.
+ */
+final class SeriesExpansion {
+
+    private static final Comparator<Reminder> CHRONOLOGICAL = Comparator.comparingLong(Reminder::getSortKey);
+
+    private SeriesExpansion() {
+    }
+
+    static String occurrenceId(String seriesId, LocalDate date) {
+        return seriesId + "_" + date;
+    }
+
+    // Occurrences of one series within [from, to], minus its exceptions
+    static List<Reminder> expand(Reminder series, LocalDate from, LocalDate to) {
+        LocalDate start = LocalDate.parse(series.getDate());
+
+        List<LocalDate> dates;
+        try {
+            dates = Recurrence.parse(series.getRecurrence()).occurrences(start, from, to);
+        } catch (IllegalArgumentException e) {
+            // Unreadable rule: show the first date only rather than dropping the series
+            dates = !start.isBefore(from) && !start.isAfter(to) ? List.of(start) : List.of();
+        }
+
+        Set<String> skipped = series.getExceptions() == null ? Set.of() : new HashSet<>(series.getExceptions());
+        List<Reminder> occurrences = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            if (skipped.contains(date.toString())) continue;
+            occurrences.add(occurrence(series, date));
+        }
+        return occurrences;
+    }
+
+    static Reminder occurrence(Reminder series, LocalDate date) {
+        Reminder r = new Reminder(series.getUsername(), date.toString(),
+                series.getTitle(), series.getDescription(), series.getTime());
+        r.setId(occurrenceId(series.getId(), date));
+        r.setSeriesId(series.getId());
+        r.setRecurrence(series.getRecurrence());
+        return r;
+    }
+
+    // Adds every series' occurrences to a by-day map, keeping each touched day chronological
+    static void expandInto(NavigableMap<LocalDate, List<Reminder>> byDay,
+                           Collection<Reminder> series,
+                           LocalDate from,
+                           LocalDate to) {
+        Set<LocalDate> touched = new HashSet<>();
+        for (Reminder s : series) {
+            for (Reminder r : expand(s, from, to)) {
+                LocalDate date = LocalDate.parse(r.getDate());
+                byDay.computeIfAbsent(date, d -> new ArrayList<>()).add(r);
+                touched.add(date);
+            }
+        }
+        for (LocalDate date : touched) {
+            byDay.get(date).sort(CHRONOLOGICAL);
+        }
+    }
+
+    /**
+     * Occurrence ids of each series currently visible to one range listener, so a
+     * change to a series can be sent as "remove the old occurrences, add the new ones".
+     */
+    static final class Window {
+
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<String, List<String>> occurrenceIds = new HashMap<>();
+
+        Window(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        synchronized void apply(List<Reminder> upsertedSeries,
+                                List<String> removedSeriesIds,
+                                List<Reminder> upserted,
+                                List<String> removedIds) {
+
+            for (String id : removedSeriesIds) {
+                List<String> old = occurrenceIds.remove(id);
+                if (old != null) removedIds.addAll(old);
+            }
+            for (Reminder series : upsertedSeries) {
+                List<String> old = occurrenceIds.remove(series.getId());
+                List<Reminder> now = expand(series, from, to);
+
+                List<String> ids = new ArrayList<>(now.size());
+                for (Reminder r : now) ids.add(r.getId());
+                if (old != null) {
+                    Set<String> still = new HashSet<>(ids);
+                    for (String id : old) {
+                        if (!still.contains(id)) removedIds.add(id);
+                    }
+                }
+                occurrenceIds.put(series.getId(), ids);
+                upserted.addAll(now);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.calendarreminderapp.database;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static com.calendarreminderapp.database.ServiceJson.GSON;
+import static com.calendarreminderapp.database.ServiceJson.args;
+
+/**
+ * HTTP connection to the reminder service, for client mode ({@code -Dcalendar.store=remote}).
+ * The token from a successful login goes with every reminder call. If the service has
+ * forgotten it (it restarted), the client logs in again once with the same credentials
+ * and repeats the call.
+ *
+ * <p>Failures come back as {@link ExecutionException}s whose cause says what went wrong:
+ * an {@link IOException} when the service cannot be reached or is itself cut off from
+ * Firestore (worth retrying, see {@link Database#isUnavailable}), a {@link Rejected} when
+ * the request itself was refused, an {@link IllegalStateException} otherwise.
+ */
+public class ServiceClient {
+
+    // A refused request: bad arguments, someone else's reminder, unknown subscription, ...
+    public static class Rejected extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        Rejected(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final HttpClient http;
+
+    private volatile String token;
+    private volatile String username;
+    private volatile String password;
+
+    public ServiceClient(URI base) {
+        this.base = base;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+    }
+
+    public void createUser(String username, String password) throws ExecutionException, InterruptedException {
+        call("/users/create", args("username", username, "password", password), null);
+    }
+
+    public boolean login(String username, String password) throws ExecutionException, InterruptedException {
+        ServiceJson.Login login = call("/users/login",
+                args("username", username, "password", password), ServiceJson.Login.class);
+        if (login.valid()) {
+            this.token = login.token();
+            this.username = username;
+            this.password = password;
+        }
+        return login.valid();
+    }
+
+    // Blocking call; pass a null type for calls without a result
+    public <T> T call(String path, Object arguments, Type type) throws ExecutionException, InterruptedException {
+        try {
+            HttpResponse<String> response = send(path, arguments);
+            if (response.statusCode() == 401 && relogin()) {
+                response = send(path, arguments);
+            }
+            return parse(response, type);
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    // Non-blocking call, for long polls that may wait on the service for a while
+    public <T> CompletableFuture<T> callAsync(String path, Object arguments, Type type, Duration timeout) {
+        return http.sendAsync(request(path, arguments, timeout), HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> response.statusCode() == 401
+                        ? Database.supplyAsync(this::relogin).thenCompose(renewed -> renewed
+                                ? http.sendAsync(request(path, arguments, timeout), HttpResponse.BodyHandlers.ofString())
+                                : CompletableFuture.completedFuture(response))
+                        : CompletableFuture.completedFuture(response))
+                .thenApply(response -> {
+                    try {
+                        return parse(response, type);
+                    } catch (ExecutionException e) {
+                        throw new CompletionException(e.getCause());
+                    }
+                });
+    }
+
+    private HttpResponse<String> send(String path, Object arguments) throws IOException, InterruptedException {
+        return http.send(request(path, arguments, REQUEST_TIMEOUT), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path, Object arguments, Duration timeout) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(arguments), StandardCharsets.UTF_8));
+        String current = token;
+        if (current != null) request.header("Authorization", "Bearer " + current);
+        return request.build();
+    }
+
+    private synchronized boolean relogin() throws ExecutionException, InterruptedException {
+        if (username == null) return false;
+        ServiceJson.Login login = parse(sendLogin(), ServiceJson.Login.class);
+        if (login.valid()) token = login.token();
+        return login.valid();
+    }
+
+    private HttpResponse<String> sendLogin() throws ExecutionException, InterruptedException {
+        try {
+            return send("/users/login", args("username", username, "password", password));
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    private static <T> T parse(HttpResponse<String> response, Type type) throws ExecutionException {
+        int status = response.statusCode();
+        if (status == 200) {
+            return type == null ? null : GSON.fromJson(response.body(), type);
+        }
+
+        String message;
+        try {
+            ServiceJson.Failure failure = GSON.fromJson(response.body(), ServiceJson.Failure.class);
+            message = failure != null && failure.error() != null ? failure.error() : "HTTP " + status;
+        } catch (RuntimeException e) {
+            message = "HTTP " + status;
+        }
+
+        if (status == 503) throw new ExecutionException(new IOException(message));
+        if (status >= 400 && status < 500) throw new ExecutionException(new Rejected(status, message));
+        throw new ExecutionException(new IllegalStateException(message));
+    }
+}
@@ -0,0 +1,105 @@
+package com.calendarreminderapp.database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * JSON shapes shared by the reminder service (the {@code service} module) and its
+ * client, {@link RemoteReminderStore}. Every call is a POST of a JSON object of named
+ * arguments; dates travel as ISO strings and reminders as their stored fields.
+ */
+public final class ServiceJson {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, iso(LocalDate::parse).nullSafe())
+            .registerTypeAdapter(YearMonth.class, iso(YearMonth::parse).nullSafe())
+            .create();
+
+    public static final Type REMINDERS = new TypeToken<List<Reminder>>() {
+    }.getType();
+    public static final Type REMINDERS_BY_DAY = new TypeToken<TreeMap<LocalDate, List<Reminder>>>() {
+    }.getType();
+    public static final Type HEADERS_BY_DAY = new TypeToken<TreeMap<LocalDate, List<ReminderHeader>>>() {
+    }.getType();
+    public static final Type SUMMARIES_BY_MONTH = new TypeToken<TreeMap<YearMonth, MonthSummary>>() {
+    }.getType();
+    public static final Type BULK_ITEMS = new TypeToken<List<BulkItem>>() {
+    }.getType();
+    public static final Type CHANGES = new TypeToken<List<Changes>>() {
+    }.getType();
+    public static final Type IDS = new TypeToken<List<String>>() {
+    }.getType();
+    public static final Type OWNERS = new TypeToken<HashMap<String, String>>() {
+    }.getType();
+
+    // Reply to a login; the token goes with every later reminder call
+    public record Login(boolean valid, String token) {
+    }
+
+    // Body of every non-200 reply
+    public record Failure(String error) {
+    }
+
+    // A new change subscription, polled by id
+    public record Subscribed(String id) {
+    }
+
+    // One ChangeListener call
+    public record Changes(List<Reminder> upserted, List<String> removedIds) {
+    }
+
+    // BulkResult on the wire; the error is only a message
+    public record BulkItem(int index, String id, String error) {
+
+        public static BulkItem of(int index, BulkResult result) {
+            String error = result.isSuccess() ? null : String.valueOf(result.getError().getMessage());
+            return new BulkItem(index, result.getId(), error);
+        }
+
+        public BulkResult toResult() {
+            return error == null
+                    ? BulkResult.success(index, id)
+                    : BulkResult.failure(index, id, new IllegalStateException(error));
+        }
+    }
+
+    private ServiceJson() {
+    }
+
+    // Argument object from name/value pairs; null values are left out
+    public static Map<String, Object> args(Object... namesAndValues) {
+        Map<String, Object> args = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) args.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return args;
+    }
+
+    private static <T> TypeAdapter<T> iso(Function<String, T> parse) {
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                out.value(value.toString());
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return parse.apply(in.nextString());
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.calendarreminderapp.database;
+
+import com.calendarreminderapp.metrics.StoreMetrics;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Chooses the storage backend. Firestore is the default; start the app with
+ * {@code -Dcalendar.store=local} to use the embedded log files instead (kept in
+ * {@code ~/.calendar-reminder-app}, or {@code -Dcalendar.store.dir=<path>}), or with
+ * {@code -Dcalendar.store=remote} to go through the reminder service at
+ * {@code -Dcalendar.service.url} (client mode, default {@code http://localhost:8085}).
+ * Firestore and service reminders go through an {@link OfflineReminderStore}, whose
+ * snapshot and journal live in the same directory under {@code offline/} (or
+ * {@code offline-service/}). Both stores are wrapped by {@link StoreMetrics}.
+ */
+public final class Stores {
+
+    public static final String BACKEND_PROPERTY = "calendar.store";
+    public static final String DIRECTORY_PROPERTY = "calendar.store.dir";
+    public static final String SERVICE_URL_PROPERTY = "calendar.service.url";
+
+    private static ReminderStore reminderStore;
+    private static OfflineReminderStore offlineStore; // the Firestore or service reminder store, unwrapped
+    private static UserStore userStore;
+    private static ServiceClient serviceClient;
+    private static Consumer<OfflineReminderStore.Rejection> rejectionListener;
+
+    private Stores() {
+    }
+
+    public static boolean isLocal() {
+        return "local".equals(backend());
+    }
+
+    public static boolean isRemote() {
+        return "remote".equals(backend());
+    }
+
+    private static String backend() {
+        return System.getProperty(BACKEND_PROPERTY, "firestore").toLowerCase(Locale.ROOT);
+    }
+
+    public static synchronized ReminderStore reminders() throws IOException {
+        if (reminderStore == null) {
+            ReminderStore backend;
+            if (isLocal()) {
+                backend = new LocalReminderStore(directory().resolve("reminders.log"));
+            } else {
+                // Firestore or the service behind a local snapshot and write-ahead journal, so edits survive being offline
+                ReminderStore remote = isRemote()
+                        ? StoreMetrics.instrument(ReminderStore.class, "service", new RemoteReminderStore(serviceClient()))
+                        : StoreMetrics.instrument(ReminderStore.class, "firestore", new ReminderRepository());
+                Path offline = directory().resolve(isRemote() ? "offline-service" : "offline");
+                offlineStore = new OfflineReminderStore(remote,
+                        new LocalReminderStore(offline.resolve("snapshot.log")),
+                        offline.resolve("journal.log"));
+                offlineStore.setRejectionListener(rejectionListener);
+                backend = offlineStore;
+            }
+            reminderStore = StoreMetrics.instrument(ReminderStore.class, "reminders", backend);
+        }
+        return reminderStore;
+    }
+
+    public static synchronized UserStore users() throws IOException {
+        if (userStore == null) {
+            UserStore backend;
+            if (isLocal()) {
+                backend = new LocalUserStore(directory().resolve("users.log"));
+            } else if (isRemote()) {
+                backend = new RemoteUserStore(serviceClient());
+            } else {
+                backend = new UserRepository();
+            }
+            userStore = StoreMetrics.instrument(UserStore.class, "users", backend);
+        }
+        return userStore;
+    }
+
+    // For command-line tools before they exit: gives queued offline edits a chance to reach
+    // Firestore. False if some are still waiting (they are sent the next time the app runs).
+    public static boolean awaitPendingWrites(long timeout, TimeUnit unit) throws InterruptedException {
+        OfflineReminderStore store;
+        synchronized (Stores.class) {
+            store = offlineStore;
+        }
+        return store == null || store.awaitReplay(timeout, unit);
+    }
+
+    // Offline changes the remote store refused and dropped, oldest first; none for the local backend
+    public static synchronized List<OfflineReminderStore.Rejection> rejectedChanges() {
+        return offlineStore == null ? List.of() : offlineStore.rejections();
+    }
+
+    // Told about each refused offline change, on the replay thread; kept for a store opened later
+    public static synchronized void onRejectedChange(Consumer<OfflineReminderStore.Rejection> listener) {
+        rejectionListener = listener;
+        if (offlineStore != null) offlineStore.setRejectionListener(listener);
+    }
+
+    private static synchronized ServiceClient serviceClient() {
+        if (serviceClient == null) {
+            serviceClient = new ServiceClient(URI.create(System.getProperty(SERVICE_URL_PROPERTY, "http://localhost:8085")));
+        }
+        return serviceClient;
+    }
+
+    // Store lookups off the FX thread; the Firestore stores wait for Firebase setup
+    public static CompletableFuture<UserStore> usersAsync() {
+        return Database.supplyAsync(Stores::users);
+    }
+
+    public static CompletableFuture<ReminderStore> remindersAsync() {
+        return Database.supplyAsync(Stores::reminders);
+    }
+
+    // Everything the first screens need, started together at launch
+    public static CompletableFuture<Void> warmUpAsync() {
+        CompletableFuture<?> stores = CompletableFuture.allOf(usersAsync(), remindersAsync());
+        return isLocal() || isRemote()
+                ? stores.thenApply(ignored -> null)
+                : CompletableFuture.allOf(stores, Database.warmUpAsync());
+    }
+
+    private static Path directory() {
+        String dir = System.getProperty(DIRECTORY_PROPERTY);
+        return dir != null
+                ? Path.of(dir)
+                : Path.of(System.getProperty("user.home"), ".calendar-reminder-app");
+    }
+}
@@ -0,0 +1,122 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Rewrites the month summaries (see {@link MonthSummaries}) of one user, or of every user,
+ * from their reminders, and reports how many months had drifted. Each month is recounted
+ * and rewritten in one transaction, so it is safe to run while the app is in use.
+ * {@link ReminderMigration} builds every user's summaries this way once per project.
+ *
+ * <pre>SummaryRebuild [username...]</pre>
+ */
+public class SummaryRebuild {
+
+    private static final int PAGE_SIZE = 1000;
+
+    // Months whose summary changed
+    public static int rebuild(Firestore db, String username)
+            throws ExecutionException, InterruptedException {
+
+        CollectionReference remindersRef = db.collection("reminders");
+        NavigableSet<YearMonth> months = new TreeSet<>();
+
+        // Months with reminders now (dates only), plus those with a summary from before
+        QueryDocumentSnapshot last = null;
+        while (true) {
+            Query page = remindersRef.whereEqualTo("username", username)
+                    .select("date")
+                    .orderBy(FieldPath.documentId())
+                    .limit(PAGE_SIZE);
+            if (last != null) page = page.startAfter(last);
+
+            List<QueryDocumentSnapshot> docs = page.get().get().getDocuments();
+            if (docs.isEmpty()) break;
+            for (QueryDocumentSnapshot doc : docs) {
+                String date = doc.getString("date");
+                if (date != null) months.add(YearMonth.from(LocalDate.parse(date)));
+            }
+            last = docs.get(docs.size() - 1);
+        }
+        for (DocumentReference ref : db.collection("users").document(username).collection("summaries").listDocuments()) {
+            months.add(YearMonth.parse(ref.getId()));
+        }
+
+        int drifted = 0;
+        for (YearMonth month : months) {
+            if (rebuildMonth(db, remindersRef, username, month)) drifted++;
+        }
+        return drifted;
+    }
+
+    // Rebuilds every user's summaries; returns how many users there were
+    public static int rebuildAll(Firestore db) throws ExecutionException, InterruptedException {
+        int users = 0;
+        for (DocumentReference user : db.collection("users").listDocuments()) {
+            rebuild(db, user.getId());
+            users++;
+        }
+        return users;
+    }
+
+    private static boolean rebuildMonth(Firestore db, CollectionReference remindersRef, String username, YearMonth month)
+            throws ExecutionException, InterruptedException {
+
+        DocumentReference ref = MonthSummaries.ref(db, username, month);
+        Query reminders = remindersRef
+                .whereEqualTo("username", username)
+                .whereGreaterThanOrEqualTo("startMinute", ReminderTime.startOfDay(month.atDay(1)))
+                .whereLessThan("startMinute", ReminderTime.startOfDay(month.plusMonths(1).atDay(1)));
+
+        return db.runTransaction(tx -> {
+            DocumentSnapshot stored = tx.get(ref).get();
+            QuerySnapshot docs = tx.get(reminders).get();
+
+            // Stored reminders only; series are added on read
+            List<Reminder> actual = new ArrayList<>(docs.size());
+            for (QueryDocumentSnapshot doc : docs.getDocuments()) actual.add(ReminderRepository.toReminder(doc));
+            boolean drifted = !MonthSummaries.read(month, stored).equals(MonthSummary.of(month, actual));
+
+            if (docs.isEmpty()) {
+                tx.delete(ref);
+            } else {
+                tx.set(ref, MonthSummaries.document(docs.getDocuments()));
+            }
+            return drifted;
+        }).get();
+    }
+
+    public static void main(String[] args) {
+        try {
+            Firestore db = Database.getFirestore();
+
+            if (args.length == 0) {
+                int users = rebuildAll(db);
+                System.out.println("✅ Rebuilt month summaries for " + users + " user(s)");
+                return;
+            }
+            for (String username : args) {
+                int drifted = rebuild(db, username);
+                System.out.println("✅ Rebuilt month summaries for " + username + ": " + drifted + " month(s) had drifted");
+            }
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
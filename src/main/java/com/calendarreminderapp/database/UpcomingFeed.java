@@ -0,0 +1,121 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Forward-from-now stream of one user's reminders, read a page at a time. Stored
+ * reminders come from {@link ReminderStore#getUpcomingReminders} with the last one
+ * seen as the cursor; recurring series are expanded a month at a time and merged in,
+ * so only as much of the history as the user scrolls through is ever fetched.
+ */
+public class UpcomingFeed {
+
+    static final Comparator<Reminder> FEED_ORDER =
+            Comparator.comparingLong(Reminder::getSortKey).thenComparing(Reminder::getId);
+
+    private static final int SERIES_CHUNK_DAYS = 31;
+    static final int SERIES_HORIZON_YEARS = 10; // open-ended series stop here
+
+    private final ReminderStore store;
+    private final String username;
+    private final long fromMinute;
+    private final Reminder after;
+
+    // Fetched but not yet handed out, each in FEED_ORDER
+    private final Deque<Reminder> stored = new ArrayDeque<>();
+    private final Deque<Reminder> occurrences = new ArrayDeque<>();
+
+    private Reminder storedCursor;
+    private boolean storedExhausted = false;
+
+    private List<Reminder> series;
+    private LocalDate seriesNext;
+    private LocalDate seriesHorizon;
+
+    public UpcomingFeed(ReminderStore store, String username) {
+        this(store, username, null);
+    }
+
+    // Continues after a reminder already shown (stored or an occurrence), or from now when after is null
+    public UpcomingFeed(ReminderStore store, String username, Reminder after) {
+        this.store = store;
+        this.username = username;
+        this.fromMinute = ReminderTime.now();
+        this.after = after;
+        this.storedCursor = after;
+    }
+
+    // Next limit reminders in chronological order; fewer (possibly none) once the feed runs out
+    public synchronized List<Reminder> nextPage(int limit) throws ExecutionException, InterruptedException {
+        List<Reminder> page = new ArrayList<>(limit);
+        while (page.size() < limit) {
+            if (stored.isEmpty() && !storedExhausted) fetchStored(limit);
+            if (occurrences.isEmpty()) expandSeries();
+
+            Reminder a = stored.peekFirst();
+            Reminder b = occurrences.peekFirst();
+            if (a == null && b == null) break;
+
+            boolean takeStored = b == null || (a != null && FEED_ORDER.compare(a, b) <= 0);
+            page.add(takeStored ? stored.pollFirst() : occurrences.pollFirst());
+        }
+        return page;
+    }
+
+    public CompletableFuture<List<Reminder>> nextPageAsync(int limit) {
+        return Database.supplyAsync(() -> nextPage(limit));
+    }
+
+    // False once every stored reminder and occurrence up to the horizon has been returned
+    public synchronized boolean hasMore() {
+        return !stored.isEmpty() || !occurrences.isEmpty() || !storedExhausted
+                || seriesNext == null || !seriesNext.isAfter(seriesHorizon);
+    }
+
+    private void fetchStored(int limit) throws ExecutionException, InterruptedException {
+        List<Reminder> page = store.getUpcomingReminders(username, storedCursor, limit);
+        if (page.size() < limit) storedExhausted = true;
+        if (page.isEmpty()) return;
+
+        storedCursor = page.get(page.size() - 1);
+        stored.addAll(page);
+    }
+
+    // Fills the occurrence buffer with the next chunk that has any, until the horizon
+    private void expandSeries() throws ExecutionException, InterruptedException {
+        if (series == null) {
+            series = store.getSeries(username);
+            LocalDate today = ReminderTime.dateOf(fromMinute);
+            seriesNext = after != null && LocalDate.parse(after.getDate()).isAfter(today)
+                    ? LocalDate.parse(after.getDate())
+                    : today;
+            seriesHorizon = today.plusYears(SERIES_HORIZON_YEARS);
+        }
+        if (series.isEmpty()) {
+            seriesNext = seriesHorizon.plusDays(1);
+            return;
+        }
+
+        while (occurrences.isEmpty() && !seriesNext.isAfter(seriesHorizon)) {
+            LocalDate to = seriesNext.plusDays(SERIES_CHUNK_DAYS - 1);
+            List<Reminder> chunk = new ArrayList<>();
+            for (Reminder s : series) {
+                for (Reminder r : SeriesExpansion.expand(s, seriesNext, to)) {
+                    if (r.getSortKey() < fromMinute) continue;
+                    if (after != null && FEED_ORDER.compare(r, after) <= 0) continue;
+                    chunk.add(r);
+                }
+            }
+            chunk.sort(FEED_ORDER);
+            occurrences.addAll(chunk);
+            seriesNext = to.plusDays(1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.calendarreminderapp.database;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * The next reminders from now, kept in a caller-supplied list in chronological order
+ * (the upcoming ListView's items). Pages come from {@link UpcomingFeed}; once loaded,
+ * the dates they cover are watched with range listeners, so writes from any session
+ * become single inserts and removals. Entries that have started are dropped by
+ * {@link #expire()}. Nothing is re-queried or re-sorted after a write.
+ *
+ * <p>Every method, and every change to the list, runs on the apply executor
+ * (the FX thread in the app).
+ */
+public class UpcomingWindow {
+
+    private final ReminderStore store;
+    private final String username;
+    private final List<Reminder> view;
+    private final Executor applyOn;
+
+    private final Map<String, Reminder> byId = new HashMap<>();
+    private final List<ReminderStore.Subscription> subscriptions = new ArrayList<>();
+
+    // Last loaded reminder: listener changes after it are left for the next page
+    private Reminder boundary;
+    private boolean exhausted = false;
+    private LocalDate listenedThrough;
+
+    private boolean loading = false;
+    private boolean closed = false;
+
+    // Removed while a page was loading, so that page cannot bring them back
+    private final Set<String> removedWhileLoading = new HashSet<>();
+
+    public UpcomingWindow(ReminderStore store, String username, List<Reminder> view, Executor applyOn) {
+        this.store = store;
+        this.username = username;
+        this.view = view;
+        this.applyOn = applyOn;
+        this.listenedThrough = LocalDate.now().minusDays(1);
+    }
+
+    // Loads up to count more reminders after the last one shown
+    public void extend(int count) {
+        if (closed || loading || exhausted) return;
+
+        loading = true;
+        removedWhileLoading.clear();
+        new UpcomingFeed(store, username, boundary).nextPageAsync(count)
+                .whenComplete((page, e) -> applyOn.execute(() -> {
+                    if (closed) return;
+                    loading = false;
+                    if (e != null) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    applyPage(page, count);
+                }));
+    }
+
+    // Drops reminders whose start minute has passed; they are always at the head
+    public void expire() {
+        long now = ReminderTime.now();
+        while (!view.isEmpty() && view.get(0).getSortKey() < now) {
+            byId.remove(view.remove(0).getId());
+        }
+    }
+
+    public void close() {
+        closed = true;
+        subscriptions.forEach(ReminderStore.Subscription::cancel);
+        subscriptions.clear();
+    }
+
+    private void applyPage(List<Reminder> page, int requested) {
+        for (Reminder r : page) {
+            if (!removedWhileLoading.contains(r.getId())) upsert(r);
+        }
+        if (!page.isEmpty()) boundary = page.get(page.size() - 1);
+        if (page.size() < requested) exhausted = true;
+
+        // Watch the dates this page added; past the last reminder, watch up to the feed's horizon
+        LocalDate through = exhausted
+                ? LocalDate.now().plusYears(UpcomingFeed.SERIES_HORIZON_YEARS)
+                : LocalDate.parse(boundary.getDate());
+        if (through.isAfter(listenedThrough)) {
+            LocalDate from = listenedThrough.plusDays(1);
+            subscriptions.add(store.listenToRange(username, from, through,
+                    (upserted, removedIds) -> applyOn.execute(() -> applyChanges(upserted, removedIds))));
+            listenedThrough = through;
+        }
+    }
+
+    private void applyChanges(List<Reminder> upserted, List<String> removedIds) {
+        if (closed) return;
+
+        for (String id : removedIds) {
+            remove(id);
+            if (loading) removedWhileLoading.add(id);
+        }
+        long now = ReminderTime.now();
+        for (Reminder r : upserted) {
+            if (r.getSortKey() >= now && (exhausted || (boundary != null
+                    && UpcomingFeed.FEED_ORDER.compare(r, boundary) <= 0))) {
+                upsert(r);
+            } else {
+                remove(r.getId()); // moved out of the window (or into the part not loaded yet)
+            }
+        }
+    }
+
+    private void upsert(Reminder r) {
+        Reminder old = byId.get(r.getId());
+        if (old != null) {
+            int at = indexOf(old);
+            // Same position: replace in place so the list sees one update instead of remove + add
+            if (UpcomingFeed.FEED_ORDER.compare(old, r) == 0) {
+                view.set(at, r);
+                byId.put(r.getId(), r);
+                return;
+            }
+            view.remove(at);
+        }
+        int pos = Collections.binarySearch(view, r, UpcomingFeed.FEED_ORDER);
+        view.add(pos < 0 ? -pos - 1 : pos, r);
+        byId.put(r.getId(), r);
+    }
+
+    private void remove(String id) {
+        Reminder old = byId.remove(id);
+        if (old != null) view.remove(indexOf(old));
+    }
+
+    private int indexOf(Reminder r) {
+        return Collections.binarySearch(view, r, UpcomingFeed.FEED_ORDER);
+    }
+}
@@ -10,7 +10,8 @@ import com.google.cloud.firestore.WriteResult;
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 
-public class UserRepository {
+// Firestore-backed UserStore
+public class UserRepository implements UserStore {
 
     private final CollectionReference usersRef;
 
@@ -20,6 +21,7 @@ public class UserRepository {
     }
 
 
+    @Override
     public void createUser(String username, String password)
             throws ExecutionException, InterruptedException {
 
@@ -31,6 +33,7 @@ public class UserRepository {
     }
 
 
+    @Override
     public boolean validateUser(String username, String password)
             throws ExecutionException, InterruptedException {
 
@@ -43,7 +46,7 @@ public class UserRepository {
             return false;
         }
 
-        User user = snapshot.toObject(User.class);
+        User user = DocumentCodec.toUser(snapshot);
         if (user == null) {
             return false;
         }
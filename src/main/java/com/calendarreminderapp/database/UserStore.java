@@ -0,0 +1,31 @@
+package com.calendarreminderapp.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage backend for user accounts. {@link UserRepository} talks to Firestore,
+ * {@link LocalUserStore} keeps accounts in an embedded on-disk log.
+ * Pick one through {@link Stores}.
+ */
+public interface UserStore {
+
+    void createUser(String username, String password)
+            throws ExecutionException, InterruptedException;
+
+    boolean validateUser(String username, String password)
+            throws ExecutionException, InterruptedException;
+
+    // ASYNC VARIANTS (run on the shared I/O pool, never on the FX thread)
+
+    default CompletableFuture<Void> createUserAsync(String username, String password) {
+        return Database.supplyAsync(() -> {
+            createUser(username, password);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Boolean> validateUserAsync(String username, String password) {
+        return Database.supplyAsync(() -> validateUser(username, password));
+    }
+}
@@ -0,0 +1,86 @@
+package com.calendarreminderapp.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Write-ahead journal of mutations the remote store has not confirmed yet, kept in an
+ * {@link AppendLog}. Entries stay in write order until acknowledged. An acknowledgement
+ * is a record of its own holding how many entries are done, and the log is cleared
+ * once nothing is outstanding, so the file only ever holds unconfirmed work.
+ */
+class WriteJournal implements Closeable {
+
+    record Entry(byte op, String[] fields) {
+    }
+
+    private static final byte OP_ACK = Byte.MAX_VALUE;
+
+    private final AppendLog log;
+    private final Deque<Entry> pending = new ArrayDeque<>();
+
+    // Entries acknowledged since the log was last cleared
+    private long acknowledged;
+
+    WriteJournal(Path file) throws IOException {
+        this.log = new AppendLog(file);
+
+        List<Entry> entries = new ArrayList<>();
+        long[] done = {0};
+        log.replay((op, fields) -> {
+            if (op == OP_ACK) {
+                done[0] = Long.parseLong(fields[0]);
+            } else {
+                entries.add(new Entry(op, fields));
+            }
+        });
+        acknowledged = done[0];
+        pending.addAll(entries.subList((int) acknowledged, entries.size()));
+    }
+
+    // Appends without flushing; call sync() before acting on what was written
+    synchronized void write(byte op, String... fields) throws IOException {
+        log.write(op, fields);
+        pending.addLast(new Entry(op, fields));
+    }
+
+    synchronized void sync() {
+        log.sync();
+    }
+
+    // Oldest outstanding entries, at most max of them
+    synchronized List<Entry> peek(int max) {
+        List<Entry> head = new ArrayList<>(Math.min(max, pending.size()));
+        Iterator<Entry> it = pending.iterator();
+        while (head.size() < max && it.hasNext()) head.add(it.next());
+        return head;
+    }
+
+    // Marks the oldest count entries as done for good
+    synchronized void acknowledge(int count) throws IOException {
+        for (int i = 0; i < count; i++) pending.removeFirst();
+        acknowledged += count;
+
+        if (pending.isEmpty()) {
+            log.clear();
+            acknowledged = 0;
+        } else {
+            log.append(OP_ACK, Long.toString(acknowledged));
+        }
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        log.close();
+    }
+}
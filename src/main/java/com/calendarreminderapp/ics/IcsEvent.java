@@ -0,0 +1,22 @@
+package com.calendarreminderapp.ics;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The parts of a VEVENT this app keeps. Times are wall-clock in the user's zone;
+ * all-day events start at midnight.
+ *
+ * @param key        identifies the event within its file (UID plus RECURRENCE-ID, or its content when there is no UID)
+ * @param recurrence the RRULE value, or null for a single event
+ * @param exceptions EXDATE dates removed from the recurrence
+ */
+public record IcsEvent(String key,
+                       LocalDate date,
+                       LocalTime time,
+                       String summary,
+                       String description,
+                       String recurrence,
+                       List<LocalDate> exceptions) {
+}
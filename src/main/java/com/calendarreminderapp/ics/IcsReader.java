@@ -0,0 +1,207 @@
+package com.calendarreminderapp.ics;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for iCalendar (RFC 5545) files. Reads one VEVENT at a time, so memory
+ * stays flat however many events the file holds. Components other than VEVENT
+ * (VTIMEZONE, VALARM, ...) and unknown properties are skipped.
+ */
+public class IcsReader implements Closeable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final BufferedReader in;
+    private final ZoneId zone;
+
+    // Physical line read ahead while unfolding the previous logical line
+    private String lookahead;
+
+    public IcsReader(Reader reader) {
+        this(reader, ZoneId.systemDefault());
+    }
+
+    // zone: where UTC and TZID times are converted to wall-clock reminders
+    public IcsReader(Reader reader, ZoneId zone) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        this.zone = zone;
+    }
+
+    // Next event with a usable DTSTART, or null at end of input
+    public IcsEvent next() throws IOException {
+        String line;
+        while ((line = readLogicalLine()) != null) {
+            if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                IcsEvent event = readEvent();
+                if (event != null) return event;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private IcsEvent readEvent() throws IOException {
+        String uid = null;
+        String recurrenceId = null;
+        String start = null;
+        LocalDateTime startTime = null;
+        String summary = null;
+        String description = null;
+        String recurrence = null;
+        List<LocalDate> exceptions = new ArrayList<>();
+        int nested = 0;
+
+        String line;
+        while ((line = readLogicalLine()) != null) {
+            int colon = valueSeparator(line);
+            if (colon < 0) continue;
+
+            String head = line.substring(0, colon);
+            String value = line.substring(colon + 1);
+            int semi = head.indexOf(';');
+            String name = (semi < 0 ? head : head.substring(0, semi)).toUpperCase();
+            String params = semi < 0 ? "" : head.substring(semi + 1);
+
+            if (name.equals("BEGIN")) {
+                nested++; // VALARM etc.
+                continue;
+            }
+            if (name.equals("END")) {
+                if (nested > 0) {
+                    nested--;
+                    continue;
+                }
+                break;
+            }
+            if (nested > 0) continue;
+
+            switch (name) {
+                case "UID" -> uid = value;
+                case "RECURRENCE-ID" -> recurrenceId = value;
+                case "SUMMARY" -> summary = unescape(value);
+                case "DESCRIPTION" -> description = unescape(value);
+                case "RRULE" -> recurrence = value;
+                case "EXDATE" -> {
+                    for (String v : value.split(",")) {
+                        LocalDateTime excluded = parseDateTime(v.trim(), params);
+                        if (excluded != null) exceptions.add(excluded.toLocalDate());
+                    }
+                }
+                case "DTSTART" -> {
+                    start = value;
+                    startTime = parseDateTime(value, params);
+                }
+                default -> { }
+            }
+        }
+
+        if (startTime == null) return null;
+
+        String key = uid != null
+                ? uid + (recurrenceId != null ? "/" + recurrenceId : "")
+                : start + "/" + summary + "/" + description;
+        return new IcsEvent(key,
+                startTime.toLocalDate(),
+                startTime.toLocalTime(),
+                summary != null ? summary : "",
+                description != null ? description : "",
+                recurrence,
+                exceptions);
+    }
+
+    private LocalDateTime parseDateTime(String value, String params) {
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DATE).atStartOfDay();
+            }
+            if (value.endsWith("Z")) {
+                LocalDateTime utc = LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME);
+                return utc.atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+            }
+
+            LocalDateTime local = LocalDateTime.parse(value, DATE_TIME);
+            String tzid = param(params, "TZID");
+            if (tzid == null) return local; // floating time
+
+            try {
+                return local.atZone(ZoneId.of(tzid)).withZoneSameInstant(zone).toLocalDateTime();
+            } catch (DateTimeException e) {
+                return local; // non-IANA TZID (e.g. Windows names): keep the wall-clock time
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // Unfolds continuation lines (those starting with a space or tab)
+    private String readLogicalLine() throws IOException {
+        String line = lookahead != null ? lookahead : in.readLine();
+        lookahead = null;
+        if (line == null) return null;
+
+        StringBuilder sb = null;
+        String next;
+        while ((next = in.readLine()) != null && !next.isEmpty()
+                && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (sb == null) sb = new StringBuilder(line);
+            sb.append(next, 1, next.length());
+        }
+        lookahead = next;
+        return sb != null ? sb.toString() : line;
+    }
+
+    // First ':' outside a quoted parameter value
+    private static int valueSeparator(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ':' && !quoted) return i;
+        }
+        return -1;
+    }
+
+    private static String param(String params, String name) {
+        for (String p : params.split(";")) {
+            int eq = p.indexOf('=');
+            if (eq > 0 && p.substring(0, eq).equalsIgnoreCase(name)) {
+                String v = p.substring(eq + 1);
+                return v.startsWith("\"") && v.endsWith("\"") && v.length() > 1 ? v.substring(1, v.length() - 1) : v;
+            }
+        }
+        return null;
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) return value;
+
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char n = value.charAt(++i);
+                sb.append(n == 'n' || n == 'N' ? '\n' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
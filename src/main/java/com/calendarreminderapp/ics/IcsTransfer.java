@@ -0,0 +1,240 @@
+package com.calendarreminderapp.ics;
+
+import com.calendarreminderapp.database.BulkResult;
+import com.calendarreminderapp.database.Recurrence;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ReminderTime;
+import com.calendarreminderapp.database.Stores;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams reminders between a store and .ics files with memory bounded by the chunk
+ * size, not the file size.
+ *
+ * <p>Import parses the next chunk while the previous one is being written through the
+ * store's bulk API (a throttled BulkWriter on Firestore). Each event gets an id derived
+ * from the user and its UID, so re-importing a file updates rather than duplicates.
+ * After every written chunk the number of events done is saved next to the file;
+ * an interrupted import picks up from there on the next run.
+ *
+ * <p>Export pages through the user's reminders with a (startMinute, id) cursor, then
+ * writes each recurring series once with its rule.
+ */
+public final class IcsTransfer {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final long REPLAY_WAIT_MINUTES = 10; // before exiting with edits still queued offline
+
+    public interface Progress {
+        void onProgress(long processed);
+    }
+
+    /**
+     * @param resumedFrom events skipped because an earlier run already wrote them
+     */
+    public record ImportResult(long imported, long failed, long resumedFrom) {
+    }
+
+    private IcsTransfer() {
+    }
+
+    public static ImportResult importFile(ReminderStore store, String username, Path file, Progress progress)
+            throws IOException, ExecutionException, InterruptedException {
+
+        Path checkpoint = checkpointFor(file);
+        long resumedFrom = readCheckpoint(checkpoint, username);
+
+        long seen = 0;
+        long imported = 0;
+        long failed = 0;
+
+        CompletableFuture<List<BulkResult>> inFlight = null;
+        long inFlightEnd = 0;
+
+        try (IcsReader reader = new IcsReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<Reminder> chunk = new ArrayList<>(CHUNK_SIZE);
+            IcsEvent event;
+            while (true) {
+                event = reader.next();
+                if (event != null) {
+                    if (++seen <= resumedFrom) continue;
+                    Reminder r = toReminder(username, event);
+                    if (r.getRecurrence() != null) {
+                        store.addSeries(r); // series are few; written inline, in file order
+                        imported++;
+                        continue;
+                    }
+                    chunk.add(r);
+                    if (chunk.size() < CHUNK_SIZE) continue;
+                } else if (chunk.isEmpty()) {
+                    break;
+                }
+
+                // Keep at most one chunk writing while the next one is parsed
+                if (inFlight != null) {
+                    long[] counts = finish(inFlight, checkpoint, username, inFlightEnd, progress);
+                    imported += counts[0];
+                    failed += counts[1];
+                }
+                inFlight = store.addRemindersAsync(chunk);
+                inFlightEnd = seen;
+                chunk = new ArrayList<>(CHUNK_SIZE);
+
+                if (event == null) break;
+            }
+        }
+        if (inFlight != null) {
+            long[] counts = finish(inFlight, checkpoint, username, inFlightEnd, progress);
+            imported += counts[0];
+            failed += counts[1];
+        }
+
+        Files.deleteIfExists(checkpoint);
+        return new ImportResult(imported, failed, resumedFrom);
+    }
+
+    public static long exportFile(ReminderStore store, String username, Path file, Progress progress)
+            throws IOException, ExecutionException, InterruptedException {
+
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long written = 0;
+
+        try (Writer out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8);
+             IcsWriter writer = new IcsWriter(out)) {
+
+            Reminder last = null;
+            while (true) {
+                List<Reminder> page = store.getRemindersPage(username, Long.MIN_VALUE, last, CHUNK_SIZE);
+                for (Reminder r : page) {
+                    writer.write(r);
+                }
+                written += page.size();
+                if (progress != null) progress.onProgress(written);
+
+                if (page.size() < CHUNK_SIZE) break;
+                last = page.get(page.size() - 1);
+            }
+
+            for (Reminder series : store.getSeries(username)) {
+                writer.write(series);
+                written++;
+            }
+        }
+
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        return written;
+    }
+
+    // Waits for a chunk, records it in the checkpoint and returns {imported, failed}
+    private static long[] finish(CompletableFuture<List<BulkResult>> inFlight,
+                                 Path checkpoint,
+                                 String username,
+                                 long processed,
+                                 Progress progress)
+            throws IOException, ExecutionException, InterruptedException {
+
+        long ok = 0;
+        long failed = 0;
+        for (BulkResult result : inFlight.get()) {
+            if (result.isSuccess()) {
+                ok++;
+            } else {
+                failed++;
+                System.err.println("Could not import reminder " + result);
+            }
+        }
+
+        writeCheckpoint(checkpoint, username, processed);
+        if (progress != null) progress.onProgress(processed);
+        return new long[]{ok, failed};
+    }
+
+    static Reminder toReminder(String username, IcsEvent event) {
+        Reminder r = new Reminder(username,
+                event.date().toString(),
+                event.summary(),
+                event.description(),
+                ReminderTime.format(event.time()));
+
+        String key = username + "\n" + event.key();
+        r.setId("ics-" + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)));
+
+        // Rules the app cannot expand (BYSETPOS, monthly BYDAY, ...) import as their first occurrence
+        if (event.recurrence() != null) {
+            try {
+                r.setRecurrence(Recurrence.parse(event.recurrence()).toRule());
+                List<String> exceptions = new ArrayList<>();
+                for (LocalDate d : event.exceptions()) exceptions.add(d.toString());
+                r.setExceptions(exceptions);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Importing a single occurrence of '" + event.summary() + "': " + e.getMessage());
+            }
+        }
+        return r;
+    }
+
+    private static Path checkpointFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".import-progress");
+    }
+
+    // Events already written for this user, or 0 when there is nothing to resume
+    private static long readCheckpoint(Path checkpoint, String username) throws IOException {
+        if (!Files.exists(checkpoint)) return 0;
+
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        if (lines.size() < 2 || !lines.get(0).equals(username)) return 0;
+        try {
+            return Long.parseLong(lines.get(1).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpoint, String username, long processed) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(tmp, username + "\n" + processed + "\n", StandardCharsets.UTF_8);
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Usage: IcsTransfer import|export <username> <file.ics>
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Usage: IcsTransfer import|export <username> <file.ics>");
+            return;
+        }
+
+        Path file = Path.of(args[2]);
+        try {
+            ReminderStore store = Stores.reminders();
+            if (args[0].equals("import")) {
+                ImportResult result = importFile(store, args[1], file,
+                        n -> System.out.println("… " + n + " event(s) processed"));
+                System.out.println("✅ Imported " + result.imported() + " reminder(s), "
+                        + result.failed() + " failed"
+                        + (result.resumedFrom() > 0 ? ", resumed after " + result.resumedFrom() : ""));
+            } else {
+                long count = exportFile(store, args[1], file, null);
+                System.out.println("✅ Exported " + count + " reminder(s) to " + file);
+            }
+            if (!Stores.awaitPendingWrites(REPLAY_WAIT_MINUTES, TimeUnit.MINUTES)) {
+                System.out.println("⏳ Firestore is unreachable; queued changes are sent the next time the app runs");
+            }
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.calendarreminderapp.ics;
+
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderTime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes reminders as iCalendar VEVENTs, one at a time; a recurring series becomes
+ * one event with its RRULE and EXDATEs. Start times are written as
+ * floating local times since reminders carry no zone. The VCALENDAR wrapper is
+ * opened on construction and closed by {@link #close()}.
+ */
+public class IcsWriter implements Closeable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private static final int MAX_LINE_BYTES = 75; // RFC 5545 3.1, excluding CRLF
+    static final String UID_SUFFIX = "@calendar-reminder-app";
+
+    private final Writer out;
+    private final String stamp = STAMP.format(Instant.now());
+
+    public IcsWriter(Writer out) throws IOException {
+        this.out = out;
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Calendar Reminder App//EN");
+    }
+
+    public void write(Reminder r) throws IOException {
+        long start = r.getSortKey();
+        LocalDate date = ReminderTime.dateOf(start);
+        int minute = ReminderTime.minuteOfDay(start);
+
+        line("BEGIN:VEVENT");
+        line("UID:" + r.getId() + UID_SUFFIX);
+        line("DTSTAMP:" + stamp);
+        line(String.format("DTSTART:%sT%02d%02d00", DATE.format(date), minute / 60, minute % 60));
+        if (r.getRecurrence() != null && !r.isOccurrence()) {
+            line("RRULE:" + r.getRecurrence());
+            if (r.getExceptions() != null && !r.getExceptions().isEmpty()) {
+                StringBuilder dates = new StringBuilder();
+                for (String d : r.getExceptions()) {
+                    if (dates.length() > 0) dates.append(',');
+                    dates.append(String.format("%sT%02d%02d00", DATE.format(LocalDate.parse(d)), minute / 60, minute % 60));
+                }
+                line("EXDATE:" + dates);
+            }
+        }
+        line("SUMMARY:" + escape(r.getTitle()));
+        if (r.getDescription() != null && !r.getDescription().isBlank()) {
+            line("DESCRIPTION:" + escape(r.getDescription()));
+        }
+        line("END:VEVENT");
+    }
+
+    @Override
+    public void close() throws IOException {
+        line("END:VCALENDAR");
+        out.close();
+    }
+
+    // Folds at 75 octets without splitting a UTF-8 sequence
+    private void line(String content) throws IOException {
+        int bytes = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int cp = content.codePointAt(i);
+            int len = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (bytes + len > MAX_LINE_BYTES) {
+                out.write("\r\n ");
+                bytes = 1;
+            }
+            out.write(Character.toChars(cp));
+            bytes += len;
+            i += Character.charCount(cp);
+        }
+        out.write("\r\n");
+    }
+
+    static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
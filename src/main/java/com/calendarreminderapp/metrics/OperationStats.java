@@ -0,0 +1,87 @@
+package com.calendarreminderapp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters, latency histogram and payload gauges for one store operation.
+ */
+public class OperationStats implements OperationStatsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String store;
+    private final String operation;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    OperationStats(String store, String operation) {
+        this.store = store;
+        this.operation = operation;
+    }
+
+    public void record(long nanos, boolean failed, long docs, long payloadBytes) {
+        latency.record(nanos);
+        if (failed) errors.increment();
+        documents.add(docs);
+        bytes.add(payloadBytes);
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.percentileNanos(0.50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.percentileNanos(0.95) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.percentileNanos(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.maxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        documents.reset();
+        bytes.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package com.calendarreminderapp.metrics;
+
+/**
+ * JMX view of one store operation, registered as
+ * {@code com.calendarreminderapp:type=StoreMetrics,store=<store>,name=<operation>}.
+ */
+public interface OperationStatsMXBean {
+
+    long getCalls();
+
+    long getErrors();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    // Reminder documents read or written by the operation
+    long getDocuments();
+
+    // Estimated Firestore size of those documents
+    long getBytes();
+
+    void reset();
+}
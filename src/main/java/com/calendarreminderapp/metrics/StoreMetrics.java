@@ -0,0 +1,188 @@
+package com.calendarreminderapp.metrics;
+
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderHeader;
+import com.calendarreminderapp.database.ReminderStore;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-operation metrics for the storage backends. {@link #instrument} wraps a store
+ * interface so every synchronous method is timed and its reminders counted; the async
+ * variants run through the timed synchronous ones. Each operation is also published
+ * as an {@link OperationStatsMXBean}, so the numbers can be watched from JConsole.
+ */
+public final class StoreMetrics {
+
+    private static final String JMX_DOMAIN = "com.calendarreminderapp";
+
+    private static final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    private StoreMetrics() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> type, String store, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+            // Async defaults only hand work to the I/O pool; the sync call they make is timed
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            for (int i = 0; args != null && i < args.length; i++) {
+                if (args[i] instanceof ReminderStore.ChangeListener listener) {
+                    args[i] = countChanges(store, method.getName() + ".onChanges", listener);
+                }
+            }
+            return timed(store, method.getName(), () -> invoke(target, method, args), args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // All operations seen so far, slowest p95 first
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> list = new ArrayList<>(stats.values());
+        list.sort(Comparator.comparingDouble(OperationStats::getP95Millis).reversed()
+                .thenComparing(OperationStats::getOperation));
+        return list;
+    }
+
+    public static void resetAll() {
+        stats.values().forEach(OperationStats::reset);
+    }
+
+    public static OperationStats stats(String store, String operation) {
+        return stats.computeIfAbsent(store + "." + operation, key -> register(new OperationStats(store, operation)));
+    }
+
+    private interface Call {
+        Object run() throws Throwable;
+    }
+
+    private static Object timed(String store, String operation, Call call, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = call.run();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            long[] payload = new long[2];
+            measure(result, payload);
+            // Written reminders count too; a read's arguments (e.g. a page cursor) do not
+            if (args != null && !operation.startsWith("get")) {
+                for (Object arg : args) measure(arg, payload);
+                // Field-by-field calls (addReminder, createUser, ...) touch a single document
+                if (payload[0] == 0 && !operation.startsWith("listenTo")) {
+                    payload[0] = 1;
+                    payload[1] = 32;
+                    for (Object arg : args) {
+                        if (arg instanceof String text) payload[1] += text.getBytes(StandardCharsets.UTF_8).length + 1;
+                    }
+                }
+            }
+            stats(store, operation).record(nanos, failed, payload[0], payload[1]);
+        }
+    }
+
+    // Snapshot events are measured as their own operation: time spent applying them and their size
+    private static ReminderStore.ChangeListener countChanges(String store,
+                                                             String operation,
+                                                             ReminderStore.ChangeListener listener) {
+        return (upserted, removedIds) -> {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                listener.onChanges(upserted, removedIds);
+                failed = false;
+            } finally {
+                long[] payload = new long[2];
+                measure(upserted, payload);
+                payload[0] += removedIds.size();
+                stats(store, operation).record(System.nanoTime() - start, failed, payload[0], payload[1]);
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Adds reminder count and estimated document bytes of a value (reminder or header, collection or day map)
+    private static void measure(Object value, long[] payload) {
+        if (value instanceof Reminder reminder) {
+            payload[0]++;
+            payload[1] += estimateBytes(reminder);
+        } else if (value instanceof ReminderHeader header) {
+            payload[0]++;
+            payload[1] += estimateBytes(header);
+        } else if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                if (!(item instanceof Reminder) && !(item instanceof ReminderHeader)
+                        && !(item instanceof Collection<?>)) return; // not reminders
+                measure(item, payload);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            for (Object item : map.values()) measure(item, payload);
+        }
+    }
+
+    // Firestore's document size rule: name + 1 byte per field, UTF-8 length + 1 per string, 8 per number, 32 overhead
+    static long estimateBytes(Reminder r) {
+        long size = 32;
+        size += field("username", r.getUsername()) + field("date", r.getDate())
+                + field("title", r.getTitle()) + field("description", r.getDescription())
+                + field("time", r.getTime()) + field("recurrence", r.getRecurrence())
+                + field("seriesId", r.getSeriesId()) + field("originalDate", r.getOriginalDate());
+        if (r.getStartMinute() != null) size += "startMinute".length() + 1 + 8;
+        if (r.getExceptions() != null) {
+            size += "exceptions".length() + 1;
+            for (String date : r.getExceptions()) size += date.length() + 1;
+        }
+        return size;
+    }
+
+    // Only the projected fields come back
+    static long estimateBytes(ReminderHeader h) {
+        return 32 + field("date", h.date()) + field("time", h.time()) + field("title", h.title())
+                + "startMinute".length() + 1 + 8;
+    }
+
+    private static long field(String name, String value) {
+        return value == null ? 0 : name.length() + 1 + value.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+
+    private static OperationStats register(OperationStats operation) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=StoreMetrics,store=" + operation.getStore()
+                    + ",name=" + ObjectName.quote(operation.getOperation()));
+            if (!server.isRegistered(name)) server.registerMBean(operation, name);
+        } catch (JMException e) {
+            e.printStackTrace(); // metrics still show in the diagnostics panel
+        }
+        return operation;
+    }
+}
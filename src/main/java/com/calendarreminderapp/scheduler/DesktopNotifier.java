@@ -0,0 +1,68 @@
+package com.calendarreminderapp.scheduler;
+
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.SystemTray;
+import java.awt.Toolkit;
+import java.awt.TrayIcon;
+
+/**
+ * Shows reminder notifications through the OS notification area when there is one,
+ * and as a non-blocking JavaFX alert otherwise.
+ */
+public class DesktopNotifier implements ReminderScheduler.Notifier {
+
+    // Only touched on the AWT event thread, except for the null check in close()
+    private volatile TrayIcon trayIcon;
+
+    @Override
+    public void show(String title, String message) {
+        if (!GraphicsEnvironment.isHeadless() && SystemTray.isSupported()) {
+            EventQueue.invokeLater(() -> showInTray(title, message));
+            return;
+        }
+
+        try {
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Reminder");
+                alert.setHeaderText(title);
+                alert.setContentText(message);
+                alert.show();
+            });
+        } catch (IllegalStateException e) {
+            // FX toolkit not running (command-line use)
+            System.out.println("🔔 " + title + (message.isEmpty() ? "" : ": " + message));
+        }
+    }
+
+    // Removes the tray icon; call when the user logs out
+    public void close() {
+        if (trayIcon == null) return; // never started AWT, keep it that way
+        EventQueue.invokeLater(() -> {
+            if (trayIcon != null) {
+                SystemTray.getSystemTray().remove(trayIcon);
+                trayIcon = null;
+            }
+        });
+    }
+
+    private void showInTray(String title, String message) {
+        try {
+            if (trayIcon == null) {
+                Image image = Toolkit.getDefaultToolkit()
+                        .getImage(getClass().getResource("/com/calendarreminderapp/images/calendar-icon.png"));
+                trayIcon = new TrayIcon(image, "Calendar Reminder App");
+                trayIcon.setImageAutoSize(true);
+                SystemTray.getSystemTray().add(trayIcon);
+            }
+            trayIcon.displayMessage(title, message, TrayIcon.MessageType.INFO);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
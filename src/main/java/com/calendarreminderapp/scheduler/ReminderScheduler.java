@@ -0,0 +1,257 @@
+package com.calendarreminderapp.scheduler;
+
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ReminderTime;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Fires notifications for one user's reminders when they come due.
+ *
+ * <p>Pending reminders sit in a queue ordered by due minute (a TreeSet plus an id
+ * index, so insert and cancel are O(log n)). The queue is fed by the store's live
+ * range listeners over the next {@link #HORIZON_DAYS} days, so adds, edits and deletes
+ * from any session are applied as they happen and nothing rescans the store. As days
+ * pass the horizon slides: listeners for past days are dropped and one for the next
+ * {@link #EXTEND_DAYS} days is added, so only new days are read.
+ *
+ * <p>One daemon thread sleeps until the head of the queue is due. Due times are
+ * wall-clock minutes (see {@link ReminderTime}) compared against the current
+ * wall clock on every wake-up, and no single wait exceeds {@link #MAX_WAIT_MILLIS},
+ * so a laptop waking from sleep, a manual clock change or a DST switch is noticed
+ * within that bound. Reminders that were due more than {@link #LATE_GRACE_MINUTES}
+ * ago when noticed (typically missed during sleep) are summarised in one notification.
+ * Nothing is counted as handled until the listener covering today has delivered its
+ * initial contents, so reminders that come due while it loads still fire or are reported.
+ */
+public class ReminderScheduler {
+
+    public interface Notifier {
+        void show(String title, String message);
+    }
+
+    static final int HORIZON_DAYS = 366;
+    static final int EXTEND_DAYS = 31;
+    static final long MAX_WAIT_MILLIS = 30_000;
+    static final long LATE_GRACE_MINUTES = 10;
+
+    // segment is the listener that delivered the entry; only it may remove the entry again
+    private record Entry(long due, String id, Reminder reminder, Segment segment) {
+    }
+
+    // One range listener of the horizon
+    private static final class Segment {
+        final LocalDate from;
+        final LocalDate to;
+        ReminderStore.Subscription subscription;
+        boolean synced = false;
+
+        Segment(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static final Comparator<Entry> BY_DUE = Comparator.comparingLong(Entry::due).thenComparing(Entry::id);
+
+    private final ReminderStore store;
+    private final String username;
+    private final Notifier notifier;
+
+    private final TreeSet<Entry> queue = new TreeSet<>(BY_DUE);
+    private final Map<String, Entry> byId = new HashMap<>();
+
+    // Listened ranges by first day, together covering [anchorDay, coveredThrough]
+    private final TreeMap<LocalDate, Segment> segments = new TreeMap<>();
+    private LocalDate anchorDay;
+    private LocalDate coveredThrough;
+
+    // Everything due at or before this minute has been handled; never moves backwards,
+    // so turning the clock back does not replay notifications
+    private long firedThrough;
+
+    private Thread thread;
+    private boolean running = false;
+
+    public ReminderScheduler(ReminderStore store, String username, Notifier notifier) {
+        this.store = store;
+        this.username = username;
+        this.notifier = notifier;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+
+        // Reminders in the current minute still fire; older ones are history
+        firedThrough = nowMinute() - 1;
+        anchor(LocalDate.now());
+
+        thread = new Thread(this::run, "reminder-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        reset();
+        notifyAll();
+    }
+
+    public synchronized int pendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (true) {
+            List<Reminder> due = new ArrayList<>();
+            int missed = 0;
+
+            synchronized (this) {
+                if (!running) return;
+
+                long now = nowMinute();
+
+                // Settle what is due before the horizon moves, so nothing is dropped unreported
+                while (!queue.isEmpty() && queue.first().due() <= now) {
+                    Entry e = queue.pollFirst();
+                    byId.remove(e.id());
+                    if (e.due() <= firedThrough) continue;
+
+                    if (now - e.due() <= LATE_GRACE_MINUTES) due.add(e.reminder());
+                    else missed++;
+                }
+                // The current minute stays open so a reminder added for "now" still fires.
+                // Until today's listener has loaded, the queue may lack reminders due by now.
+                Segment current = segments.isEmpty() ? null : segments.firstEntry().getValue();
+                if (current != null && current.synced) {
+                    firedThrough = Math.max(firedThrough, now - 1);
+                }
+
+                LocalDate today = ReminderTime.dateOf(now);
+                if (!today.equals(anchorDay)) {
+                    anchor(today); // new day (or a clock jump): slide the horizon
+                }
+
+                if (due.isEmpty() && missed == 0) {
+                    try {
+                        wait(waitMillis());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            // Notify outside the lock so a slow notifier never blocks listener updates
+            for (Reminder r : due) {
+                notifier.show(r.getTime() + " — " + r.getTitle(),
+                        r.getDescription() == null ? "" : r.getDescription());
+            }
+            if (missed > 0) {
+                notifier.show("Missed reminders",
+                        missed + " reminder(s) came due while the app could not run.");
+            }
+        }
+    }
+
+    // Until the start of the head's due minute, capped so clock changes are noticed
+    private long waitMillis() {
+        if (queue.isEmpty()) return MAX_WAIT_MILLIS;
+
+        LocalDateTime next = ReminderTime.dateOf(queue.first().due())
+                .atStartOfDay()
+                .plusMinutes(ReminderTime.minuteOfDay(queue.first().due()));
+        long millis = Duration.between(LocalDateTime.now(), next).toMillis();
+        return Math.max(1, Math.min(millis, MAX_WAIT_MILLIS));
+    }
+
+    // Moves the horizon to [today, today + horizon]. Moving forward drops the listeners for
+    // past days and adds one for the days that are new; anything else starts over.
+    private void anchor(LocalDate today) {
+        LocalDate horizon = today.plusDays(HORIZON_DAYS);
+        if (anchorDay == null || today.isBefore(anchorDay) || today.isAfter(coveredThrough)) {
+            reset();
+            anchorDay = today;
+            coveredThrough = horizon;
+            listen(new Segment(today, horizon));
+            return;
+        }
+
+        anchorDay = today;
+        while (!segments.isEmpty() && segments.firstEntry().getValue().to.isBefore(today)) {
+            Segment past = segments.pollFirstEntry().getValue();
+            past.subscription.cancel();
+            queue.removeIf(e -> e.segment() == past); // all due before today, so already settled
+            byId.values().removeIf(e -> e.segment() == past);
+        }
+        if (coveredThrough.isBefore(horizon)) {
+            LocalDate from = coveredThrough.plusDays(1);
+            coveredThrough = horizon.plusDays(EXTEND_DAYS - 1);
+            listen(new Segment(from, coveredThrough));
+        }
+    }
+
+    private void listen(Segment segment) {
+        segments.put(segment.from, segment);
+        segment.subscription = store.listenToRange(username, segment.from, segment.to,
+                (upserted, removedIds) -> apply(segment, upserted, removedIds));
+    }
+
+    private void reset() {
+        segments.values().forEach(segment -> segment.subscription.cancel());
+        segments.clear();
+        queue.clear();
+        byId.clear();
+        anchorDay = null;
+        coveredThrough = null;
+    }
+
+    private synchronized void apply(Segment segment, List<Reminder> upserted, List<String> removedIds) {
+        if (segments.get(segment.from) != segment) return; // dropped or replaced
+
+        Entry oldHead = queue.isEmpty() ? null : queue.first();
+        for (String id : removedIds) {
+            // A reminder moved to another segment may already have arrived there
+            Entry e = byId.get(id);
+            if (e != null && e.segment() == segment) cancel(id);
+        }
+        for (Reminder r : upserted) {
+            cancel(r.getId());
+
+            long due = r.getSortKey();
+            if (due <= firedThrough) continue; // already handled
+
+            Entry e = new Entry(due, r.getId(), r, segment);
+            queue.add(e);
+            byId.put(e.id(), e);
+        }
+        boolean initial = !segment.synced;
+        segment.synced = true;
+
+        // Wake the timer thread only if it is now waiting for the wrong reminder
+        // (or on a listener's initial contents, which may hold reminders already due)
+        Entry newHead = queue.isEmpty() ? null : queue.first();
+        if (initial || newHead != oldHead) notifyAll();
+    }
+
+    private void cancel(String id) {
+        Entry e = byId.remove(id);
+        if (e != null) queue.remove(e);
+    }
+
+    private static long nowMinute() {
+        LocalDateTime now = LocalDateTime.now();
+        return ReminderTime.toStartMinute(now.toLocalDate(), now.toLocalTime());
+    }
+}
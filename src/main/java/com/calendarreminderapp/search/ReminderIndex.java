@@ -0,0 +1,393 @@
+package com.calendarreminderapp.search;
+
+import com.calendarreminderapp.database.Recurrence;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.ReminderTime;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over one user's reminder titles and descriptions, for
+ * search-as-you-type. Words are lower-cased with accents removed; every query word
+ * matches as a prefix of an indexed word and a reminder has to match all of them.
+ * Results rank by match quality (title over description, whole word over prefix),
+ * then by date: soonest upcoming first, then most recent past.
+ *
+ * <p>Filled a page at a time with {@link #load} (see
+ * {@link ReminderStore#getSearchEntriesPage}) and kept current as a
+ * {@link ReminderStore.ChangeListener}; a live change wins over a page that was read
+ * before it. Series are indexed once, through {@link #replaceSeries}, and rank by their
+ * next occurrence as of the query; expanded occurrences are ignored. Replaced and removed
+ * entries are left in the postings as tombstones and compacted away once they outnumber
+ * live ones.
+ */
+public class ReminderIndex implements ReminderStore.ChangeListener {
+
+    private static final int TITLE = 1;
+    private static final int DESCRIPTION = 2;
+
+    private static final int TITLE_WORD = 8;
+    private static final int TITLE_PREFIX = 5;
+    private static final int DESCRIPTION_WORD = 3;
+    private static final int DESCRIPTION_PREFIX = 2;
+
+    // Score by field mask (a title match counts even when the description matches too)
+    private static final int[] WORD_SCORES = {0, TITLE_WORD, DESCRIPTION_WORD, TITLE_WORD};
+    private static final int[] PREFIX_SCORES = {0, TITLE_PREFIX, DESCRIPTION_PREFIX, TITLE_PREFIX};
+
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    // Rank key layout (see rankKey): 16 bits of inverted score above 47 bits of date distance
+    private static final int MAX_SCORE = 0xFFFF;
+    private static final int SCORE_SHIFT = 47;
+    private static final long PAST = 1L << 45;
+    private static final long DISTANCE_MASK = (1L << SCORE_SHIFT) - 1;
+
+    // Postings of one word: (ordinal << 2 | field mask), in insertion order
+    private static final class Postings {
+        int[] entries = new int[4];
+        int size;
+
+        void add(int entry) {
+            if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+            entries[size++] = entry;
+        }
+    }
+
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final Set<String> seriesIds = new HashSet<>();
+
+    // Ids changed live; pages read earlier must not bring back their old versions
+    private final Set<String> changedIds = new HashSet<>();
+
+    // Per ordinal; docs[i] is null once the reminder was replaced or removed. A series has
+    // its parsed rule and ranks by occurrence; anything else ranks by rankMinute.
+    private Reminder[] docs = new Reminder[MIN_COMPACT_SIZE];
+    private long[] rankMinute = new long[MIN_COMPACT_SIZE];
+    private Recurrence[] rules = new Recurrence[MIN_COMPACT_SIZE];
+    private int size;
+    private int live;
+
+    // Query scratch space, indexed by ordinal; stamps avoid clearing between queries
+    private int[] score = new int[0];
+    private int[] best = new int[0];
+    private int[] termStamp = new int[0];
+    private int stamp;
+    private int[] matched;
+    private int matchedCount;
+
+    @Override
+    public synchronized void onChanges(List<Reminder> upserted, List<String> removedIds) {
+        for (String id : removedIds) {
+            changedIds.add(id);
+            remove(id);
+        }
+        for (Reminder r : upserted) {
+            if (r.isOccurrence()) continue; // only ever arrives from range listeners
+            changedIds.add(r.getId());
+            remove(r.getId());
+            add(r);
+        }
+        compactIfSparse();
+    }
+
+    // Adds a page of stored reminders, skipping any that changed live since the page was read
+    public synchronized void load(List<Reminder> page) {
+        for (Reminder r : page) {
+            if (changedIds.contains(r.getId())) continue;
+            remove(r.getId());
+            add(r);
+        }
+        compactIfSparse();
+    }
+
+    // Swaps the indexed series for the user's current ones
+    public synchronized void replaceSeries(List<Reminder> series) {
+        for (String id : new ArrayList<>(seriesIds)) remove(id);
+        for (Reminder r : series) {
+            remove(r.getId());
+            add(r);
+        }
+        compactIfSparse();
+    }
+
+    // The occurrence's series is indexed with the same text, time and rule
+    public synchronized boolean isCurrent(Reminder occurrence) {
+        Integer ord = ordinalById.get(occurrence.getSeriesId());
+        if (ord == null) return false;
+        Reminder series = docs[ord];
+        return Objects.equals(series.getTitle(), occurrence.getTitle())
+                && Objects.equals(series.getDescription(), occurrence.getDescription())
+                && Objects.equals(series.getTime(), occurrence.getTime())
+                && Objects.equals(series.getRecurrence(), occurrence.getRecurrence());
+    }
+
+    public synchronized boolean contains(String id) {
+        return ordinalById.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return live;
+    }
+
+    // Best matches for the typed text, at most limit of them
+    public synchronized List<Reminder> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        // The term with the fewest postings goes first: later terms only revisit its matches
+        Map<String, Integer> volume = new HashMap<>();
+        for (String term : terms) volume.put(term, postingCount(term));
+        terms.sort(Comparator.comparingInt(volume::get));
+        ensureScratch();
+
+        int[] candidates = null;
+        int count = 0;
+        for (String term : terms) {
+            int current = ++stamp;
+            matched = candidates == null ? new int[16] : new int[count];
+            matchedCount = 0;
+            for (Map.Entry<String, Postings> e : withPrefix(term).entrySet()) {
+                scan(e.getValue(), e.getKey().length() == term.length(), current, candidates == null);
+            }
+
+            for (int i = 0; i < matchedCount; i++) score[matched[i]] += best[matched[i]];
+            candidates = matched;
+            count = matchedCount;
+            if (count == 0) return List.of();
+        }
+
+        return top(candidates, count, limit);
+    }
+
+    // Records each live reminder in one word's postings as matching the current term.
+    // After the first term only reminders that matched every earlier term count.
+    private void scan(Postings postings, boolean whole, int current, boolean firstTerm) {
+        int[] entries = postings.entries;
+        int[] scores = whole ? WORD_SCORES : PREFIX_SCORES;
+        for (int i = 0; i < postings.size; i++) {
+            int entry = entries[i];
+            int ord = entry >>> 2;
+            int seen = termStamp[ord];
+            if (docs[ord] == null || (!firstTerm && seen != current - 1 && seen != current)) continue;
+
+            int s = scores[entry & 3];
+            if (seen != current) {
+                if (firstTerm) score[ord] = 0;
+                termStamp[ord] = current;
+                best[ord] = s;
+                if (matchedCount == matched.length) matched = Arrays.copyOf(matched, matchedCount * 2);
+                matched[matchedCount++] = ord;
+            } else if (s > best[ord]) {
+                best[ord] = s;
+            }
+        }
+    }
+
+    private SortedMap<String, Postings> withPrefix(String prefix) {
+        return words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private int postingCount(String prefix) {
+        int total = 0;
+        for (Postings postings : withPrefix(prefix).values()) total += postings.size;
+        return total;
+    }
+
+    // Lower-cased words without accents, split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                tokens.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) tokens.add(word.toString());
+        return tokens;
+    }
+
+    private void add(Reminder r) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            rankMinute = Arrays.copyOf(rankMinute, size * 2);
+            rules = Arrays.copyOf(rules, size * 2);
+        }
+        int ord = size++;
+        docs[ord] = r;
+        rankMinute[ord] = r.getSortKey();
+        rules[ord] = rule(r);
+        ordinalById.put(r.getId(), ord);
+        if (r.getRecurrence() != null && r.getSeriesId() == null) seriesIds.add(r.getId());
+        live++;
+
+        Map<String, Integer> fields = new HashMap<>();
+        for (String word : tokenize(r.getTitle())) fields.merge(word, TITLE, (a, b) -> a | b);
+        for (String word : tokenize(r.getDescription())) fields.merge(word, DESCRIPTION, (a, b) -> a | b);
+        for (Map.Entry<String, Integer> e : fields.entrySet()) {
+            words.computeIfAbsent(e.getKey(), w -> new Postings()).add(ord << 2 | e.getValue());
+        }
+    }
+
+    private void remove(String id) {
+        Integer ord = ordinalById.remove(id);
+        if (ord == null) return;
+        seriesIds.remove(id);
+        docs[ord] = null;
+        rules[ord] = null;
+        live--;
+    }
+
+    private void compactIfSparse() {
+        if (size >= MIN_COMPACT_SIZE && size - live > live) compact();
+    }
+
+    private void compact() {
+        List<Reminder> remaining = new ArrayList<>(live);
+        for (int i = 0; i < size; i++) {
+            if (docs[i] != null) remaining.add(docs[i]);
+        }
+        words.clear();
+        ordinalById.clear();
+        seriesIds.clear();
+        Arrays.fill(docs, 0, size, null);
+        Arrays.fill(rules, 0, size, null);
+        size = 0;
+        live = 0;
+        for (Reminder r : remaining) add(r);
+    }
+
+    private void ensureScratch() {
+        if (score.length >= size) return;
+        int capacity = Math.max(size, docs.length);
+        score = Arrays.copyOf(score, capacity);
+        best = Arrays.copyOf(best, capacity);
+        termStamp = Arrays.copyOf(termStamp, capacity);
+    }
+
+
+    // Parsed rule of a series; null for anything else, or an unreadable rule (ranks by its first date)
+    private static Recurrence rule(Reminder r) {
+        if (r.getRecurrence() == null || r.getSeriesId() != null) return null;
+        try {
+            return Recurrence.parse(r.getRecurrence());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // A series ranks by its next occurrence from now, worked out per query so it moves on as
+    // occurrences pass; one with nothing left within a year ranks by its first date
+    private long rankMinute(int ord, long now) {
+        Recurrence rule = rules[ord];
+        if (rule == null) return rankMinute[ord];
+
+        Reminder series = docs[ord];
+        LocalDate today = ReminderTime.dateOf(now);
+        List<String> skipped = series.getExceptions() == null ? List.of() : series.getExceptions();
+        for (LocalDate date : rule.occurrences(LocalDate.parse(series.getDate()), today, today.plusYears(1))) {
+            long minute = ReminderTime.toStartMinute(date, series.getTime());
+            if (minute >= now && !skipped.contains(date.toString())) return minute;
+        }
+        return rankMinute[ord];
+    }
+
+    // Keeps the limit best candidates in a bounded heap (worst at the root), then orders them.
+    // Each candidate's rank is packed into one long, smaller is better: the score in the high
+    // bits, then upcoming-before-past, then distance from now.
+    private List<Reminder> top(int[] candidates, int count, int limit) {
+        long now = ReminderTime.now();
+        int capacity = Math.min(limit, count);
+        long[] keys = new long[capacity];
+        int[] ords = new int[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = rankKey(candidates[i], now);
+            ords[i] = candidates[i];
+            siftUp(keys, ords, i);
+        }
+        for (int i = capacity; i < count; i++) {
+            long key = rankKey(candidates[i], now);
+            if (key < keys[0]) {
+                keys[0] = key;
+                ords[0] = candidates[i];
+                siftDown(keys, ords, capacity);
+            }
+        }
+        int heapSize = capacity;
+
+        // Pop worst-first into the result from the back
+        Reminder[] ordered = new Reminder[heapSize];
+        for (int n = heapSize; n > 0; n--) {
+            ordered[n - 1] = docs[ords[0]];
+            keys[0] = keys[n - 1];
+            ords[0] = ords[n - 1];
+            siftDown(keys, ords, n - 1);
+        }
+        return Arrays.asList(ordered);
+    }
+
+    // Branch-free past the lookup: upcoming and past reminders are interleaved at random in the candidates
+    private long rankKey(int ord, long now) {
+        long delta = rankMinute(ord, now) - now;
+        long past = delta >> 63; // all ones when the reminder has started
+        long distance = ((delta ^ past) - past) + (past & PAST);
+        return (long) (MAX_SCORE - Math.min(score[ord], MAX_SCORE)) << SCORE_SHIFT | Math.min(distance, DISTANCE_MASK);
+    }
+
+    private static void siftUp(long[] keys, int[] ords, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (keys[i] <= keys[parent]) return;
+            swap(keys, ords, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] ords, int heapSize) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && keys[left] > keys[worst]) worst = left;
+            if (right < heapSize && keys[right] > keys[worst]) worst = right;
+            if (worst == i) return;
+            swap(keys, ords, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(long[] keys, int[] ords, int i, int j) {
+        long k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int o = ords[i];
+        ords[i] = ords[j];
+        ords[j] = o;
+    }
+}
@@ -0,0 +1,87 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.TestDocuments;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DocumentCodecTest {
+
+    private static Firestore db;
+
+    @BeforeAll
+    static void openClient() {
+        db = TestDocuments.offlineFirestore();
+    }
+
+    @AfterAll
+    static void closeClient() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void readsEveryReminderField() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("username", "alice");
+        fields.put("date", "2024-03-05");
+        fields.put("title", "Gym");
+        fields.put("description", "Leg day");
+        fields.put("time", "7:00 AM");
+        fields.put("startMinute", 123L);
+        fields.put("recurrence", "FREQ=WEEKLY");
+        fields.put("exceptions", List.of("2024-03-12", "2024-03-19"));
+        fields.put("seriesId", "s1");
+        fields.put("originalDate", "2024-03-04");
+
+        Reminder r = DocumentCodec.toReminder(TestDocuments.snapshot(db, "reminders/r1", fields));
+
+        assertEquals("r1", r.getId());
+        assertEquals("alice", r.getUsername());
+        assertEquals("2024-03-05", r.getDate());
+        assertEquals("Gym", r.getTitle());
+        assertEquals("Leg day", r.getDescription());
+        assertEquals("7:00 AM", r.getTime());
+        assertEquals(123L, r.getStartMinute());
+        assertEquals("FREQ=WEEKLY", r.getRecurrence());
+        assertEquals(List.of("2024-03-12", "2024-03-19"), r.getExceptions());
+        assertEquals("s1", r.getSeriesId());
+        assertEquals("2024-03-04", r.getOriginalDate());
+    }
+
+    @Test
+    void wrongTypesReadAsMissingAndUnknownFieldsAreIgnored() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("username", "alice");
+        fields.put("title", 42L);
+        fields.put("description", null);
+        fields.put("exceptions", List.of("2024-03-12", 7L));
+        fields.put("color", "red");
+
+        Reminder r = DocumentCodec.toReminder(TestDocuments.snapshot(db, "reminders/r2", fields));
+
+        assertEquals("r2", r.getId());
+        assertEquals("alice", r.getUsername());
+        assertNull(r.getTitle());
+        assertNull(r.getDescription());
+        assertNull(r.getRecurrence());
+        assertEquals(List.of("2024-03-12"), r.getExceptions());
+    }
+
+    @Test
+    void readsUsersAndNothingForAMissingOne() {
+        User user = DocumentCodec.toUser(TestDocuments.snapshot(db, "users/alice",
+                Map.of("username", "alice", "password", "hash")));
+        assertEquals("alice", user.getUsername());
+        assertEquals("hash", user.getPassword());
+
+        assertNull(DocumentCodec.toUser(TestDocuments.missing(db, "users/bob")));
+    }
+}
@@ -0,0 +1,216 @@
+package com.calendarreminderapp.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalReminderStoreTest {
+
+    private static final String USER = "alice";
+    private static final LocalDate DAY = LocalDate.parse("2024-03-05");
+
+    @TempDir
+    Path dir;
+
+    private LocalReminderStore store;
+
+    // One listener call: (upserted ids, removed ids)
+    private record Changes(List<String> upserted, List<String> removed) {
+    }
+
+    @BeforeEach
+    void open() throws Exception {
+        store = new LocalReminderStore(dir.resolve("reminders.log"));
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        store.close();
+    }
+
+    private static Reminder reminder(String id, LocalDate date, String title, String time) {
+        Reminder r = new Reminder(USER, date.toString(), title, title + " notes", time);
+        r.setId(id);
+        return r;
+    }
+
+    private static Reminder series(String id, LocalDate start, String rule) {
+        Reminder s = new Reminder(USER, start.toString(), "Gym", null, "7:00 AM");
+        s.setId(id);
+        s.setRecurrence(rule);
+        return s;
+    }
+
+    private static List<String> ids(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::getId).toList();
+    }
+
+    private static Changes next(BlockingQueue<Changes> events) throws InterruptedException {
+        Changes changes = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(changes, "no change set delivered");
+        return changes;
+    }
+
+    private static ReminderStore.ChangeListener queueTo(BlockingQueue<Changes> events) {
+        return (upserted, removedIds) -> events.add(new Changes(ids(upserted), List.copyOf(removedIds)));
+    }
+
+    @Test
+    void readsComeBackChronological() throws Exception {
+        store.addReminders(List.of(
+                reminder("late", DAY, "Dinner", "7:30 PM"),
+                reminder("early", DAY, "Run", "6:15 AM"),
+                reminder("next", DAY.plusDays(1), "Call", "9:00 AM")));
+
+        assertEquals(List.of("early", "late"), ids(store.getRemindersForDate(USER, DAY)));
+        assertEquals(List.of("early", "late", "next"), ids(store.getRemindersForMonth(USER, YearMonth.from(DAY))));
+        assertTrue(store.getRemindersForDate("bob", DAY).isEmpty());
+        assertEquals(USER, store.getOwner("late"));
+        assertNull(store.getOwner("missing"));
+    }
+
+    @Test
+    void reopeningReplaysTheLog() throws Exception {
+        store.addReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM"), reminder("b", DAY, "Lunch", "12:00 PM")));
+        store.updateReminders(List.of(reminder("a", DAY.plusDays(2), "Dentist (moved)", "11:00 AM")));
+        store.deleteReminders(List.of(reminder("b", DAY, "Lunch", "12:00 PM")));
+        store.addSeries(series("s", DAY, "FREQ=WEEKLY"));
+        store.close();
+
+        store = new LocalReminderStore(dir.resolve("reminders.log"));
+        assertTrue(store.getRemindersForDate(USER, DAY).stream().noneMatch(r -> r.getId().equals("b")));
+        List<Reminder> moved = store.getRemindersForDate(USER, DAY.plusDays(2));
+        assertEquals(List.of("a"), ids(moved));
+        assertEquals("Dentist (moved)", moved.get(0).getTitle());
+        assertEquals("11:00 AM", moved.get(0).getTime());
+        assertEquals(List.of("s"), ids(store.getSeries(USER)));
+    }
+
+    @Test
+    void bulkUpdateFailsOnlyTheItemsWithoutAReminder() throws Exception {
+        store.addReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM")));
+
+        List<BulkResult> results = store.updateReminders(List.of(
+                reminder("missing", DAY, "Nothing", "9:00 AM"),
+                reminder("a", DAY, "Dentist", "3:00 PM")));
+
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getError() instanceof IllegalArgumentException);
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("3:00 PM", store.getRemindersForDate(USER, DAY).get(0).getTime());
+    }
+
+    @Test
+    void bulkDeleteOfAMissingIdSucceedsButANullIdFails() throws Exception {
+        store.addReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM")));
+
+        Reminder noId = reminder(null, DAY, "Nothing", "9:00 AM");
+        List<BulkResult> results = store.deleteReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM"),
+                reminder("gone", DAY, "Gone", "9:00 AM"), noId));
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(store.getRemindersForDate(USER, DAY).isEmpty());
+    }
+
+    @Test
+    void seriesExpandIntoRangeReads() throws Exception {
+        store.addSeries(series("s", DAY, "FREQ=DAILY;COUNT=3"));
+        store.addReminders(List.of(reminder("a", DAY.plusDays(1), "Dentist", "10:00 AM")));
+
+        assertEquals(List.of("s_2024-03-05", "s_2024-03-06", "a", "s_2024-03-07"),
+                store.getRemindersForRange(USER, DAY, DAY.plusDays(10)).values().stream()
+                        .flatMap(List::stream).map(Reminder::getId).toList());
+
+        MonthSummary march = store.getMonthSummaries(USER, YearMonth.from(DAY), YearMonth.from(DAY)).get(YearMonth.from(DAY));
+        assertEquals(4, march.total());
+        assertEquals(2, march.count(DAY.plusDays(1)));
+    }
+
+    @Test
+    void skippedAndOverriddenOccurrencesReplaceTheExpandedOne() throws Exception {
+        store.addSeries(series("s", DAY, "FREQ=DAILY"));
+        List<Reminder> days = store.getRemindersForRange(USER, DAY, DAY.plusDays(1)).values().stream()
+                .flatMap(List::stream).toList();
+
+        store.skipOccurrence(days.get(0));
+        store.overrideOccurrence(days.get(1), DAY.plusDays(1), "Gym (late)", null, "8:00 PM");
+
+        assertTrue(store.getRemindersForDate(USER, DAY).isEmpty());
+        List<Reminder> edited = store.getRemindersForDate(USER, DAY.plusDays(1));
+        assertEquals(1, edited.size());
+        assertEquals("Gym (late)", edited.get(0).getTitle());
+        assertEquals("s", edited.get(0).getSeriesId());
+        assertEquals(DAY.plusDays(1).toString(), edited.get(0).getOriginalDate());
+        assertEquals(List.of(DAY.toString(), DAY.plusDays(1).toString()), store.getSeries(USER).get(0).getExceptions());
+
+        // Deleting the series takes its edited instances with it
+        store.deleteSeries("s");
+        assertTrue(store.getRemindersForRange(USER, DAY, DAY.plusDays(5)).values().stream().allMatch(List::isEmpty));
+    }
+
+    @Test
+    void rangeListenerSeesInitialContentsThenChanges() throws Exception {
+        store.addReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM"),
+                reminder("outside", DAY.plusDays(30), "Later", "10:00 AM")));
+
+        BlockingQueue<Changes> events = new LinkedBlockingQueue<>();
+        ReminderStore.Subscription subscription = store.listenToRange(USER, DAY, DAY.plusDays(6), queueTo(events));
+        try {
+            assertEquals(new Changes(List.of("a"), List.of()), next(events));
+
+            store.addReminders(List.of(reminder("b", DAY.plusDays(1), "Lunch", "12:00 PM")));
+            assertEquals(new Changes(List.of("b"), List.of()), next(events));
+
+            // Moving out of the range reads as a removal
+            store.moveReminders(List.of(reminder("a", DAY, "Dentist", "10:00 AM")), DAY.plusDays(20));
+            assertEquals(new Changes(List.of(), List.of("a")), next(events));
+
+            store.addSeries(series("s", DAY.plusDays(5), "FREQ=DAILY"));
+            assertEquals(new Changes(List.of("s_2024-03-10", "s_2024-03-11"), List.of()), next(events));
+        } finally {
+            subscription.cancel();
+        }
+
+        store.addReminders(List.of(reminder("c", DAY, "After", "1:00 PM")));
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void pagesFollowStartThenIdAcrossCursors() throws Exception {
+        List<Reminder> all = new ArrayList<>(Arrays.asList(
+                reminder("b", DAY, "Two", "9:00 AM"),
+                reminder("a", DAY, "One", "9:00 AM"),
+                reminder("c", DAY, "Three", "8:00 AM"),
+                reminder("d", DAY.plusDays(1), "Four", "7:00 AM")));
+        store.addReminders(all);
+
+        long from = ReminderTime.startOfDay(DAY);
+        List<Reminder> first = store.getRemindersPage(USER, from, null, 2);
+        assertEquals(List.of("c", "a"), ids(first));
+        List<Reminder> second = store.getRemindersPage(USER, from, first.get(1), 2);
+        assertEquals(List.of("b", "d"), ids(second));
+        assertTrue(store.getRemindersPage(USER, from, second.get(1), 2).isEmpty());
+
+        // The floor cuts earlier reminders off
+        assertEquals(List.of("d"), ids(store.getRemindersPage(USER, ReminderTime.startOfDay(DAY.plusDays(1)), null, 10)));
+    }
+}
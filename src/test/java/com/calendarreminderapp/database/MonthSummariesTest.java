@@ -0,0 +1,145 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.TestDocuments;
+import com.google.cloud.firestore.WriteBatch;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MonthSummariesTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    private static Firestore db;
+
+    @BeforeAll
+    static void openClient() {
+        db = TestDocuments.offlineFirestore();
+    }
+
+    @AfterAll
+    static void closeClient() throws Exception {
+        db.close();
+    }
+
+    private static Reminder reminder(String id, String date, String time) {
+        Reminder r = new Reminder("alice", date, "Title " + id, null, time);
+        r.setId(id);
+        return r;
+    }
+
+    private static DocumentSnapshot stored(Reminder r) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("username", r.getUsername());
+        fields.put("date", r.getDate());
+        fields.put("time", r.getTime());
+        fields.put("title", r.getTitle());
+        return TestDocuments.snapshot(db, "reminders/" + r.getId(), fields);
+    }
+
+    private static int writes(MonthSummaries.Delta delta) {
+        WriteBatch batch = db.batch();
+        delta.writeTo(batch);
+        return batch.getMutationsSize();
+    }
+
+    @Test
+    void addingAndRemovingTheSameReminderCancelsOut() {
+        Reminder r = reminder("r1", "2024-03-05", "9:00 AM");
+        MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+        delta.remove(stored(r));
+        delta.add(r);
+
+        assertEquals(1, delta.size());
+        assertEquals(0, writes(delta));
+    }
+
+    @Test
+    void movesTouchEachMonthInvolvedOnce() {
+        Reminder old = reminder("r1", "2024-03-05", "9:00 AM");
+
+        MonthSummaries.Delta sameMonth = new MonthSummaries.Delta(db);
+        sameMonth.remove(stored(old));
+        sameMonth.add(reminder("r1", "2024-03-06", "9:00 AM"));
+        assertEquals(1, writes(sameMonth));
+
+        MonthSummaries.Delta otherMonth = new MonthSummaries.Delta(db);
+        otherMonth.remove(stored(old));
+        otherMonth.add(reminder("r1", "2024-04-05", "9:00 AM"));
+        assertEquals(2, writes(otherMonth));
+
+        // Another user's summary is another document
+        MonthSummaries.Delta otherUser = new MonthSummaries.Delta(db);
+        otherUser.add(old);
+        otherUser.add("bob", "2024-03-05", "9:00 AM");
+        assertEquals(2, otherUser.size());
+    }
+
+    @Test
+    void removingAMissingDocumentChangesNothing() {
+        MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+        delta.remove(TestDocuments.missing(db, "reminders/gone"));
+        delta.remove(null);
+
+        assertEquals(0, delta.size());
+        assertEquals(0, writes(delta));
+    }
+
+    @Test
+    void readSkipsZeroCountsAndDaysOutsideTheMonth() {
+        Map<String, Object> days = Map.of(
+                "5", Map.of("600", 1, "540", 2),
+                "6", Map.of("480", 0),
+                "40", Map.of("480", 3));
+        MonthSummary summary = MonthSummaries.read(MARCH,
+                TestDocuments.snapshot(db, "users/alice/summaries/2024-03", Map.of("days", days)));
+
+        assertEquals(3, summary.count(MARCH.atDay(5)));
+        assertEquals(LocalTime.of(9, 0), summary.earliest(MARCH.atDay(5)));
+        assertEquals(0, summary.count(MARCH.atDay(6)));
+        assertNull(summary.earliest(MARCH.atDay(6)));
+        assertEquals(3, summary.total());
+
+        assertEquals(new MonthSummary(MARCH),
+                MonthSummaries.read(MARCH, TestDocuments.missing(db, "users/alice/summaries/2024-03")));
+    }
+
+    @Test
+    void rebuiltDocumentReadsBackAsTheSummaryOfItsReminders() {
+        List<Reminder> reminders = List.of(
+                reminder("a", "2024-03-05", "9:00 AM"),
+                reminder("b", "2024-03-05", "9:00 AM"),
+                reminder("c", "2024-03-05", "7:30 AM"),
+                reminder("d", "2024-03-31", "11:59 PM"));
+
+        Map<String, Object> document = MonthSummaries.document(reminders.stream().map(MonthSummariesTest::stored).toList());
+        MonthSummary read = MonthSummaries.read(MARCH,
+                TestDocuments.snapshot(db, "users/alice/summaries/2024-03", document));
+
+        assertEquals(MonthSummary.of(MARCH, reminders), read);
+        assertEquals(LocalTime.of(7, 30), read.earliest(LocalDate.parse("2024-03-05")));
+    }
+
+    @Test
+    void summaryIgnoresRemindersOfOtherMonths() {
+        MonthSummary summary = MonthSummary.of(MARCH, List.of(
+                reminder("a", "2024-03-05", "9:00 AM"),
+                reminder("b", "2024-04-05", "8:00 AM")));
+
+        assertEquals(1, summary.total());
+        assertEquals(0, summary.count(LocalDate.parse("2024-04-05")));
+        assertNull(summary.earliest(LocalDate.parse("2024-04-05")));
+    }
+}
@@ -0,0 +1,276 @@
+package com.calendarreminderapp.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineReminderStoreTest {
+
+    private static final String USER = "alice";
+    private static final LocalDate DAY = LocalDate.parse("2024-03-05");
+    private static final long WAIT_SECONDS = 20;
+
+    @TempDir
+    Path dir;
+
+    private FlakyStore remote;
+    private OfflineReminderStore store;
+
+    /**
+     * A local store standing in for Firestore. While down, writes and reads fail the way an
+     * unreachable Firestore does; the direct* methods change it behind the offline store's back.
+     */
+    static final class FlakyStore extends LocalReminderStore {
+        volatile boolean down = false;
+
+        FlakyStore(Path file) throws IOException {
+            super(file);
+        }
+
+        private void check() throws ExecutionException {
+            if (down) throw new ExecutionException(new IOException("Firestore unreachable (test)"));
+        }
+
+        @Override
+        public List<BulkResult> addReminders(List<Reminder> reminders) {
+            if (down) return failAll(reminders);
+            return super.addReminders(reminders);
+        }
+
+        @Override
+        public List<BulkResult> updateReminders(List<Reminder> reminders) {
+            if (down) return failAll(reminders);
+            return super.updateReminders(reminders);
+        }
+
+        @Override
+        public List<BulkResult> deleteReminders(List<Reminder> reminders) {
+            if (down) return failAll(reminders);
+            return super.deleteReminders(reminders);
+        }
+
+        @Override
+        public synchronized void addSeries(Reminder series) throws ExecutionException {
+            check();
+            super.addSeries(series);
+        }
+
+        @Override
+        public synchronized NavigableMap<LocalDate, List<Reminder>> getRemindersForRange(String username,
+                                                                                        LocalDate from,
+                                                                                        LocalDate to) {
+            if (down) throw new IllegalStateException(new IOException("Firestore unreachable (test)"));
+            return super.getRemindersForRange(username, from, to);
+        }
+
+        List<BulkResult> directAdd(Reminder... reminders) {
+            return super.addReminders(List.of(reminders));
+        }
+
+        List<BulkResult> directUpdate(Reminder... reminders) {
+            return super.updateReminders(List.of(reminders));
+        }
+
+        List<BulkResult> directDelete(Reminder... reminders) {
+            return super.deleteReminders(List.of(reminders));
+        }
+
+        List<Reminder> directDate(LocalDate date) {
+            return super.getRemindersForRange(USER, date, date).getOrDefault(date, List.of());
+        }
+
+        private static List<BulkResult> failAll(List<Reminder> reminders) {
+            List<BulkResult> results = new ArrayList<>();
+            for (int i = 0; i < reminders.size(); i++) {
+                results.add(BulkResult.failure(i, reminders.get(i).getId(), new IOException("Firestore unreachable (test)")));
+            }
+            return results;
+        }
+    }
+
+    @BeforeEach
+    void open() throws Exception {
+        remote = new FlakyStore(dir.resolve("remote.log"));
+        store = openStore();
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        store.close();
+        remote.close();
+    }
+
+    private OfflineReminderStore openStore() throws IOException {
+        return new OfflineReminderStore(remote, new LocalReminderStore(dir.resolve("snapshot.log")), dir.resolve("journal.log"));
+    }
+
+    private static Reminder reminder(String id, LocalDate date, String title) {
+        Reminder r = new Reminder(USER, date.toString(), title, null, "9:00 AM");
+        r.setId(id);
+        return r;
+    }
+
+    private static List<String> titles(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::getTitle).toList();
+    }
+
+    @Test
+    void offlineWritesAreSentOnceTheRemoteIsBack() throws Exception {
+        remote.down = true;
+        store.addReminders(List.of(reminder("a", DAY, "Dentist")));
+        store.updateReminders(List.of(reminder("a", DAY, "Dentist (moved)")));
+
+        // Seen locally at once, journaled until the remote store takes it
+        assertEquals(List.of("Dentist (moved)"), titles(store.getRemindersForDate(USER, DAY)));
+        assertFalse(store.awaitReplay(1, TimeUnit.SECONDS));
+        assertTrue(store.pendingWrites() > 0);
+        assertFalse(store.isOnline());
+        assertTrue(remote.directDate(DAY).isEmpty());
+
+        remote.down = false;
+        assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(0, store.pendingWrites());
+        assertEquals(List.of("Dentist (moved)"), titles(remote.directDate(DAY)));
+        assertTrue(store.isOnline());
+    }
+
+    @Test
+    void journalSurvivesARestart() throws Exception {
+        remote.down = true;
+        store.addReminders(List.of(reminder("a", DAY, "Dentist")));
+        Reminder series = reminder("s", DAY, "Gym");
+        series.setRecurrence("FREQ=DAILY");
+        store.addSeries(series);
+        store.close();
+
+        remote.down = false;
+        store = openStore();
+        assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("a"), remote.storedReminders(USER).stream().map(Reminder::getId).toList());
+        assertEquals(List.of("s"), remote.getSeries(USER).stream().map(Reminder::getId).toList());
+    }
+
+    @Test
+    void localEditWinsOverARemoteChangeUntilItIsSent() throws Exception {
+        remote.directAdd(reminder("a", DAY, "Original"));
+        BlockingQueue<List<String>> seen = new LinkedBlockingQueue<>();
+        ReminderStore.Subscription subscription = store.listenToRange(USER, DAY, DAY,
+                (upserted, removedIds) -> seen.add(titles(upserted)));
+        try {
+            assertEquals(List.of("Original"), seen.poll(WAIT_SECONDS, TimeUnit.SECONDS));
+
+            remote.down = true;
+            store.updateReminders(List.of(reminder("a", DAY, "Mine")));
+            assertEquals(List.of("Mine"), seen.poll(WAIT_SECONDS, TimeUnit.SECONDS));
+
+            // Another session's edit arrives while ours is still journaled: ignored
+            remote.directUpdate(reminder("a", DAY, "Theirs"));
+            Thread.sleep(300);
+            assertTrue(seen.isEmpty());
+            assertEquals(List.of("Mine"), titles(store.getRemindersForDate(USER, DAY)));
+
+            remote.down = false;
+            assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(List.of("Mine"), titles(remote.directDate(DAY)));
+            assertEquals(List.of("Mine"), titles(store.getRemindersForDate(USER, DAY)));
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    @Test
+    void changesToMissingRemindersFailAtOnce() throws Exception {
+        // Neither the snapshot nor the remote store has it, so nothing is journaled
+        List<BulkResult> results = store.updateReminders(List.of(
+                reminder("ghost", DAY, "Never stored"), reminder(null, DAY, "No id")));
+        assertFalse(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(0, store.pendingWrites());
+        assertTrue(remote.directDate(DAY).isEmpty());
+
+        // A delete of something already gone is done with
+        assertTrue(store.deleteReminders(List.of(reminder("ghost", DAY, "Never stored"))).get(0).isSuccess());
+        assertEquals(0, store.pendingWrites());
+
+        // Stored remotely but never read here: the remote store answers
+        remote.directAdd(reminder("a", DAY.plusMonths(1), "Dentist"));
+        assertTrue(store.moveReminders(List.of(reminder("a", DAY.plusMonths(1), "Dentist")), DAY).get(0).isSuccess());
+        assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("Dentist"), titles(remote.directDate(DAY)));
+        assertTrue(store.rejections().isEmpty());
+    }
+
+    @Test
+    void changeRejectedOnReplayIsDroppedAndReported() throws Exception {
+        remote.directAdd(reminder("a", DAY, "Dentist"));
+        assertEquals(List.of("Dentist"), titles(store.getRemindersForDate(USER, DAY)));
+        BlockingQueue<OfflineReminderStore.Rejection> reported = new LinkedBlockingQueue<>();
+        store.setRejectionListener(reported::add);
+
+        // Taken offline, then deleted by another session before it can be sent
+        remote.down = true;
+        assertTrue(store.updateReminders(List.of(reminder("a", DAY, "Dentist (moved)"))).get(0).isSuccess());
+        remote.directDelete(reminder("a", DAY, "Dentist"));
+        remote.down = false;
+
+        OfflineReminderStore.Rejection rejection = reported.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(rejection);
+        assertEquals("a", rejection.id());
+        assertEquals("update", rejection.change());
+        assertEquals(List.of(rejection), store.rejections());
+        assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(0, store.pendingWrites());
+        assertTrue(remote.directDate(DAY).isEmpty());
+
+        // Later changes still go through
+        store.addReminders(List.of(reminder("b", DAY, "Haircut")));
+        assertTrue(store.awaitReplay(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("Haircut"), titles(remote.directDate(DAY)));
+    }
+
+    @Test
+    void offlineReadsOnlyHaveTheRangesReadBefore() throws Exception {
+        remote.directAdd(reminder("a", DAY, "Read before"), reminder("b", DAY.plusMonths(1), "Never read"));
+
+        assertEquals(List.of("Read before"), titles(store.getRemindersForDate(USER, DAY)));
+
+        remote.down = true;
+        assertEquals(List.of("Read before"), titles(store.getRemindersForDate(USER, DAY)));
+        assertFalse(store.isOnline());
+        assertTrue(store.getRemindersForDate(USER, DAY.plusMonths(1)).isEmpty());
+    }
+
+    @Test
+    void remoteChangesReachSnapshotListeners() throws Exception {
+        BlockingQueue<List<String>> seen = new LinkedBlockingQueue<>();
+        ReminderStore.Subscription subscription = store.listenToRange(USER, DAY, DAY.plusDays(6),
+                (upserted, removedIds) -> seen.add(titles(upserted)));
+        try {
+            assertEquals(List.of(), seen.poll(WAIT_SECONDS, TimeUnit.SECONDS));
+
+            remote.directAdd(reminder("a", DAY.plusDays(2), "From elsewhere"));
+            List<String> next = seen.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(next);
+            assertEquals(List.of("From elsewhere"), next);
+        } finally {
+            subscription.cancel();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.calendarreminderapp.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceTest {
+
+    private static LocalDate d(String date) {
+        return LocalDate.parse(date);
+    }
+
+    private static List<LocalDate> dates(String... dates) {
+        return Arrays.stream(dates).map(LocalDate::parse).toList();
+    }
+
+    @Test
+    void dailyWithInterval() {
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;INTERVAL=2");
+        assertEquals(dates("2024-01-01", "2024-01-03", "2024-01-05", "2024-01-07", "2024-01-09"),
+                rule.occurrences(d("2024-01-01"), d("2024-01-01"), d("2024-01-09")));
+    }
+
+    @Test
+    void windowFarFromStartOnlyHoldsItsOwnDates() {
+        Recurrence rule = Recurrence.parse("FREQ=DAILY");
+        assertEquals(dates("2024-03-10", "2024-03-11", "2024-03-12"),
+                rule.occurrences(d("2020-01-01"), d("2024-03-10"), d("2024-03-12")));
+    }
+
+    @Test
+    void windowBeforeStartIsEmpty() {
+        Recurrence rule = Recurrence.parse("FREQ=WEEKLY");
+        assertTrue(rule.occurrences(d("2024-06-01"), d("2024-01-01"), d("2024-05-31")).isEmpty());
+    }
+
+    @Test
+    void weeklyByDaySkipsDaysBeforeTheStart() {
+        // 2024-01-03 is a Wednesday; the Monday of that week comes before the series starts
+        Recurrence rule = Recurrence.parse("FREQ=WEEKLY;BYDAY=MO,WE");
+        assertEquals(dates("2024-01-03", "2024-01-08", "2024-01-10"),
+                rule.occurrences(d("2024-01-03"), d("2024-01-01"), d("2024-01-14")));
+    }
+
+    @Test
+    void weeklyWithoutByDayKeepsTheStartWeekday() {
+        Recurrence rule = Recurrence.parse("FREQ=WEEKLY;INTERVAL=2");
+        assertEquals(dates("2024-01-05", "2024-01-19", "2024-02-02"),
+                rule.occurrences(d("2024-01-05"), d("2024-01-01"), d("2024-02-05")));
+    }
+
+    @Test
+    void monthlySkipsMonthsWithoutTheDay() {
+        Recurrence rule = Recurrence.parse("FREQ=MONTHLY");
+        assertEquals(dates("2024-01-31", "2024-03-31", "2024-05-31"),
+                rule.occurrences(d("2024-01-31"), d("2024-01-01"), d("2024-06-30")));
+    }
+
+    @Test
+    void yearlyOnLeapDayOnlyInLeapYears() {
+        Recurrence rule = Recurrence.parse("FREQ=YEARLY");
+        assertEquals(dates("2024-02-29", "2028-02-29", "2032-02-29"),
+                rule.occurrences(d("2024-02-29"), d("2024-01-01"), d("2032-12-31")));
+    }
+
+    @Test
+    void countIsNumberedFromTheSeriesStart() {
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;COUNT=3");
+        assertEquals(dates("2024-01-02", "2024-01-03"),
+                rule.occurrences(d("2024-01-01"), d("2024-01-02"), d("2024-01-10")));
+    }
+
+    @Test
+    void untilEndsTheSeries() {
+        Recurrence rule = Recurrence.parse("RRULE:FREQ=DAILY;UNTIL=20240103T235959Z");
+        assertEquals(dates("2024-01-01", "2024-01-02", "2024-01-03"),
+                rule.occurrences(d("2024-01-01"), d("2024-01-01"), d("2024-01-31")));
+    }
+
+    @Test
+    void ruleRoundTrips() {
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;COUNT=5;BYDAY=MO,FR",
+                Recurrence.parse("rrule:freq=weekly;byday=FR,MO;interval=2;count=5").toRule());
+        assertEquals("FREQ=YEARLY;UNTIL=20301231", Recurrence.parse("FREQ=YEARLY;UNTIL=20301231").toRule());
+    }
+
+    @Test
+    void rejectsRulesItCannotHonour() {
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=HOURLY"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;INTERVAL=0"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=MONTHLY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;BYMONTH=1"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;WKST=SU"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.calendarreminderapp.database;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.TestDocuments;
+import com.google.cloud.firestore.WriteBatch;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderRepositoryTest {
+
+    private static final int REMINDERS = 200;
+    private static final LocalDate FIRST = LocalDate.parse("2000-01-15");
+
+    private static Firestore db;
+
+    @BeforeAll
+    static void openClient() {
+        db = TestDocuments.offlineFirestore();
+    }
+
+    @AfterAll
+    static void closeClient() throws Exception {
+        db.close();
+    }
+
+    // Reminder i, stored in a month of its own
+    private static DocumentSnapshot stored(int i) {
+        return TestDocuments.snapshot(db, "reminders/r" + i, Map.of(
+                "username", "alice",
+                "date", FIRST.plusMonths(i).toString(),
+                "time", "9:00 AM"));
+    }
+
+    /*
+     * Applies every reminder the way a bulk transaction does, chunk after chunk, and checks
+     * that no chunk's reminder writes plus summary writes pass the commit limit.
+     */
+    private static int commits(IntFunction<String> newDate) {
+        DocumentReference[] refs = new DocumentReference[REMINDERS];
+        for (int i = 0; i < REMINDERS; i++) refs[i] = db.collection("reminders").document("r" + i);
+
+        int start = 0;
+        int commits = 0;
+        while (start < REMINDERS) {
+            int offset = start;
+            MonthSummaries.Delta delta = new MonthSummaries.Delta(db);
+            List<BulkResult> results = ReminderRepository.applyWithinCommit(REMINDERS - offset, offset,
+                    Arrays.copyOfRange(refs, offset, REMINDERS), delta, i -> {
+                        delta.remove(stored(offset + i));
+                        delta.add("alice", newDate.apply(offset + i), "9:00 AM");
+                    });
+
+            WriteBatch summaries = db.batch();
+            delta.writeTo(summaries);
+            assertFalse(results.isEmpty());
+            assertTrue(results.size() + summaries.getMutationsSize() <= ReminderRepository.MAX_WRITES_PER_COMMIT,
+                    results.size() + " reminders and " + summaries.getMutationsSize() + " summaries in one commit");
+            for (int i = 0; i < results.size(); i++) {
+                assertTrue(results.get(i).isSuccess());
+                assertEquals(offset + i, results.get(i).getIndex());
+            }
+
+            start += results.size();
+            commits++;
+        }
+        return commits;
+    }
+
+    @Test
+    void movingRemindersAcrossMonthsStaysWithinOneCommit() {
+        // 200 reminder writes, 200 old months and the one they move to
+        assertEquals(1, commits(i -> "2030-06-01"));
+    }
+
+    @Test
+    void updatesIntoMonthsOfTheirOwnSplitTheCommit() {
+        // Each update touches two summaries of its own: 600 writes for 200 reminders
+        assertEquals(2, commits(i -> FIRST.plusMonths(i + REMINDERS).toString()));
+    }
+
+    @Test
+    void itemsWithoutARefFailOnTheirOwn() {
+        DocumentReference[] refs = {db.collection("reminders").document("r0"), null};
+        List<BulkResult> results = ReminderRepository.applyWithinCommit(2, 10, refs,
+                new MonthSummaries.Delta(db), i -> {
+                });
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(11, results.get(1).getIndex());
+    }
+
+    @Test
+    void rejectedItemsDoNotStopTheChunk() {
+        List<DocumentReference> refs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) refs.add(db.collection("reminders").document("r" + i));
+
+        List<BulkResult> results = ReminderRepository.applyWithinCommit(3, 0, refs.toArray(new DocumentReference[0]),
+                new MonthSummaries.Delta(db), i -> {
+                    if (i == 1) throw new IllegalArgumentException("Bad date or time");
+                });
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(2).isSuccess());
+    }
+}
@@ -0,0 +1,97 @@
+package com.calendarreminderapp.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesExpansionTest {
+
+    private static Reminder series(String id, String date, String time, String rule, String... exceptions) {
+        Reminder s = new Reminder("alice", date, "Standup", "Daily sync", time);
+        s.setId(id);
+        s.setRecurrence(rule);
+        s.setExceptions(new ArrayList<>(List.of(exceptions)));
+        return s;
+    }
+
+    private static List<String> ids(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::getId).toList();
+    }
+
+    @Test
+    void occurrencesPointBackAtTheirSeries() {
+        Reminder s = series("s1", "2024-01-01", "9:00 AM", "FREQ=DAILY");
+        List<Reminder> occurrences = SeriesExpansion.expand(s, LocalDate.parse("2024-01-02"), LocalDate.parse("2024-01-03"));
+
+        assertEquals(List.of("s1_2024-01-02", "s1_2024-01-03"), ids(occurrences));
+        Reminder first = occurrences.get(0);
+        assertTrue(first.isOccurrence());
+        assertEquals("s1", first.getSeriesId());
+        assertEquals("2024-01-02", first.getDate());
+        assertEquals("Standup", first.getTitle());
+        assertEquals("9:00 AM", first.getTime());
+    }
+
+    @Test
+    void exceptionsAreLeftOut() {
+        Reminder s = series("s1", "2024-01-01", "9:00 AM", "FREQ=DAILY", "2024-01-02");
+        assertEquals(List.of("s1_2024-01-01", "s1_2024-01-03"),
+                ids(SeriesExpansion.expand(s, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-03"))));
+    }
+
+    @Test
+    void unreadableRuleShowsTheFirstDateOnly() {
+        Reminder s = series("s1", "2024-01-02", "9:00 AM", "FREQ=HOURLY");
+        assertEquals(List.of("s1_2024-01-02"),
+                ids(SeriesExpansion.expand(s, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-31"))));
+        assertTrue(SeriesExpansion.expand(s, LocalDate.parse("2024-01-03"), LocalDate.parse("2024-01-31")).isEmpty());
+    }
+
+    @Test
+    void expandIntoKeepsDaysChronological() {
+        LocalDate day = LocalDate.parse("2024-01-02");
+        Reminder stored = new Reminder("alice", day.toString(), "Lunch", null, "12:00 PM");
+        stored.setId("r1");
+
+        NavigableMap<LocalDate, List<Reminder>> byDay = new TreeMap<>();
+        byDay.put(day, new ArrayList<>(List.of(stored)));
+        SeriesExpansion.expandInto(byDay,
+                List.of(series("late", "2024-01-01", "5:00 PM", "FREQ=DAILY"),
+                        series("early", "2024-01-01", "8:00 AM", "FREQ=DAILY")),
+                day, day);
+
+        assertEquals(List.of("early_2024-01-02", "r1", "late_2024-01-02"), ids(byDay.get(day)));
+    }
+
+    @Test
+    void windowReportsOccurrencesThatDisappear() {
+        LocalDate from = LocalDate.parse("2024-01-01");
+        LocalDate to = LocalDate.parse("2024-01-07");
+        SeriesExpansion.Window window = new SeriesExpansion.Window(from, to);
+
+        List<Reminder> upserted = new ArrayList<>();
+        List<String> removedIds = new ArrayList<>();
+        window.apply(List.of(series("s1", "2024-01-01", "9:00 AM", "FREQ=DAILY")), List.of(), upserted, removedIds);
+        assertEquals(7, upserted.size());
+        assertTrue(removedIds.isEmpty());
+
+        // Every other day now: the odd days' occurrences go
+        upserted.clear();
+        window.apply(List.of(series("s1", "2024-01-01", "9:00 AM", "FREQ=DAILY;INTERVAL=2")), List.of(), upserted, removedIds);
+        assertEquals(List.of("s1_2024-01-01", "s1_2024-01-03", "s1_2024-01-05", "s1_2024-01-07"), ids(upserted));
+        assertEquals(List.of("s1_2024-01-02", "s1_2024-01-04", "s1_2024-01-06"), removedIds);
+
+        upserted.clear();
+        removedIds.clear();
+        window.apply(List.of(), List.of("s1"), upserted, removedIds);
+        assertTrue(upserted.isEmpty());
+        assertEquals(List.of("s1_2024-01-01", "s1_2024-01-03", "s1_2024-01-05", "s1_2024-01-07"), removedIds);
+    }
+}
@@ -0,0 +1,55 @@
+package com.calendarreminderapp.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 0; nanos < 64; nanos++) histogram.record(nanos);
+
+        assertEquals(64, histogram.count());
+        assertEquals(31, histogram.percentileNanos(0.5));
+        assertEquals(63, histogram.percentileNanos(1.0));
+        assertEquals(0, histogram.percentileNanos(0.0));
+    }
+
+    @Test
+    void everyBucketBoundIsWithinThreePercentAbove() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 7) {
+            for (long v : new long[]{value, value + 1, value * 2 - 1}) {
+                long bound = LatencyHistogram.highestEquivalent(LatencyHistogram.indexOf(v));
+                assertTrue(bound >= v, v + " reported as " + bound);
+                assertTrue(bound - v <= v / 32, v + " reported as " + bound);
+            }
+        }
+    }
+
+    @Test
+    void percentilesNeverPassTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) histogram.record(1_000);
+        histogram.record(5_000_001);
+        histogram.record(-5); // a clock step back counts as zero
+
+        assertEquals(5_000_001, histogram.maxNanos());
+        assertEquals(5_000_001, histogram.percentileNanos(1.0));
+        long median = histogram.percentileNanos(0.5);
+        assertTrue(median >= 1_000 && median <= 1_031, "median " + median);
+    }
+
+    @Test
+    void resetForgetsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42_000);
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.maxNanos());
+        assertEquals(0, histogram.percentileNanos(0.99));
+    }
+}
@@ -0,0 +1,97 @@
+package com.calendarreminderapp.metrics;
+
+import com.calendarreminderapp.database.LocalReminderStore;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderStore;
+import com.calendarreminderapp.database.UserStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreMetricsTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2024-03-05");
+
+    @TempDir
+    Path dir;
+
+    // Accepts every user but "taken"
+    private static final class Users implements UserStore {
+        @Override
+        public void createUser(String username, String password) throws ExecutionException {
+            if (username.equals("taken")) throw new ExecutionException(new IllegalStateException("Username taken"));
+        }
+
+        @Override
+        public boolean validateUser(String username, String password) {
+            return true;
+        }
+    }
+
+    private static Reminder reminder(String id, String title) {
+        Reminder r = new Reminder("alice", DAY.toString(), title, "Bring the card", "9:00 AM");
+        r.setId(id);
+        return r;
+    }
+
+    @Test
+    void callsAndErrorsAreCountedAndExceptionsPassThrough() throws Exception {
+        UserStore users = StoreMetrics.instrument(UserStore.class, "test-users", new Users());
+
+        users.createUser("bob", "pw");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> users.createUser("taken", "pw"));
+        assertEquals("Username taken", e.getCause().getMessage());
+
+        OperationStats stats = StoreMetrics.stats("test-users", "createUser");
+        assertEquals(2, stats.getCalls());
+        assertEquals(1, stats.getErrors());
+        // One document each: 32 bytes plus every string argument and its terminator
+        assertEquals(2, stats.getDocuments());
+        assertEquals((32 + 4 + 3) + (32 + 6 + 3), stats.getBytes());
+        assertTrue(StoreMetrics.snapshot().contains(stats));
+    }
+
+    @Test
+    void asyncDefaultsAreTimedThroughTheirSyncCall() throws Exception {
+        UserStore users = StoreMetrics.instrument(UserStore.class, "test-async-users", new Users());
+
+        assertTrue(users.validateUserAsync("bob", "pw").get());
+
+        assertEquals(1, StoreMetrics.stats("test-async-users", "validateUser").getCalls());
+        assertTrue(StoreMetrics.snapshot().stream().noneMatch(s -> s.getOperation().endsWith("Async")));
+    }
+
+    @Test
+    void writesCountTheirRemindersAndReadsTheirResults() throws Exception {
+        LocalReminderStore local = new LocalReminderStore(dir.resolve("reminders.log"));
+        try {
+            ReminderStore store = StoreMetrics.instrument(ReminderStore.class, "test-reminders", local);
+            Reminder a = reminder("a", "Dentist");
+            Reminder b = reminder("b", "Café with Zoë");
+
+            store.addReminders(List.of(a, b));
+            OperationStats added = StoreMetrics.stats("test-reminders", "addReminders");
+            assertEquals(2, added.getDocuments());
+            assertEquals(StoreMetrics.estimateBytes(a) + StoreMetrics.estimateBytes(b), added.getBytes());
+
+            assertEquals(2, store.getRemindersForDate("alice", DAY).size());
+            OperationStats read = StoreMetrics.stats("test-reminders", "getRemindersForDate");
+            assertEquals(1, read.getCalls());
+            assertEquals(2, read.getDocuments());
+
+            StoreMetrics.resetAll();
+            assertEquals(0, added.getCalls());
+            assertEquals(0, added.getDocuments());
+        } finally {
+            local.close();
+        }
+    }
+}
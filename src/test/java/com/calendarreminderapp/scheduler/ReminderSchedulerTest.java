@@ -0,0 +1,100 @@
+package com.calendarreminderapp.scheduler;
+
+import com.calendarreminderapp.database.LocalReminderStore;
+import com.calendarreminderapp.database.Reminder;
+import com.calendarreminderapp.database.ReminderTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderSchedulerTest {
+
+    private static final String USER = "alice";
+
+    @TempDir
+    Path dir;
+
+    private LocalReminderStore store;
+    private ReminderScheduler scheduler;
+    private final BlockingQueue<String> shown = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void start() throws Exception {
+        store = new LocalReminderStore(dir.resolve("reminders.log"));
+        scheduler = new ReminderScheduler(store, USER, (title, message) -> shown.add(title));
+        scheduler.start();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        scheduler.stop();
+        store.close();
+    }
+
+    private static Reminder reminder(String id, LocalDateTime at, String title) {
+        Reminder r = new Reminder(USER, at.toLocalDate().toString(), title, null, ReminderTime.format(at.toLocalTime()));
+        r.setId(id);
+        return r;
+    }
+
+    // Listener changes reach the queue asynchronously
+    private void awaitPending(IntPredicate expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.test(scheduler.pendingCount()) && System.nanoTime() < deadline) Thread.sleep(10);
+        assertTrue(expected.test(scheduler.pendingCount()), "pending count is " + scheduler.pendingCount());
+    }
+
+    @Test
+    void reminderDueNowFires() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        store.addReminders(List.of(reminder("now", now, "Stand up")));
+
+        assertEquals(ReminderTime.format(now.toLocalTime()) + " — Stand up", shown.poll(10, TimeUnit.SECONDS));
+        awaitPending(count -> count == 0);
+    }
+
+    @Test
+    void pastRemindersDoNotFire() throws Exception {
+        store.addReminders(List.of(reminder("past", LocalDateTime.now().minusMinutes(30), "Already over")));
+
+        assertNull(shown.poll(1, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void queueFollowsAddsMovesAndDeletes() throws Exception {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Reminder a = reminder("a", tomorrow, "Dentist");
+        Reminder b = reminder("b", tomorrow.plusHours(1), "Lunch");
+        store.addReminders(List.of(a, b));
+        awaitPending(count -> count == 2);
+
+        store.deleteReminders(List.of(a));
+        awaitPending(count -> count == 1);
+
+        // Beyond the horizon nobody listens, so the moved reminder leaves the queue
+        store.moveReminders(List.of(b), LocalDate.now().plusDays(ReminderScheduler.HORIZON_DAYS + 10));
+        awaitPending(count -> count == 0);
+
+        store.addReminders(List.of(reminder("c", tomorrow, "Call")));
+        awaitPending(count -> count == 1);
+        assertNull(shown.poll(200, TimeUnit.MILLISECONDS));
+
+        scheduler.stop();
+        assertEquals(0, scheduler.pendingCount());
+    }
+}
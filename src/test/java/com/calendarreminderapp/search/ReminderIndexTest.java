@@ -0,0 +1,138 @@
+package com.calendarreminderapp.search;
+
+import com.calendarreminderapp.database.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private static Reminder reminder(String id, LocalDate date, String title, String description) {
+        Reminder r = new Reminder("alice", date.toString(), title, description, "9:00 AM");
+        r.setId(id);
+        return r;
+    }
+
+    private static List<String> ids(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::getId).toList();
+    }
+
+    @Test
+    void everyWordMatchesAsAPrefixAndAllAreRequired() {
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(
+                reminder("a", TODAY.plusDays(1), "Dentist appointment", null),
+                reminder("b", TODAY.plusDays(2), "Dental floss", "buy more"),
+                reminder("c", TODAY.plusDays(3), "Appointment with the bank", null)));
+
+        assertEquals(List.of("a", "b"), ids(index.search("dent", 10)));
+        assertEquals(List.of("a"), ids(index.search("appoint DENT", 10)));
+        assertTrue(index.search("dent bank", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertEquals(1, index.search("dent", 1).size());
+    }
+
+    @Test
+    void titleOutranksDescriptionAndWholeWordsOutrankPrefixes() {
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(
+                reminder("description", TODAY.plusDays(1), "Errands", "pick up the car"),
+                reminder("prefix", TODAY.plusDays(2), "Carpool", null),
+                reminder("title", TODAY.plusDays(3), "Car service", null)));
+
+        assertEquals(List.of("title", "prefix", "description"), ids(index.search("car", 10)));
+    }
+
+    @Test
+    void equalMatchesRankUpcomingSoonestThenRecentPast() {
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(
+                reminder("long ago", TODAY.minusDays(30), "Yoga", null),
+                reminder("later", TODAY.plusDays(10), "Yoga", null),
+                reminder("yesterday", TODAY.minusDays(1), "Yoga", null),
+                reminder("soon", TODAY.plusDays(1), "Yoga", null)));
+
+        assertEquals(List.of("soon", "later", "yesterday", "long ago"), ids(index.search("yoga", 10)));
+    }
+
+    @Test
+    void accentsAndCaseAreFolded() {
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(reminder("a", TODAY, "Café with Zoë", null)));
+
+        assertEquals(List.of("a"), ids(index.search("cafe zoe", 10)));
+        assertEquals(List.of("a"), ids(index.search("CAFÉ", 10)));
+        assertEquals(List.of("cafe", "with", "zoe"), ReminderIndex.tokenize("Café, with—Zoë!"));
+    }
+
+    @Test
+    void liveChangesReplaceAndRemoveEntries() {
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(reminder("a", TODAY, "Dentist", null), reminder("b", TODAY, "Dentist again", null)));
+
+        index.onChanges(List.of(reminder("a", TODAY, "Haircut", null)), List.of("b"));
+
+        assertTrue(index.search("dentist", 10).isEmpty());
+        assertEquals(List.of("a"), ids(index.search("hair", 10)));
+        assertFalse(index.contains("b"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void pagesReadBeforeALiveChangeDoNotUndoIt() {
+        ReminderIndex index = new ReminderIndex();
+        index.onChanges(List.of(reminder("a", TODAY, "Haircut", null)), List.of("b"));
+
+        // A page read before those changes still has the old versions
+        index.load(List.of(reminder("a", TODAY, "Dentist", null), reminder("b", TODAY, "Dentist again", null)));
+
+        assertTrue(index.search("dentist", 10).isEmpty());
+        assertEquals(List.of("a"), ids(index.search("haircut", 10)));
+    }
+
+    @Test
+    void seriesRankByTheirNextOccurrence() {
+        // Started long ago, but comes round tomorrow: ranks before a one-off next week
+        Reminder series = reminder("series", TODAY.minusYears(2), "Team sync", null);
+        series.setRecurrence("FREQ=DAILY");
+        series.setExceptions(new ArrayList<>(List.of(TODAY.toString())));
+
+        ReminderIndex index = new ReminderIndex();
+        index.load(List.of(reminder("once", TODAY.plusDays(7), "Team dinner", null)));
+        index.replaceSeries(List.of(series));
+
+        assertEquals(List.of("series", "once"), ids(index.search("team", 10)));
+
+        // Replacing the series drops the old ones
+        index.replaceSeries(List.of());
+        assertEquals(List.of("once"), ids(index.search("team", 10)));
+    }
+
+    @Test
+    void occurrencesAreCurrentOnlyWhileTheirSeriesIsUnchanged() {
+        Reminder series = reminder("s", TODAY, "Gym", null);
+        series.setRecurrence("FREQ=WEEKLY");
+        ReminderIndex index = new ReminderIndex();
+        index.replaceSeries(List.of(series));
+
+        Reminder occurrence = reminder("s_" + TODAY.plusWeeks(1), TODAY.plusWeeks(1), "Gym", null);
+        occurrence.setSeriesId("s");
+        occurrence.setRecurrence("FREQ=WEEKLY");
+        assertTrue(index.isCurrent(occurrence));
+
+        occurrence.setTitle("Gym (renamed)");
+        assertFalse(index.isCurrent(occurrence));
+
+        // Occurrences themselves are never indexed
+        index.onChanges(List.of(occurrence), List.of());
+        assertFalse(index.contains(occurrence.getId()));
+    }
+}
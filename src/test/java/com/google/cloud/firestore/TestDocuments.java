@@ -0,0 +1,69 @@
+package com.google.cloud.firestore;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.Timestamp;
+import com.google.firestore.v1.ArrayValue;
+import com.google.firestore.v1.Document;
+import com.google.firestore.v1.MapValue;
+import com.google.firestore.v1.Value;
+import com.google.protobuf.NullValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds real document snapshots from plain maps so the app's Firestore mapping can be
+ * tested without a backend. Lives in Firestore's package because the snapshot factories
+ * are package-private (as in the benchmarks' SyntheticDocuments).
+ */
+public final class TestDocuments {
+
+    private static final String PROJECT = "test";
+
+    private TestDocuments() {
+    }
+
+    // Client that never connects (no RPC is issued while building snapshots or batches)
+    public static Firestore offlineFirestore() {
+        return FirestoreOptions.newBuilder()
+                .setProjectId(PROJECT)
+                .setCredentials(NoCredentials.getInstance())
+                .setEmulatorHost("localhost:8080")
+                .build()
+                .getService();
+    }
+
+    // path is relative to the database root, e.g. "reminders/r1"
+    public static QueryDocumentSnapshot snapshot(Firestore db, String path, Map<String, ?> fields) {
+        Timestamp readTime = Timestamp.now();
+        Document.Builder doc = Document.newBuilder()
+                .setName("projects/" + PROJECT + "/databases/(default)/documents/" + path)
+                .setCreateTime(readTime.toProto())
+                .setUpdateTime(readTime.toProto());
+        fields.forEach((name, value) -> doc.putFields(name, value(value)));
+        return QueryDocumentSnapshot.fromDocument((FirestoreRpcContext<?>) db, readTime, doc.build());
+    }
+
+    public static DocumentSnapshot missing(Firestore db, String path) {
+        return DocumentSnapshot.fromMissing((FirestoreRpcContext<?>) db, db.document(path), Timestamp.now());
+    }
+
+    private static Value value(Object o) {
+        if (o == null) return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+        if (o instanceof String s) return Value.newBuilder().setStringValue(s).build();
+        if (o instanceof Boolean b) return Value.newBuilder().setBooleanValue(b).build();
+        if (o instanceof Double || o instanceof Float) return Value.newBuilder().setDoubleValue(((Number) o).doubleValue()).build();
+        if (o instanceof Number n) return Value.newBuilder().setIntegerValue(n.longValue()).build();
+        if (o instanceof List<?> list) {
+            ArrayValue.Builder array = ArrayValue.newBuilder();
+            for (Object item : list) array.addValues(value(item));
+            return Value.newBuilder().setArrayValue(array).build();
+        }
+        if (o instanceof Map<?, ?> map) {
+            MapValue.Builder fields = MapValue.newBuilder();
+            map.forEach((k, v) -> fields.putFields(k.toString(), value(v)));
+            return Value.newBuilder().setMapValue(fields).build();
+        }
+        throw new IllegalArgumentException("Unsupported field value " + o);
+    }
+}